@@ -0,0 +1,93 @@
+package com.bqnow.testshop.artifacts;
+
+import com.bqnow.testshop.base.BrowserPool;
+import com.bqnow.testshop.base.ContextPool;
+import com.bqnow.testshop.network.NetworkProfile;
+import com.bqnow.testshop.network.ResourceBlocker;
+import com.bqnow.testshop.network.StaticAssetCache;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Tracing;
+import com.microsoft.playwright.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten für Holen und Zurückgeben eines {@link BrowserContext} samt Page
+ * über denselben Weg wie {@code BaseTest}: Browser aus dem
+ * {@link BrowserPool}, Context aus dem {@link ContextPool} (Modus gemäß
+ * {@code CONTEXT_POOL}) mit den aktuellen Artefakt-Einstellungen
+ * ({@code TRACE_MODE}, {@code VIDEO_MODE}, ...), Asset-Cache und
+ * Netzwerk-Profil. Gemessen wird ein erster, erfolgreicher Versuch (kein
+ * Retry), der Trace-Chunk wird verworfen.
+ *
+ * Liegt im Paket {@code artifacts}, um den {@link ArtifactPlan} wie im Test
+ * zu erzeugen.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 30)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BrowserContextBenchmark {
+
+    @Param({ "chromium" })
+    public String engine;
+
+    private BrowserPool.PooledBrowser browser;
+    private ArtifactPlan plan;
+
+    @Setup
+    public void lease() {
+        browser = BrowserPool.getInstance().lease(engine);
+        plan = new ArtifactPlan(ArtifactPolicy.getInstance(), false, true);
+    }
+
+    @TearDown
+    public void close() {
+        ContextPool.getInstance().report();
+        BrowserPool.getInstance().release(browser);
+        BrowserPool.getInstance().shutdown();
+    }
+
+    @Benchmark
+    public void contextLifecycle() throws IOException {
+        ContextPool contextPool = ContextPool.getInstance();
+        ContextPool.Lease lease = contextPool.acquire(browser, plan, null);
+        BrowserContext context = lease.context();
+        StaticAssetCache.getInstance().attach(context);
+        ResourceBlocker.install(context, NetworkProfile.FUNCTIONAL);
+        if (plan.record(ArtifactType.TRACE)) {
+            context.tracing().startChunk(new Tracing.StartChunkOptions().setTitle("benchmark"));
+        }
+        Page page = context.newPage();
+        page.setContent("<html><body>benchmark</body></html>");
+
+        if (plan.record(ArtifactType.TRACE)) {
+            context.tracing().stopChunk();
+        }
+        Video video = page.video();
+        contextPool.release(browser, lease, true);
+        if (video != null) {
+            video.delete();
+        }
+        if (lease.harPath() != null) {
+            Files.deleteIfExists(lease.harPath());
+        }
+    }
+}
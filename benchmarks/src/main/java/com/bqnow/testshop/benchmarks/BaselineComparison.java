@@ -0,0 +1,127 @@
+package com.bqnow.testshop.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vergleicht JMH-Ergebnisse (JSON) mit einer gespeicherten Baseline.
+ *
+ * Eine Regression liegt vor, wenn sich ein Score um mehr als
+ * {@code maxRegression} (relativ) verschlechtert und der Unterschied größer
+ * ist als die Summe der beiden Fehlerintervalle. Bei {@code thrpt} ist ein
+ * höherer Score besser, bei allen Zeitmodi ein niedrigerer.
+ */
+final class BaselineComparison {
+
+    private final Map<String, Score> baseline;
+    private final Map<String, Score> current;
+    private final double maxRegression;
+
+    BaselineComparison(Map<String, Score> baseline, Map<String, Score> current, double maxRegression) {
+        this.baseline = baseline;
+        this.current = current;
+        this.maxRegression = maxRegression;
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(JsonParser.parseReader(reader).getAsJsonArray());
+        }
+    }
+
+    static Map<String, Score> parse(JsonArray results) {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            JsonObject metric = result.getAsJsonObject("primaryMetric");
+            double error = metric.get("scoreError").isJsonPrimitive()
+                    && metric.get("scoreError").getAsJsonPrimitive().isNumber()
+                    ? metric.get("scoreError").getAsDouble() : 0; // "NaN" bei nur einer Messung
+            scores.put(key(result), new Score(result.get("mode").getAsString(),
+                    metric.get("score").getAsDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").getAsString()));
+        }
+        return scores;
+    }
+
+    /**
+     * Benchmark-Name inklusive Parameter, z.B.
+     * {@code ...LokiPayloadBenchmark.encodeResults[results=10000]}.
+     */
+    private static String key(JsonObject result) {
+        String name = result.get("benchmark").getAsString();
+        if (!result.has("params")) {
+            return name;
+        }
+        Map<String, String> params = new TreeMap<>();
+        result.getAsJsonObject("params").entrySet()
+                .forEach(entry -> params.put(entry.getKey(), entry.getValue().getAsString()));
+        return name + params.toString().replace('{', '[').replace('}', ']').replace(" ", "");
+    }
+
+    /**
+     * Gibt die Tabelle aus und liefert die Regressionen.
+     */
+    List<String> report() {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Aktuell", "Änderung");
+        current.forEach((name, score) -> {
+            Score base = baseline.get(name);
+            if (base == null || !base.unit.equals(score.unit)) {
+                System.out.printf(Locale.ROOT, "%-80s %14s %14s %9s%n", shorten(name), "-",
+                        format(score), "neu");
+                return;
+            }
+            double change = (score.value - base.value) / base.value;
+            // Positiv = schlechter
+            double worse = "thrpt".equals(score.mode) ? -change : change;
+            boolean significant = Math.abs(score.value - base.value) > score.error + base.error;
+            boolean regression = worse > maxRegression && significant;
+            System.out.printf(Locale.ROOT, "%-80s %14s %14s %+8.1f%%%s%n", shorten(name), format(base),
+                    format(score), change * 100, regression ? "  ⚠️" : "");
+            if (regression) {
+                regressions.add(String.format(Locale.ROOT, "%s: %s → %s (%+.1f%%)", name, format(base),
+                        format(score), change * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static String format(Score score) {
+        return String.format(Locale.ROOT, "%.3f %s", score.value, score.unit);
+    }
+
+    private static String shorten(String name) {
+        return name.replace("com.bqnow.testshop.", "");
+    }
+
+    /**
+     * Ergebnis eines Benchmarks.
+     */
+    static final class Score {
+        final String mode;
+        final double value;
+        final double error;
+        final String unit;
+
+        Score(String mode, double value, double error, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bqnow.testshop.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Startet die Benchmarks und vergleicht das Ergebnis mit der Baseline.
+ *
+ * Aufruf aus dem Projektverzeichnis (wegen {@code config/.env}):
+ * {@code java -jar benchmarks/target/benchmarks.jar [JMH-Optionen]}.
+ * Ergebnisse landen als JSON in {@code BENCH_RESULT}
+ * (Default benchmarks/target/jmh-result.json), die Baseline liegt in
+ * {@code BENCH_BASELINE} (Default benchmarks/baseline.json). Mit
+ * {@code BENCH_UPDATE_BASELINE=true} wird das Ergebnis zur neuen Baseline;
+ * sonst endet der Lauf mit Exit-Code 1, wenn ein Benchmark um mehr als
+ * {@code BENCH_MAX_REGRESSION} (Default 0.10) langsamer ist.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException, CommandLineOptionException {
+        Path result = Paths.get(env("BENCH_RESULT", "benchmarks/target/jmh-result.json"));
+        Path baseline = Paths.get(env("BENCH_BASELINE", "benchmarks/baseline.json"));
+        double maxRegression = Double.parseDouble(env("BENCH_MAX_REGRESSION", "0.10"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+        new Runner(options.build()).run();
+
+        if (Boolean.parseBoolean(env("BENCH_UPDATE_BASELINE", "false"))) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("[Benchmarks] Baseline aktualisiert: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("[Benchmarks] Keine Baseline unter " + baseline
+                    + " – mit BENCH_UPDATE_BASELINE=true anlegen");
+            return;
+        }
+
+        List<String> regressions = new BaselineComparison(BaselineComparison.read(baseline),
+                BaselineComparison.read(result), maxRegression).report();
+        if (!regressions.isEmpty()) {
+            System.err.println("[Benchmarks] " + regressions.size() + " Regression(en) über "
+                    + Math.round(maxRegression * 100) + "%:");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    private static String env(String key, String defaultValue) {
+        String value = System.getenv(key);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
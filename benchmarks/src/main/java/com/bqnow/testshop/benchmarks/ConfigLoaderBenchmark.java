@@ -0,0 +1,47 @@
+package com.bqnow.testshop.benchmarks;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten eines Konfigurationszugriffs. Page Objects und Fixtures lesen pro
+ * Test mehrfach Werte; seit dem Snapshot ist jeder Zugriff ein Map-Lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigLoaderBenchmark {
+
+    private static final ConfigKey<Integer> BATCH_SIZE = ConfigKey.integer("GRAFANA_BATCH_SIZE", 50);
+
+    @Benchmark
+    public String staticGet() {
+        return ConfigLoader.get("BASE_URL");
+    }
+
+    @Benchmark
+    public String getEnvOrDefaultPresent() {
+        return ConfigLoader.getInstance().getEnvOrDefault("TEST_USER_NAME", "consultant");
+    }
+
+    @Benchmark
+    public String getEnvOrDefaultMissing() {
+        return ConfigLoader.getInstance().getEnvOrDefault("BENCHMARK_UNKNOWN_KEY", "default");
+    }
+
+    @Benchmark
+    public Integer typedGet() {
+        return ConfigLoader.getInstance().get(BATCH_SIZE);
+    }
+}
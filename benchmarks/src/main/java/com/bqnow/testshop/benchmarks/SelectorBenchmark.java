@@ -0,0 +1,54 @@
+package com.bqnow.testshop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aufbau der dynamischen Selektoren, wie ihn die Page Objects bei jeder
+ * Interaktion vornehmen ({@code ShopPage}, {@code CartPage}), im Vergleich zur
+ * Verkettung ohne {@code String.format}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectorBenchmark {
+
+    // Nicht final, damit JIT die Werte nicht faltet
+    private String productId = "1";
+    private String category = "Electronics";
+
+    @Benchmark
+    public String productCardFormat() {
+        // ShopPage.openProductDetails
+        return String.format("[data-testid='product-card-%s']", productId);
+    }
+
+    @Benchmark
+    public String categoryFormat() {
+        // ShopPage.filterByCategory
+        return String.format("[data-testid='category-%s']", category.toLowerCase());
+    }
+
+    @Benchmark
+    public String quantityFormat() {
+        // CartPage.increaseQuantity
+        return String.format("[data-testid='increase-qty-%s']", productId);
+    }
+
+    @Benchmark
+    public String productCardConcat() {
+        return "[data-testid='product-card-" + productId + "']";
+    }
+}
@@ -0,0 +1,41 @@
+package com.bqnow.testshop.benchmarks;
+
+import com.bqnow.testshop.utils.CustomerPool;
+import com.bqnow.testshop.utils.TestDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten der Kundendaten pro Test: Entnahme aus dem vorab erzeugten Bestand
+ * gegenüber dem Erzeugen eines Bestands mit Faker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDataGeneratorBenchmark {
+
+    @Benchmark
+    public TestDataGenerator.CustomerData generateCustomer() {
+        return TestDataGenerator.generateCustomer();
+    }
+
+    @Benchmark
+    public TestDataGenerator.CustomerData customerForKey() {
+        return TestDataGenerator.customerFor("HappyPathTest");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CustomerPool generatePoolOf1000() {
+        return CustomerPool.generate(42, 1000);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bqnow.testshop.reporting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aufbau der Loki-Payload des {@link GrafanaReporter} für 100, 10k und 100k
+ * Testergebnisse. Liegt im Paket des Encoders, da dieser package-private ist.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LokiPayloadBenchmark {
+
+    private static final String[] BROWSERS = { "chromium", "firefox", "webkit" };
+
+    @Param({ "100", "10000", "100000" })
+    public int results;
+
+    private List<TestDetail> details;
+    private LokiPayloadEncoder encoder;
+
+    @Setup(Level.Trial)
+    public void createResults() {
+        details = new ArrayList<>(results);
+        long timestamp = System.currentTimeMillis() * 1_000_000;
+        for (int i = 0; i < results; i++) {
+            boolean failed = i % 20 == 0;
+            details.add(new TestDetail("CheckoutValidationTest › case" + i, BROWSERS[i % BROWSERS.length],
+                    failed ? "failed" : "passed", 1000 + i % 5000,
+                    failed ? "AssertionError: Erwartet 'Checkout failed' aber erhalten: ''" : null, timestamp + i));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createEncoder() {
+        // Frischer Encoder pro Iteration, sonst wachsen die Zeitstempel-Korrekturen mit
+        encoder = new LokiPayloadEncoder("testshop", "benchmark", "bench");
+    }
+
+    @Benchmark
+    public byte[] encodeResults() {
+        return encoder.encodeResults(details);
+    }
+}
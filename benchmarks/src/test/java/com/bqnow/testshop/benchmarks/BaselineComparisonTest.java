@@ -0,0 +1,90 @@
+package com.bqnow.testshop.benchmarks;
+
+import com.google.gson.JsonParser;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Regressionen gegenüber der Baseline werden nur gemeldet,
+ * wenn sie die Schwelle und die Fehlerintervalle überschreiten.
+ */
+public class BaselineComparisonTest {
+
+    private static final String AVGT = "com.bqnow.testshop.benchmarks.SelectorBenchmark.resolve";
+    private static final String THRPT = "com.bqnow.testshop.reporting.LokiPayloadBenchmark.encodeResults[results=10000]";
+
+    @Test
+    public void flagsSlowerAverageTimeBeyondThresholdAndError() {
+        List<String> regressions = compare(score("avgt", 100, 2), score("avgt", 120, 3), AVGT);
+
+        assertEquals(regressions.size(), 1);
+        assertTrue(regressions.get(0).startsWith(AVGT + ":"), regressions.get(0));
+    }
+
+    @Test
+    public void ignoresFasterAverageTime() {
+        assertTrue(compare(score("avgt", 100, 2), score("avgt", 70, 2), AVGT).isEmpty());
+    }
+
+    @Test
+    public void treatsLowerThroughputAsRegression() {
+        assertEquals(compare(score("thrpt", 1000, 10), score("thrpt", 800, 10), THRPT).size(), 1);
+        assertTrue(compare(score("thrpt", 1000, 10), score("thrpt", 1300, 10), THRPT).isEmpty(),
+                "Höherer Durchsatz ist keine Regression");
+    }
+
+    @Test
+    public void ignoresChangeWithinErrorBars() {
+        // +20 % liegt über der Schwelle, aber innerhalb von 12 + 12
+        assertTrue(compare(score("avgt", 100, 12), score("avgt", 120, 12), AVGT).isEmpty());
+    }
+
+    @Test
+    public void ignoresChangeBelowThreshold() {
+        assertTrue(compare(score("avgt", 100, 0), score("avgt", 105, 0), AVGT).isEmpty());
+    }
+
+    @Test
+    public void ignoresNewOrReunitedBenchmarks() {
+        Map<String, BaselineComparison.Score> current = Map.of(AVGT, score("avgt", 500, 0));
+        assertTrue(new BaselineComparison(Map.of(), current, 0.10).report().isEmpty(), "Neuer Benchmark");
+
+        Map<String, BaselineComparison.Score> baseline = Map.of(AVGT,
+                new BaselineComparison.Score("avgt", 100, 0, "ms/op"));
+        assertTrue(new BaselineComparison(baseline, current, 0.10).report().isEmpty(), "Andere Einheit");
+    }
+
+    @Test
+    public void parsesParamsIntoKeyAndNaNErrorAsZero() {
+        Map<String, BaselineComparison.Score> scores = BaselineComparison.parse(JsonParser.parseString("["
+                + "{\"benchmark\":\"com.bqnow.testshop.reporting.LokiPayloadBenchmark.encodeResults\","
+                + "\"mode\":\"thrpt\",\"params\":{\"results\":\"10000\"},"
+                + "\"primaryMetric\":{\"score\":1234.5,\"scoreError\":\"NaN\",\"scoreUnit\":\"ops/s\"}},"
+                + "{\"benchmark\":\"" + AVGT + "\",\"mode\":\"avgt\","
+                + "\"primaryMetric\":{\"score\":1.5,\"scoreError\":0.25,\"scoreUnit\":\"us/op\"}}"
+                + "]").getAsJsonArray());
+
+        assertEquals(scores.keySet(), Set.of(THRPT, AVGT));
+        BaselineComparison.Score throughput = scores.get(THRPT);
+        assertEquals(throughput.mode, "thrpt");
+        assertEquals(throughput.value, 1234.5);
+        assertEquals(throughput.error, 0.0);
+        assertEquals(throughput.unit, "ops/s");
+        assertEquals(scores.get(AVGT).error, 0.25);
+    }
+
+    private static List<String> compare(BaselineComparison.Score base, BaselineComparison.Score current,
+            String name) {
+        return new BaselineComparison(Map.of(name, base), Map.of(name, current), 0.10).report();
+    }
+
+    private static BaselineComparison.Score score(String mode, double value, double error) {
+        return new BaselineComparison.Score(mode, value, error, "thrpt".equals(mode) ? "ops/s" : "us/op");
+    }
+}
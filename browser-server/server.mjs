@@ -0,0 +1,32 @@
+// Langlebiger Browser-Server für BROWSER_SERVER_<ENGINE> (siehe README, "Browser-Server").
+// Startet pro Engine einen Browser per launchServer; alle verbundenen JVMs teilen ihn
+// und arbeiten jeweils in eigenen Contexts.
+import { chromium, firefox, webkit } from 'playwright';
+
+const types = { chromium, firefox, webkit };
+const ports = { chromium: 9331, firefox: 9332, webkit: 9333 };
+const engines = (process.env.ENGINES || 'chromium,firefox').split(',').map(e => e.trim()).filter(Boolean);
+const headless = process.env.HEADLESS !== 'false';
+
+const servers = [];
+for (const engine of engines) {
+  if (!types[engine]) {
+    console.error(`Unbekannte Engine: ${engine}`);
+    process.exit(1);
+  }
+  const server = await types[engine].launchServer({
+    headless,
+    host: '0.0.0.0',
+    port: ports[engine],
+    wsPath: `/${engine}`,
+  });
+  servers.push(server);
+  console.log(`[BrowserServer] ${engine}: ${server.wsEndpoint()}`);
+}
+
+const shutdown = async () => {
+  await Promise.all(servers.map(server => server.close()));
+  process.exit(0);
+};
+process.on('SIGINT', shutdown);
+process.on('SIGTERM', shutdown);
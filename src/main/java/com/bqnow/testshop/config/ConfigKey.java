@@ -0,0 +1,90 @@
+package com.bqnow.testshop.config;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Typisierter Konfigurationsschlüssel mit Default und Parser.
+ * Leere Werte gelten als nicht gesetzt und liefern den Default; ungültige
+ * Zahlen und Enum-Werte führen zu einer {@link IllegalArgumentException}
+ * mit dem Namen des Schlüssels.
+ *
+ * @param <T> Typ des Werts
+ */
+public final class ConfigKey<T> {
+
+    private final String name;
+    private final T defaultValue;
+    private final Function<String, T> parser;
+
+    private ConfigKey(String name, T defaultValue, Function<String, T> parser) {
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.parser = parser;
+    }
+
+    public static ConfigKey<String> string(String name, String defaultValue) {
+        return new ConfigKey<>(name, defaultValue, Function.identity());
+    }
+
+    /**
+     * Schalter für alle Boolean-Einstellungen: nur exakt {@code true} bzw.
+     * {@code false} zählen, jeder andere Wert (auch {@code TRUE} oder
+     * {@code 1}) gilt mit Warnung als nicht gesetzt. Damit bleibt
+     * {@code CI=TRUE} wie bisher falsch.
+     */
+    public static ConfigKey<Boolean> flag(String name, boolean defaultValue) {
+        return new ConfigKey<>(name, defaultValue, value -> {
+            if ("true".equals(value)) {
+                return true;
+            }
+            if ("false".equals(value)) {
+                return false;
+            }
+            System.err.println("[Config] " + name + "='" + value + "' ist weder true noch false, verwende "
+                    + defaultValue);
+            return defaultValue;
+        });
+    }
+
+    public static ConfigKey<Integer> integer(String name, int defaultValue) {
+        return new ConfigKey<>(name, defaultValue, Integer::parseInt);
+    }
+
+    public static ConfigKey<Double> decimal(String name, double defaultValue) {
+        return new ConfigKey<>(name, defaultValue, Double::parseDouble);
+    }
+
+    /**
+     * Enum-Wert, Groß-/Kleinschreibung egal (z.B. {@code reset} für
+     * {@code RESET}).
+     */
+    public static <E extends Enum<E>> ConfigKey<E> choice(String name, E defaultValue) {
+        Class<E> type = defaultValue.getDeclaringClass();
+        return new ConfigKey<>(name, defaultValue, value -> Enum.valueOf(type, value.toUpperCase(Locale.ROOT)));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public T defaultValue() {
+        return defaultValue;
+    }
+
+    T parse(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(rawValue.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Ungültiger Wert für " + name + ": '" + rawValue + "'", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
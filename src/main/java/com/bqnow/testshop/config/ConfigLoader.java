@@ -1,62 +1,119 @@
 package com.bqnow.testshop.config;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvEntry;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Konfigurations-Loader mit Unterstützung für umgebungsspezifische Dateien.
- * Priorität: 1. System/Env Variablen, 2. .env.local, 3. .env.{TEST_ENV}, 4.
- * .env
+ * Priorität: 1. System-Properties ({@code -DKEY=...}), 2. System/Env
+ * Variablen, 3. .env.local, 4. .env.{TEST_ENV}, 5. .env
+ *
+ * Alle Ebenen werden einmalig beim Laden zu einem unveränderlichen Snapshot
+ * zusammengeführt; Lookups sind danach reine Map-Zugriffe und von allen
+ * Worker-Threads ohne Synchronisation lesbar. Zu jedem Schlüssel wird die
+ * Quelle gemerkt, die ihn gesetzt hat ({@link #sourceOf(String)}).
  */
 public class ConfigLoader {
-    private static ConfigLoader instance;
-    private final Dotenv dotenv;
+
+    public static final ConfigKey<String> BASE_URL = ConfigKey.string("BASE_URL", "http://localhost:3000");
+    public static final ConfigKey<String> TEST_USER_NAME = ConfigKey.string("TEST_USER_NAME", "consultant");
+    public static final ConfigKey<String> TEST_USER_PASSWORD = ConfigKey.string("TEST_USER_PASSWORD", "pwd");
+    public static final ConfigKey<Boolean> CI = ConfigKey.flag("CI", false);
+    public static final ConfigKey<Boolean> SKIP_WEBKIT = ConfigKey.flag("SKIP_WEBKIT", false);
+    public static final ConfigKey<String> HEADLESS = ConfigKey.string("HEADLESS", "false");
+
+    static final String SOURCE_ENV = "Umgebungsvariable";
+    static final String SOURCE_SYSTEM_PROPERTY = "System-Property";
+
+    // Muss nach den Schlüsseln stehen, da der Konstruktor sie verwendet
+    private static final ConfigLoader INSTANCE = new ConfigLoader(Paths.get("config"), System.getenv(),
+            System.getProperties());
+
+    private final Map<String, Value> snapshot;
+    private final List<String> loadedFiles;
+    private final Set<String> fileKeys;
     private final String baseURL;
     private final String testUserName;
     private final String testUserPassword;
     private final boolean isCI;
     private final boolean skipWebkit;
+    private final boolean headless;
 
-    private ConfigLoader() {
-        // Umgebungsspezifische Konfiguration laden
-        String testEnv = System.getenv("TEST_ENV");
-        Path configDir = Paths.get("config");
-
-        // Bestimmen, welche .env Datei basierend auf Priorität geladen wird
-        String envFile = ".env";
-        if (Files.exists(configDir.resolve(".env.local"))) {
-            envFile = ".env.local";
-        } else if (testEnv != null && Files.exists(configDir.resolve(".env." + testEnv))) {
-            envFile = ".env." + testEnv;
+    ConfigLoader(Path configDir, Map<String, String> environment, Properties systemProperties) {
+        Map<String, Value> merged = new HashMap<>();
+        List<String> files = new ArrayList<>();
+        Set<String> declared = new HashSet<>();
+
+        // TEST_ENV selbst kann nur von außen kommen, nicht aus den Dateien
+        String testEnv = systemProperties.getProperty("TEST_ENV", environment.get("TEST_ENV"));
+        List<String> layers = new ArrayList<>(List.of(".env"));
+        if (testEnv != null && !testEnv.isBlank()) {
+            layers.add(".env." + testEnv.trim());
         }
+        layers.add(".env.local");
 
-        this.dotenv = Dotenv.configure()
-                .directory(configDir.toString())
-                .filename(envFile)
-                .ignoreIfMissing()
-                .ignoreIfMalformed()
-                .load();
+        // Niedrigste Priorität zuerst, spätere Ebenen überschreiben
+        for (String layer : layers) {
+            Path file = configDir.resolve(layer);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            Dotenv dotenv = Dotenv.configure()
+                    .directory(configDir.toString())
+                    .filename(layer)
+                    .ignoreIfMalformed()
+                    .load();
+            String source = file.toString();
+            for (DotenvEntry entry : dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)) {
+                merged.put(entry.getKey(), new Value(entry.getValue(), source));
+                declared.add(entry.getKey());
+            }
+            files.add(source);
+        }
+        // Leere Umgebungsvariablen überschreiben keine Dateiwerte
+        environment.forEach((key, value) -> {
+            if (value != null && !value.isBlank()) {
+                merged.put(key, new Value(value, SOURCE_ENV));
+            }
+        });
+        for (String key : systemProperties.stringPropertyNames()) {
+            String value = systemProperties.getProperty(key);
+            if (value != null && !value.isBlank()) {
+                merged.put(key, new Value(value, SOURCE_SYSTEM_PROPERTY));
+            }
+        }
 
-        // Konfigurationswerte laden mit Priorität: System Env > .env Dateien
-        this.baseURL = getEnvOrDefault("BASE_URL", "http://localhost:3000");
-        this.testUserName = getEnvOrDefault("TEST_USER_NAME", "consultant");
-        this.testUserPassword = getEnvOrDefault("TEST_USER_PASSWORD", "pwd");
-        this.isCI = "true".equals(getEnvOrDefault("CI", "false"));
-        this.skipWebkit = "true".equals(getEnvOrDefault("SKIP_WEBKIT", "false"));
+        this.snapshot = Collections.unmodifiableMap(merged);
+        this.loadedFiles = Collections.unmodifiableList(files);
+        this.fileKeys = Collections.unmodifiableSet(declared);
+        this.baseURL = get(BASE_URL);
+        this.testUserName = get(TEST_USER_NAME);
+        this.testUserPassword = get(TEST_USER_PASSWORD);
+        this.isCI = get(CI);
+        this.skipWebkit = get(SKIP_WEBKIT);
+        this.headless = !"false".equals(get(HEADLESS));
     }
 
     public static ConfigLoader getInstance() {
-        if (instance == null) {
-            instance = new ConfigLoader();
-        }
-        return instance;
+        return INSTANCE;
     }
 
     /**
      * Ruft einen Konfigurationswert ab.
-     * 
+     *
      * @param key Schlüssel
      * @return Wert oder null
      */
@@ -65,13 +122,57 @@ public class ConfigLoader {
     }
 
     public String getEnvOrDefault(String key, String defaultValue) {
-        // System Env hat höchste Priorität
-        String sysEnv = System.getenv(key);
-        if (sysEnv != null && !sysEnv.isBlank()) {
-            return sysEnv;
+        Value value = snapshot.get(key);
+        return value != null ? value.raw : defaultValue;
+    }
+
+    /**
+     * Typisierter Zugriff; nicht gesetzte oder leere Werte liefern den
+     * Default des Schlüssels.
+     */
+    public <T> T get(ConfigKey<T> key) {
+        Value value = snapshot.get(key.name());
+        return key.parse(value != null ? value.raw : null);
+    }
+
+    /**
+     * Quelle, die den Schlüssel gesetzt hat: Pfad der .env-Datei,
+     * {@code Umgebungsvariable}, {@code System-Property} oder null, wenn der
+     * Schlüssel nirgends gesetzt ist.
+     */
+    public String sourceOf(String key) {
+        Value value = snapshot.get(key);
+        return value != null ? value.source : null;
+    }
+
+    /**
+     * Geladene .env-Dateien in Prioritätsreihenfolge (niedrigste zuerst).
+     */
+    public List<String> loadedFiles() {
+        return loadedFiles;
+    }
+
+    /**
+     * Alle in .env-Dateien deklarierten Schlüssel mit wirksamem Wert und
+     * Quelle, z.B. für das Log beim Suite-Start. Passwörter, Keys und Tokens
+     * werden maskiert.
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder("Geladene Dateien: ")
+                .append(loadedFiles.isEmpty() ? "keine" : String.join(", ", loadedFiles));
+        for (String key : new TreeSet<>(fileKeys)) {
+            Value value = snapshot.get(key);
+            String shown = isSecret(key) && !value.raw.isEmpty() ? "****" : value.raw;
+            text.append(System.lineSeparator()).append("  ").append(key).append('=').append(shown)
+                    .append(" (").append(value.source).append(')');
         }
-        // Dann Dotenv
-        return dotenv.get(key, defaultValue);
+        return text.toString();
+    }
+
+    private static boolean isSecret(String key) {
+        String upper = key.toUpperCase(Locale.ROOT);
+        return upper.contains("PASSWORD") || upper.contains("KEY") || upper.contains("TOKEN")
+                || upper.contains("SECRET");
     }
 
     public String getBaseURL() {
@@ -95,6 +196,19 @@ public class ConfigLoader {
     }
 
     public boolean isHeadless() {
-        return !"false".equals(getEnvOrDefault("HEADLESS", "false"));
+        return headless;
+    }
+
+    /**
+     * Rohwert eines Schlüssels und die Quelle, die ihn gesetzt hat.
+     */
+    private static final class Value {
+        final String raw;
+        final String source;
+
+        Value(String raw, String source) {
+            this.raw = raw;
+            this.source = source;
+        }
     }
 }
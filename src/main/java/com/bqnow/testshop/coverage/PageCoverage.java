@@ -0,0 +1,159 @@
+package com.bqnow.testshop.coverage;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Zeichnet pro Test auf, welche Page-Object-Methoden und App-Routen er
+ * berührt. Grundlage für die änderungsbasierte Testauswahl.
+ *
+ * Wie bei {@code ActionTimings} sammelt der Worker-Thread zwischen
+ * {@link #startTest()} und {@link #finishTest()}. Die Page-Object-Methode
+ * wird bei jeder Interaktion aus dem Aufrufstack ermittelt
+ * ({@code CartPage.increaseQuantity}), Routen werden normalisiert
+ * ({@code /products/1} → {@code /products/[id]}).
+ *
+ * Abschaltbar über {@code COVERAGE_RECORDING=false}.
+ */
+public final class PageCoverage {
+
+    private static final boolean ENABLED = ConfigLoader.getInstance().get(
+            ConfigKey.flag("COVERAGE_RECORDING", true));
+    private static final PageCoverage INSTANCE = new PageCoverage();
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final ThreadLocal<Recording> currentTest = new ThreadLocal<>();
+
+    private PageCoverage() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static PageCoverage getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Beginnt die Aufzeichnung für den Test des aktuellen Worker-Threads.
+     * Die Recording kann an Event-Handler (z.B. Navigationen) weitergereicht
+     * werden.
+     */
+    public Recording startTest() {
+        Recording recording = new Recording();
+        if (ENABLED) {
+            currentTest.set(recording);
+        }
+        return recording;
+    }
+
+    /**
+     * Beendet die Aufzeichnung und liefert die berührten Methoden und Routen
+     * (leer, falls deaktiviert).
+     */
+    public Recording finishTest() {
+        Recording recording = currentTest.get();
+        currentTest.remove();
+        return recording != null ? recording : new Recording();
+    }
+
+    /**
+     * Vermerkt die Methode von {@code pageObject}, aus der die laufende
+     * Interaktion stammt.
+     */
+    public void recordInteraction(Class<?> pageObject) {
+        Recording recording = currentTest.get();
+        if (recording == null) {
+            return;
+        }
+        String method = STACK.walk(frames -> frames
+                .filter(frame -> frame.getDeclaringClass() == pageObject)
+                .map(StackWalker.StackFrame::getMethodName)
+                .findFirst()
+                .orElse(null));
+        if (method != null) {
+            recording.pageMethods.add(pageObject.getSimpleName() + "." + lambdaOwner(method));
+        }
+    }
+
+    /**
+     * Vermerkt eine Route (Pfad oder vollständige URL) für den laufenden Test.
+     */
+    public void recordRoute(String urlOrPath) {
+        Recording recording = currentTest.get();
+        if (recording != null) {
+            recording.route(urlOrPath);
+        }
+    }
+
+    /**
+     * Pfad ohne Query, numerische Segmente als {@code [id]}.
+     */
+    public static String normalizeRoute(String urlOrPath) {
+        String path = urlOrPath;
+        try {
+            URI uri = URI.create(urlOrPath);
+            if (uri.getRawPath() != null) {
+                path = uri.getRawPath();
+            }
+        } catch (IllegalArgumentException e) {
+            // kein gültiger URI, als Pfad verwenden
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.isEmpty()) {
+            path = "/";
+        } else if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return ID_SEGMENT.matcher(path).replaceAll("/[id]");
+    }
+
+    // lambda$increaseQuantity$0 -> increaseQuantity
+    private static String lambdaOwner(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            return end > 0 ? method.substring("lambda$".length(), end) : method;
+        }
+        return method;
+    }
+
+    /**
+     * Berührte Page-Object-Methoden und Routen eines Tests.
+     */
+    public static final class Recording {
+        private final Set<String> pageMethods = new TreeSet<>();
+        private final Set<String> routes = new TreeSet<>();
+
+        /**
+         * Vermerkt eine Route; darf nur vom Worker-Thread des Tests
+         * aufgerufen werden (Playwright liefert Events dort aus).
+         */
+        public void route(String urlOrPath) {
+            if (ENABLED && urlOrPath != null && !urlOrPath.startsWith("about:")) {
+                routes.add(normalizeRoute(urlOrPath));
+            }
+        }
+
+        public Set<String> pageMethods() {
+            return pageMethods;
+        }
+
+        public Set<String> routes() {
+            return routes;
+        }
+
+        public boolean isEmpty() {
+            return pageMethods.isEmpty() && routes.isEmpty();
+        }
+    }
+}
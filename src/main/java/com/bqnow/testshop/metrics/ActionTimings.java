@@ -0,0 +1,146 @@
+package com.bqnow.testshop.metrics;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latenzen einzelner Page-Object-Aktionen (navigate, click, fill, waitFor...).
+ *
+ * Pro (Engine, Page Object, Aktion, Selektor) wird ein
+ * {@link DurationHistogram} in Mikrosekunden geführt. Zusätzlich sammelt der
+ * Worker-Thread die Aktionen des laufenden Tests, damit die langsamsten davon
+ * am Test-Report angehängt werden können.
+ *
+ * Abschaltbar über {@code ACTION_TIMINGS=false}; dann kostet eine Aktion nur
+ * noch eine Abfrage eines statischen Flags.
+ */
+public final class ActionTimings {
+
+    private static final boolean ENABLED = ConfigLoader.getInstance().get(ConfigKey.flag("ACTION_TIMINGS", true));
+    private static final ActionTimings INSTANCE = new ActionTimings();
+
+    private final Map<String, ActionStats> byAction = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<Sample>> currentTest = new ThreadLocal<>();
+
+    private ActionTimings() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static ActionTimings getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Zeichnet eine Aktion auf. {@code target} darf null sein.
+     */
+    public void record(String engine, String pageObject, String action, String target, long nanos) {
+        long micros = nanos / 1_000;
+        String key = engine + '|' + pageObject + '|' + action + '|' + target;
+        byAction.computeIfAbsent(key, k -> new ActionStats(engine, pageObject, action, target))
+                .histogram.record(micros);
+
+        List<Sample> samples = currentTest.get();
+        if (samples != null) {
+            samples.add(new Sample(pageObject, action, target, micros));
+        }
+    }
+
+    /**
+     * Beginnt die Sammlung für den Test des aktuellen Worker-Threads.
+     */
+    public void startTest() {
+        if (ENABLED) {
+            currentTest.set(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Beendet die Sammlung und liefert die Aktionen des Tests (leer, falls
+     * deaktiviert).
+     */
+    public List<Sample> finishTest() {
+        List<Sample> samples = currentTest.get();
+        currentTest.remove();
+        return samples != null ? samples : List.of();
+    }
+
+    /**
+     * Momentaufnahme aller Aktionen, langsamste (p90) zuerst.
+     */
+    public List<ActionStats> snapshot() {
+        List<ActionStats> stats = new ArrayList<>(byAction.values());
+        stats.sort(Comparator.comparingLong((ActionStats s) -> s.histogram.percentile(90)).reversed());
+        return stats;
+    }
+
+    /**
+     * Tabelle der {@code limit} langsamsten Aktionen eines Tests als CSV
+     * (wird von Allure als Tabelle dargestellt).
+     */
+    public static String slowestAsCsv(List<Sample> samples, int limit) {
+        StringBuilder csv = new StringBuilder("Rang,Page Object,Aktion,Ziel,Dauer (ms)\n");
+        List<Sample> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparingLong((Sample s) -> s.micros).reversed());
+        for (int i = 0; i < Math.min(limit, sorted.size()); i++) {
+            Sample s = sorted.get(i);
+            csv.append(i + 1).append(',')
+                    .append(s.pageObject).append(',')
+                    .append(s.action).append(',')
+                    .append(csvField(s.target)).append(',')
+                    .append(String.format(Locale.US, "%.1f", s.micros / 1000.0)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Eine einzelne Aktion innerhalb eines Tests.
+     */
+    public static final class Sample {
+        public final String pageObject;
+        public final String action;
+        public final String target;
+        public final long micros;
+
+        Sample(String pageObject, String action, String target, long micros) {
+            this.pageObject = pageObject;
+            this.action = action;
+            this.target = target;
+            this.micros = micros;
+        }
+    }
+
+    /**
+     * Aggregierte Latenzen einer Aktion über den gesamten Lauf (Mikrosekunden).
+     */
+    public static final class ActionStats {
+        public final String engine;
+        public final String pageObject;
+        public final String action;
+        public final String target;
+        public final DurationHistogram histogram = new DurationHistogram();
+
+        ActionStats(String engine, String pageObject, String action, String target) {
+            this.engine = engine;
+            this.pageObject = pageObject;
+            this.action = action;
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bqnow.testshop.metrics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Deklarative Performance-Budgets pro Route.
+ *
+ * Format (Properties): {@code <route>.<metrik>=<grenzwert>}, z.B.
+ * {@code /cart.lcp_ms=800}. Die Route {@code *} gilt für alle Routen ohne
+ * eigenes Budget für diese Metrik. Metriknamen siehe {@link WebVitals#METRICS}.
+ */
+public final class PerformanceBudgets {
+
+    private static final String ANY_ROUTE = "*";
+
+    private final Map<String, Map<String, Double>> limits;
+
+    PerformanceBudgets(Map<String, Map<String, Double>> limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Lädt die Budgets aus einer Datei; fehlt sie, gibt es keine Budgets.
+     */
+    public static PerformanceBudgets load(Path file) {
+        Map<String, Map<String, Double>> limits = new HashMap<>();
+        if (!Files.exists(file)) {
+            return new PerformanceBudgets(limits);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Performance-Budgets nicht lesbar: " + file, e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            int separator = key.lastIndexOf('.');
+            String metric = separator > 0 ? key.substring(separator + 1) : "";
+            if (!WebVitals.METRICS.contains(metric)) {
+                throw new IllegalArgumentException("Unbekannte Metrik in Performance-Budget '" + key
+                        + "', erlaubt: " + WebVitals.METRICS);
+            }
+            limits.computeIfAbsent(key.substring(0, separator), k -> new HashMap<>())
+                    .put(metric, Double.parseDouble(properties.getProperty(key).trim()));
+        }
+        return new PerformanceBudgets(limits);
+    }
+
+    /**
+     * Liefert alle überschrittenen Budgets (leer, falls alle eingehalten).
+     */
+    public List<String> violations(WebVitals vitals) {
+        List<String> violations = new ArrayList<>();
+        Map<String, Double> routeLimits = limits.getOrDefault(vitals.route(), Map.of());
+        Map<String, Double> defaultLimits = limits.getOrDefault(ANY_ROUTE, Map.of());
+        for (Map.Entry<String, Double> measured : vitals.metrics().entrySet()) {
+            Double limit = routeLimits.getOrDefault(measured.getKey(), defaultLimits.get(measured.getKey()));
+            if (limit != null && measured.getValue() > limit) {
+                violations.add(String.format(Locale.US, "%s %s=%.4g > %s", vitals.route(), measured.getKey(),
+                        measured.getValue(), format(limit)));
+            }
+        }
+        return violations;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,93 @@
+package com.bqnow.testshop.metrics;
+
+import com.microsoft.playwright.Page;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser-seitige Performance-Metriken einer Navigation (Navigation Timing,
+ * Paint Timing, LCP und CLS).
+ *
+ * Die Werte werden im Browser über {@code performance} und
+ * {@code PerformanceObserver} gelesen und enthalten damit keinen
+ * Roundtrip-Overhead des Treibers. Von der Engine nicht unterstützte Metriken
+ * (z.B. LCP in WebKit) fehlen in {@link #metrics()}.
+ */
+public final class WebVitals {
+
+    /** Metriknamen in Ausgabereihenfolge; Zeiten in ms, CLS einheitenlos. */
+    public static final List<String> METRICS = List.of(
+            "ttfb_ms", "dom_content_loaded_ms", "load_ms", "fcp_ms", "lcp_ms", "cls");
+
+    private static final String COLLECT_SCRIPT = "async () => {"
+            + "  const read = (type) => new Promise(resolve => {"
+            + "    const types = PerformanceObserver.supportedEntryTypes || [];"
+            + "    if (!types.includes(type)) { resolve(null); return; }"
+            + "    const entries = [];"
+            + "    const observer = new PerformanceObserver(list => entries.push(...list.getEntries()));"
+            + "    observer.observe({ type, buffered: true });"
+            + "    setTimeout(() => { entries.push(...observer.takeRecords()); observer.disconnect(); resolve(entries); }, 0);"
+            + "  });"
+            + "  const [lcp, shifts] = await Promise.all([read('largest-contentful-paint'), read('layout-shift')]);"
+            + "  const nav = performance.getEntriesByType('navigation')[0];"
+            + "  const fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+            + "  return {"
+            + "    ttfb_ms: nav ? nav.responseStart - nav.startTime : null,"
+            + "    dom_content_loaded_ms: nav && nav.domContentLoadedEventEnd ? nav.domContentLoadedEventEnd - nav.startTime : null,"
+            + "    load_ms: nav && nav.loadEventEnd ? nav.loadEventEnd - nav.startTime : null,"
+            + "    fcp_ms: fcp ? fcp.startTime : null,"
+            + "    lcp_ms: lcp && lcp.length ? lcp[lcp.length - 1].startTime : null,"
+            + "    cls: shifts ? shifts.filter(s => !s.hadRecentInput).reduce((sum, s) => sum + s.value, 0) : null"
+            + "  };"
+            + "}";
+
+    private final String route;
+    private final Map<String, Double> metrics;
+
+    WebVitals(String route, Map<String, Double> metrics) {
+        this.route = route;
+        this.metrics = Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Liest die Metriken der aktuellen Navigation der Seite.
+     */
+    public static WebVitals collect(Page page) {
+        Object result = page.evaluate(COLLECT_SCRIPT);
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        if (result instanceof Map) {
+            Map<?, ?> values = (Map<?, ?>) result;
+            for (String metric : METRICS) {
+                Object value = values.get(metric);
+                if (value instanceof Number) {
+                    metrics.put(metric, ((Number) value).doubleValue());
+                }
+            }
+        }
+        return new WebVitals(routeOf(page.url()), metrics);
+    }
+
+    public String route() {
+        return route;
+    }
+
+    /**
+     * Gemessene Metriken in der Reihenfolge von {@link #METRICS}.
+     */
+    public Map<String, Double> metrics() {
+        return metrics;
+    }
+
+    static String routeOf(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bqnow.testshop.metrics;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.microsoft.playwright.Page;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Erfasst nach jeder Navigation die {@link WebVitals} und prüft sie gegen die
+ * {@link PerformanceBudgets}.
+ *
+ * Pro (Engine, Route, Metrik) wird ein {@link DurationHistogram} geführt
+ * (Werte × 1000, d.h. Mikrosekunden bzw. Milli-CLS). Zusätzlich sammelt der
+ * Worker-Thread die Navigationen des laufenden Tests für den Test-Report.
+ *
+ * Konfiguration: {@code WEB_VITALS} (Default true), {@code PERF_BUDGETS_FILE}
+ * (Default config/performance-budgets.properties), {@code PERF_BUDGET_MODE}
+ * ({@code warn} = nur protokollieren, außer in Tests, die die Budgets per
+ * {@link #startTest(boolean)} erzwingen; {@code fail} = jeder Test schlägt
+ * fehl). Default ist {@code warn}, da Messwerte unter paralleler Last
+ * schwanken und funktionale Tests nicht daran scheitern sollen.
+ */
+public final class WebVitalsRecorder {
+
+    private static final WebVitalsRecorder INSTANCE = new WebVitalsRecorder();
+
+    private final boolean enabled;
+    private final boolean failAll;
+    private final PerformanceBudgets budgets;
+    private final Map<String, DurationHistogram> histograms = new ConcurrentHashMap<>();
+    private final LongAdder violationCount = new LongAdder();
+    private final ThreadLocal<List<Measurement>> currentTest = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> enforcedTest = new ThreadLocal<>();
+
+    private WebVitalsRecorder() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.enabled = config.get(ConfigKey.flag("WEB_VITALS", true));
+        this.failAll = "fail".equalsIgnoreCase(config.getEnvOrDefault("PERF_BUDGET_MODE", "warn"));
+        this.budgets = PerformanceBudgets.load(
+                Paths.get(config.getEnvOrDefault("PERF_BUDGETS_FILE", "config/performance-budgets.properties")));
+    }
+
+    public static WebVitalsRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Misst die aktuelle Navigation und prüft die Budgets. Im Modus
+     * {@code fail} oder in einem Test mit erzwungenen Budgets führt eine
+     * Überschreitung zu einem {@link AssertionError}.
+     */
+    public void afterNavigation(Page page, String engine) {
+        WebVitals vitals = WebVitals.collect(page);
+        List<String> violations = budgets.violations(vitals);
+
+        for (Map.Entry<String, Double> metric : vitals.metrics().entrySet()) {
+            histograms.computeIfAbsent(engine + '|' + vitals.route() + '|' + metric.getKey(),
+                    k -> new DurationHistogram()).record(Math.round(metric.getValue() * 1000));
+        }
+        List<Measurement> measurements = currentTest.get();
+        if (measurements != null) {
+            measurements.add(new Measurement(vitals, violations));
+        }
+
+        if (!violations.isEmpty()) {
+            violationCount.add(violations.size());
+            String message = "Performance-Budget überschritten (" + engine + "): " + String.join("; ", violations);
+            if (failAll || Boolean.TRUE.equals(enforcedTest.get())) {
+                throw new AssertionError(message);
+            }
+            System.out.println("[WebVitals] ⚠️ " + message);
+        }
+    }
+
+    /**
+     * Beginnt die Sammlung für den Test des aktuellen Worker-Threads;
+     * {@code enforceBudgets} lässt den Test auch im Modus {@code warn} an
+     * Budget-Überschreitungen scheitern.
+     */
+    public void startTest(boolean enforceBudgets) {
+        if (enabled) {
+            currentTest.set(new ArrayList<>());
+            enforcedTest.set(enforceBudgets);
+        }
+    }
+
+    /**
+     * Beendet die Sammlung und liefert die Messungen des Tests.
+     */
+    public List<Measurement> finishTest() {
+        List<Measurement> measurements = currentTest.get();
+        currentTest.remove();
+        enforcedTest.remove();
+        return measurements != null ? measurements : List.of();
+    }
+
+    public long violationCount() {
+        return violationCount.sum();
+    }
+
+    /**
+     * Histogramme pro Engine, jeweils nach "Route|Metrik" sortiert.
+     */
+    public Map<String, Map<String, DurationHistogram>> snapshotByEngine() {
+        Map<String, Map<String, DurationHistogram>> byEngine = new TreeMap<>();
+        histograms.forEach((key, histogram) -> {
+            int separator = key.indexOf('|');
+            byEngine.computeIfAbsent(key.substring(0, separator), k -> new TreeMap<>())
+                    .put(key.substring(separator + 1), histogram);
+        });
+        return byEngine;
+    }
+
+    /**
+     * Messungen eines Tests als CSV-Tabelle für Allure.
+     */
+    public static String asCsv(List<Measurement> measurements) {
+        StringBuilder csv = new StringBuilder("Route");
+        for (String metric : WebVitals.METRICS) {
+            csv.append(',').append(metric);
+        }
+        csv.append(",Budget\n");
+        for (Measurement m : measurements) {
+            csv.append('"').append(m.vitals.route()).append('"');
+            for (String metric : WebVitals.METRICS) {
+                Double value = m.vitals.metrics().get(metric);
+                csv.append(',');
+                if (value != null) {
+                    csv.append(String.format(Locale.US, "cls".equals(metric) ? "%.3f" : "%.0f", value));
+                }
+            }
+            csv.append(',').append(m.violations.isEmpty() ? "OK" : '"' + String.join("; ", m.violations) + '"')
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Eine Navigation mit ihren Metriken und Budget-Verletzungen.
+     */
+    public static final class Measurement {
+        public final WebVitals vitals;
+        public final List<String> violations;
+
+        Measurement(WebVitals vitals, List<String> violations) {
+            this.vitals = vitals;
+            this.violations = violations;
+        }
+    }
+}
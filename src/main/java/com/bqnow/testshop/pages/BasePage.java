@@ -1,22 +1,115 @@
 package com.bqnow.testshop.pages;
 
+import com.bqnow.testshop.coverage.PageCoverage;
+import com.bqnow.testshop.metrics.ActionTimings;
+import com.bqnow.testshop.metrics.WebVitalsRecorder;
+import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.Page;
 
 /**
  * Basis-Page-Klasse mit gemeinsamer Funktionalität für alle Page Objects.
+ *
+ * Interaktionen laufen über die Hilfsmethoden dieser Klasse, damit ihre
+ * Latenz pro Aktion und Selektor in {@link ActionTimings} erfasst wird.
+ * Nach jeder Navigation und nach jedem Warten, bei dem ein neues Dokument
+ * geladen wurde (z.B. Weiterleitung nach Login oder Checkout per Klick),
+ * werden die Web-Vitals gemessen und gegen die Performance-Budgets geprüft
+ * ({@link WebVitalsRecorder}); jedes Dokument wird dabei nur einmal gemessen. Jede Interaktion
+ * vermerkt außerdem die aufrufende Page-Object-Methode für die
+ * änderungsbasierte Testauswahl ({@link PageCoverage}). Im Lastmodus
+ * ({@link #setLoadMode}) entfallen Web-Vitals und Coverage.
  */
 public abstract class BasePage {
+    // Markiert das Dokument als gemessen; true, wenn es noch nicht gemessen war
+    private static final String MARK_MEASURED = "() => {"
+            + "  if (window.__webVitalsMeasured) return false;"
+            + "  window.__webVitalsMeasured = true;"
+            + "  return true;"
+            + "}";
+
+    private static volatile boolean loadMode;
+
     protected final Page page;
+    private final String engine;
 
     public BasePage(Page page) {
         this.page = page;
+        Browser browser = page.context().browser();
+        this.engine = browser != null ? browser.browserType().name() : "unknown";
+    }
+
+    /**
+     * Schaltet Web-Vitals-Messung samt Budget-Prüfung und Coverage-Aufzeichnung
+     * JVM-weit ab. Budget-Verletzungen unter Last sind keine funktionalen
+     * Fehler und würden die Fehlerquote der Journeys verfälschen.
+     */
+    public static void setLoadMode(boolean enabled) {
+        loadMode = enabled;
     }
 
     protected void navigate(String path) {
-        page.navigate(path);
+        timed("navigate", path, () -> page.navigate(path));
+        measureWebVitals();
     }
 
     protected void waitForLoadState() {
-        page.waitForLoadState();
+        timed("waitForLoadState", null, page::waitForLoadState);
+        measureWebVitals();
+    }
+
+    protected void click(String selector) {
+        timed("click", selector, () -> page.click(selector));
+    }
+
+    protected void fill(String selector, String value) {
+        timed("fill", selector, () -> page.fill(selector, value));
+    }
+
+    protected void waitForURL(String url) {
+        timed("waitForURL", url, () -> page.waitForURL(url));
+        measureWebVitals();
+    }
+
+    protected void waitForFunction(String expression) {
+        timed("waitForFunction", expression, () -> page.waitForFunction(expression));
+    }
+
+    /**
+     * Misst die Web-Vitals, sofern das aktuelle Dokument noch nicht gemessen
+     * wurde. Clientseitige Navigationen behalten das Dokument und damit
+     * dessen Ladezeiten; sie werden nicht erneut gemessen.
+     */
+    private void measureWebVitals() {
+        WebVitalsRecorder webVitals = WebVitalsRecorder.getInstance();
+        if (!loadMode && webVitals.isEnabled() && Boolean.TRUE.equals(page.evaluate(MARK_MEASURED))) {
+            webVitals.afterNavigation(page, engine);
+        }
+    }
+
+    /**
+     * Ereignisgetriebene Wartemethoden für diese Page.
+     */
+    protected PageSync sync() {
+        return PageSync.of(page);
+    }
+
+    /**
+     * Führt eine beliebige Aktion aus und erfasst ihre Latenz.
+     */
+    protected void timed(String action, String target, Runnable body) {
+        if (!loadMode && PageCoverage.isEnabled()) {
+            PageCoverage.getInstance().recordInteraction(getClass());
+        }
+        if (!ActionTimings.isEnabled()) {
+            body.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } finally {
+            ActionTimings.getInstance().record(engine, getClass().getSimpleName(), action, target,
+                    System.nanoTime() - start);
+        }
     }
 }
@@ -23,7 +23,7 @@ public class CartPage extends BasePage {
 
     public void increaseQuantity(String productId) {
         String increaseButton = String.format("[data-testid='increase-qty-%s']", productId);
-        page.click(increaseButton);
+        click(increaseButton);
     }
 
     public void checkTotal(String productId, String unitPrice) {
@@ -38,61 +38,29 @@ public class CartPage extends BasePage {
     }
 
     public void proceedToCheckout() {
-        page.click(CHECKOUT_INIT_BUTTON);
+        click(CHECKOUT_INIT_BUTTON);
     }
 
     public void fillShippingDetails(String fullName, String address, String city, String zip, String email) {
-        page.fill("[data-testid='checkout-name']", fullName);
-        page.fill("[data-testid='checkout-address']", address);
-        page.fill("[data-testid='checkout-city']", city);
-        page.fill("[data-testid='checkout-zip']", zip);
-        page.fill("[data-testid='checkout-email']", email);
+        fill("[data-testid='checkout-name']", fullName);
+        fill("[data-testid='checkout-address']", address);
+        fill("[data-testid='checkout-city']", city);
+        fill("[data-testid='checkout-zip']", zip);
+        fill("[data-testid='checkout-email']", email);
     }
 
     public void submitOrder() {
-        page.click(SUBMIT_ORDER_BUTTON);
+        click(SUBMIT_ORDER_BUTTON);
     }
 
     public void submitOrderExpectingError(String expectedMessageSubstring) {
-        // Nutze ein Array mit einem Element, um die Dialog-Nachricht zu erfassen
-        // (effektiv eine mutable final Variable)
-        final String[] capturedMessage = { null };
-
-        // Setzt den Dialog-Listener auf
-        page.onDialog(dialog -> {
-            capturedMessage[0] = dialog.message();
-            dialog.accept();
-        });
-
-        // Klick auf Absenden
-        page.click(SUBMIT_ORDER_BUTTON);
-
-        // Warten stellt sicher, dass die App Zeit hat, den Alert auszulösen.
-        // Ein besserer Ansatz wäre das Warten auf eine Bedingung, aber da ein Alert
-        // transient ist,
-        // verlassen wir uns darauf, dass die Implementierung blockiert oder das Event
-        // schnell feuert.
-        // Da wir in einer synchronen Methode schwer auf ein Event warten können ohne
-        // Latch,
-        // nutzen wir hier ein einfaches Timeout, um die Event-Verarbeitung zuzulassen.
-        // Eigentlich wäre page.waitForDialog besser, erfordert aber das Ausführen der
-        // Aktion innerhalb des Waits.
-
-        // Warten auf das Erscheinen des Dialogs
-        try {
-            // Gib ihm einen Moment. In einem echten Szenario wäre eine sicherere
-            // Synchronisation besser.
-            // Aber onDialog + click ist robust, wenn der Dialog erscheint.
-            // Wir nutzen waitForTimeout der Einfachheit halber, da der Event-Loop läuft.
-            page.waitForTimeout(2000);
-        } catch (Exception e) {
-            // ignorieren
-        }
-
-        // Überprüfe, ob wir es erfasst haben
-        assert capturedMessage[0] != null : "Erwarteter Alert-Dialog erschien nicht";
-        assert capturedMessage[0].contains(expectedMessageSubstring)
-                : "Erwartet '" + expectedMessageSubstring + "' aber erhalten: '" + capturedMessage[0] + "'";
+        // Klick auf Absenden und auf den Alert-Dialog warten; die Methode kehrt
+        // zurück, sobald der Dialog erscheint (Deadline: SYNC_TIMEOUT_MS)
+        String capturedMessage = sync().awaitDialog(() -> click(SUBMIT_ORDER_BUTTON));
+
+        // Überprüfe die Nachricht
+        assert capturedMessage.contains(expectedMessageSubstring)
+                : "Erwartet '" + expectedMessageSubstring + "' aber erhalten: '" + capturedMessage + "'";
     }
 
     public void expectFieldToBeInvalid(String testId) {
@@ -21,8 +21,12 @@ public class LoginPage extends BasePage {
     }
 
     public void login(String username, String password) {
-        page.fill(USERNAME_INPUT, username);
-        page.fill(PASSWORD_INPUT, password);
-        page.click(LOGIN_BUTTON);
+        fill(USERNAME_INPUT, username);
+        fill(PASSWORD_INPUT, password);
+        click(LOGIN_BUTTON);
+    }
+
+    public void waitForHome() {
+        waitForURL("**/");
     }
 }
@@ -0,0 +1,193 @@
+package com.bqnow.testshop.pages;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.metrics.DurationHistogram;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Ereignisgetriebene Synchronisation für Page Objects.
+ *
+ * Statt fester Wartezeiten und Polling endet jede Wartemethode, sobald das
+ * Ereignis eintrifft: Dialoge über {@code onceDialog}, LocalStorage-Änderungen
+ * über ein per {@code exposeBinding} angebundenes Init-Script (Push aus dem
+ * Browser) und Netzwerk über {@code waitForResponse}.
+ *
+ * Konfiguration: {@code SYNC_TIMEOUT_MS} (Default 10000) als Deadline,
+ * {@code SYNC_STRATEGY=legacy} stellt die bisherigen Wartezeiten
+ * (fester Sleep, Polling) zum Vergleich wieder her.
+ */
+public final class PageSync {
+
+    private static final String BINDING = "__pageSyncStorage";
+    private static final String STORAGE_HOOK = "(() => {"
+            + "  if (window.__pageSyncInstalled) return;"
+            + "  window.__pageSyncInstalled = true;"
+            + "  const notify = (key, value) => { try { window." + BINDING + "(key, value); } catch (e) {} };"
+            + "  const setItem = Storage.prototype.setItem;"
+            + "  Storage.prototype.setItem = function (key, value) {"
+            + "    setItem.call(this, key, value);"
+            + "    if (this === window.localStorage) notify(String(key), String(value));"
+            + "  };"
+            + "  const removeItem = Storage.prototype.removeItem;"
+            + "  Storage.prototype.removeItem = function (key) {"
+            + "    removeItem.call(this, key);"
+            + "    if (this === window.localStorage) notify(String(key), null);"
+            + "  };"
+            + "})();";
+
+    private static final double TIMEOUT_MS = ConfigLoader.getInstance().get(
+            ConfigKey.decimal("SYNC_TIMEOUT_MS", 10000));
+    private static final boolean LEGACY = "legacy".equalsIgnoreCase(
+            ConfigLoader.getInstance().getEnvOrDefault("SYNC_STRATEGY", "event"));
+    // Feste Wartezeit der bisherigen Dialog-Synchronisation
+    private static final double LEGACY_DIALOG_SLEEP_MS = 2000;
+
+    // Eintrag lebt bis zum Schließen der Page (der Wert hält die Page fest)
+    private static final Map<Page, PageSync> INSTANCES = new HashMap<>();
+    private static final Map<String, DurationHistogram> LATENCIES = new ConcurrentHashMap<>();
+
+    private final Page page;
+    // Von der Binding geschrieben, in waitForCondition gelesen
+    private final Map<String, String> storage = new ConcurrentHashMap<>();
+    private final Map<String, Long> storageVersions = new ConcurrentHashMap<>();
+
+    private PageSync(Page page) {
+        this.page = page;
+        page.onClose(closed -> {
+            synchronized (INSTANCES) {
+                INSTANCES.remove(closed);
+            }
+        });
+        if (!LEGACY) {
+            page.exposeBinding(BINDING, (source, args) -> {
+                String key = (String) args[0];
+                String value = (String) args[1];
+                if (value == null) {
+                    storage.remove(key);
+                } else {
+                    storage.put(key, value);
+                }
+                storageVersions.merge(key, 1L, Long::sum);
+                return null;
+            });
+            page.addInitScript(STORAGE_HOOK);
+            // Bereits geladenes Dokument ebenfalls anbinden
+            page.evaluate(STORAGE_HOOK);
+        }
+    }
+
+    /**
+     * Liefert die Synchronisation der Page. Binding und Storage-Hook werden
+     * beim ersten Aufruf einmal pro Page installiert (auch im bereits
+     * geladenen Dokument).
+     */
+    public static PageSync of(Page page) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(page, PageSync::new);
+        }
+    }
+
+    /**
+     * Führt {@code action} aus, wartet auf den dadurch ausgelösten Dialog,
+     * akzeptiert ihn und liefert dessen Nachricht.
+     */
+    public String awaitDialog(Runnable action) {
+        String[] message = { null };
+        page.onceDialog(dialog -> {
+            message[0] = dialog.message();
+            dialog.accept();
+        });
+        long start = System.nanoTime();
+        try {
+            action.run();
+            if (LEGACY) {
+                page.waitForTimeout(LEGACY_DIALOG_SLEEP_MS);
+            } else {
+                page.waitForCondition(() -> message[0] != null,
+                        new Page.WaitForConditionOptions().setTimeout(TIMEOUT_MS));
+            }
+        } catch (TimeoutError e) {
+            throw new AssertionError("Erwarteter Dialog erschien nicht innerhalb von " + (long) TIMEOUT_MS + " ms");
+        } finally {
+            recordLatency("dialog", start);
+        }
+        if (message[0] == null) {
+            throw new AssertionError("Erwarteter Dialog erschien nicht");
+        }
+        return message[0];
+    }
+
+    /**
+     * Führt {@code action} aus und wartet, bis der LocalStorage-Eintrag
+     * {@code key} danach geändert wurde und {@code condition} erfüllt
+     * (Wert ist null, wenn der Eintrag entfernt wurde).
+     *
+     * @param legacyPollExpression JS-Ausdruck für den Vergleichsmodus
+     *                             {@code SYNC_STRATEGY=legacy} (Polling)
+     */
+    public void awaitStorage(String key, Predicate<String> condition, String legacyPollExpression, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            if (LEGACY) {
+                action.run();
+                page.waitForFunction(legacyPollExpression, null,
+                        new Page.WaitForFunctionOptions().setTimeout(TIMEOUT_MS));
+                return;
+            }
+            long before = storageVersions.getOrDefault(key, 0L);
+            action.run();
+            page.waitForCondition(
+                    () -> storageVersions.getOrDefault(key, 0L) > before && condition.test(storage.get(key)),
+                    new Page.WaitForConditionOptions().setTimeout(TIMEOUT_MS));
+        } finally {
+            recordLatency("storage:" + key, start);
+        }
+    }
+
+    /**
+     * Führt {@code action} aus und wartet auf die erste passende Antwort.
+     */
+    public Response awaitResponse(Predicate<Response> matcher, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            return page.waitForResponse(matcher, new Page.WaitForResponseOptions().setTimeout(TIMEOUT_MS), action);
+        } finally {
+            recordLatency("response", start);
+        }
+    }
+
+    private static void recordLatency(String kind, long startNanos) {
+        String key = kind + " [" + (LEGACY ? "legacy" : "event") + "]";
+        LATENCIES.computeIfAbsent(key, k -> new DurationHistogram())
+                .record((System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Gibt die gemessenen Wartezeiten je Art und Strategie aus. Ein Lauf mit
+     * {@code SYNC_STRATEGY=legacy} liefert die Vergleichswerte.
+     */
+    public static void report() {
+        if (LATENCIES.isEmpty()) {
+            return;
+        }
+        LATENCIES.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            DurationHistogram h = entry.getValue();
+            System.out.printf(Locale.ROOT, "[Sync] %-24s n=%-4d p50=%dms p90=%dms max=%dms%n",
+                    entry.getKey(), h.count(), h.percentile(50), h.percentile(90), h.max());
+        });
+        DurationHistogram dialog = LATENCIES.get("dialog [event]");
+        if (dialog != null) {
+            System.out.printf(Locale.ROOT, "[Sync] Dialog: p50 %d ms statt %d ms fester Wartezeit (legacy)%n",
+                    dialog.percentile(50), (long) LEGACY_DIALOG_SLEEP_MS);
+        }
+    }
+}
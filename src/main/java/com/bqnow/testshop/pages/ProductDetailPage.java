@@ -7,6 +7,12 @@ import com.microsoft.playwright.Page;
  */
 public class ProductDetailPage extends BasePage {
 
+    // Polling-Bedingung der bisherigen Implementierung (SYNC_STRATEGY=legacy)
+    private static final String CART_NOT_EMPTY = "() => {" +
+            "  const cart = localStorage.getItem('cart');" +
+            "  return cart && JSON.parse(cart).length > 0;" +
+            "}";
+
     public ProductDetailPage(Page page) {
         super(page);
     }
@@ -16,13 +22,13 @@ public class ProductDetailPage extends BasePage {
         // Standard-Klick verwenden, damit Playwright wartet, bis der Button actionable
         // ist
         // (verhindert Klicks vor Abschluss der React-Hydration)
-        page.click(addButton);
+        // Danach auf die Aktualisierung des LocalStorage warten, um Race Conditions
+        // (besonders in WebKit/Docker) zu vermeiden. Die App meldet die Änderung per
+        // Push, statt dass wir pollen.
+        sync().awaitStorage("cart", ProductDetailPage::isNonEmptyCart, CART_NOT_EMPTY, () -> click(addButton));
+    }
 
-        // Warte explizit darauf, dass der LocalStorage aktualisiert wird,
-        // um Race Conditions (besonders in WebKit/Docker) zu vermeiden.
-        page.waitForFunction("() => {" +
-                "  const cart = localStorage.getItem('cart');" +
-                "  return cart && JSON.parse(cart).length > 0;" +
-                "}");
+    private static boolean isNonEmptyCart(String cart) {
+        return cart != null && !cart.isBlank() && !"[]".equals(cart.replaceAll("\\s", ""));
     }
 }
@@ -19,25 +19,26 @@ public class ShopPage extends BasePage {
     }
 
     public void searchProduct(String searchTerm) {
-        page.fill(SEARCH_INPUT, searchTerm);
-        page.click(SEARCH_BUTTON);
-        page.waitForURL("**/*query=*");
+        fill(SEARCH_INPUT, searchTerm);
+        click(SEARCH_BUTTON);
+        waitForURL("**/*query=*");
     }
 
     public void filterByCategory(String category) {
         String categorySelector = String.format("[data-testid='category-%s']", category.toLowerCase());
-        page.click(categorySelector);
+        click(categorySelector);
     }
 
     public void openProductDetails(String productId) {
         String productCard = String.format("[data-testid='product-card-%s']", productId);
-        page.locator(productCard).getByRole(com.microsoft.playwright.options.AriaRole.LINK,
-                new com.microsoft.playwright.Locator.GetByRoleOptions().setName("View")).click();
-        page.waitForURL("**/products/" + productId);
+        timed("click", productCard + " >> link=View",
+                () -> page.locator(productCard).getByRole(com.microsoft.playwright.options.AriaRole.LINK,
+                        new com.microsoft.playwright.Locator.GetByRoleOptions().setName("View")).click());
+        waitForURL("**/products/" + productId);
     }
 
     public void addProductDirectlyToCart(String productId) {
         String addToCartButton = String.format("[data-testid='add-to-cart-%s']", productId);
-        page.click(addToCartButton);
+        click(addToCartButton);
     }
 }
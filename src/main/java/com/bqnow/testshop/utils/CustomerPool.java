@@ -0,0 +1,140 @@
+package com.bqnow.testshop.utils;
+
+import com.bqnow.testshop.utils.TestDataGenerator.CustomerData;
+import com.github.javafaker.Faker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vorab erzeugter, reproduzierbarer Bestand an Kundendaten.
+ *
+ * Alle Kunden entstehen beim Anlegen in einem Durchlauf aus einem Faker mit
+ * festem Seed; derselbe Seed liefert dieselben Daten in derselben
+ * Reihenfolge. Danach wird nur noch gelesen: {@link #next()} verteilt die
+ * Kunden lock-frei reihum an beliebig viele Worker-Threads,
+ * {@link #forKey(String)} liefert für einen Schlüssel (z.B. den Testnamen)
+ * unabhängig von der Thread-Verteilung immer denselben Kunden.
+ *
+ * Der Bestand lässt sich als Tab-getrennte Datei speichern und wieder laden;
+ * die erste Zeile enthält den Seed.
+ */
+public final class CustomerPool {
+
+    private static final String SEED_HEADER = "# seed=";
+
+    private final long seed;
+    private final List<CustomerData> customers;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private CustomerPool(long seed, List<CustomerData> customers) {
+        if (customers.isEmpty()) {
+            throw new IllegalArgumentException("Kundenbestand darf nicht leer sein");
+        }
+        this.seed = seed;
+        this.customers = Collections.unmodifiableList(customers);
+    }
+
+    /**
+     * Erzeugt {@code size} Kunden aus dem Seed.
+     */
+    public static CustomerPool generate(long seed, int size) {
+        Faker faker = new Faker(Locale.ENGLISH, new Random(seed));
+        List<CustomerData> customers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            customers.add(new CustomerData(
+                    faker.name().firstName(),
+                    faker.name().lastName(),
+                    faker.internet().emailAddress(),
+                    faker.address().streetAddress(),
+                    faker.address().city(),
+                    faker.number().digits(5)));
+        }
+        return new CustomerPool(seed, customers);
+    }
+
+    /**
+     * Lädt einen mit {@link #save(Path)} gespeicherten Bestand.
+     */
+    public static CustomerPool load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(SEED_HEADER)) {
+                throw new IOException("Kein Kundenbestand (Seed-Zeile fehlt): " + file);
+            }
+            long seed = Long.parseLong(header.substring(SEED_HEADER.length()).trim());
+            List<CustomerData> customers = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    throw new IOException("Ungültige Zeile in " + file + ": " + line);
+                }
+                customers.add(new CustomerData(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]));
+            }
+            return new CustomerPool(seed, customers);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(SEED_HEADER + seed);
+            writer.newLine();
+            for (CustomerData customer : customers) {
+                writer.write(String.join("\t", clean(customer.firstName), clean(customer.lastName),
+                        clean(customer.email), clean(customer.address), clean(customer.city),
+                        clean(customer.zipCode)));
+                writer.newLine();
+            }
+        }
+    }
+
+    // Faker liefert keine Tabs/Zeilenumbrüche, aber das Dateiformat darf nicht brechen
+    private static String clean(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Nächster Kunde reihum; lock-frei und für parallele Worker geeignet.
+     */
+    public CustomerData next() {
+        return customers.get((int) (cursor.getAndIncrement() % customers.size()));
+    }
+
+    /**
+     * Immer derselbe Kunde für denselben Schlüssel und Seed, auch bei
+     * paralleler Ausführung.
+     */
+    public CustomerData forKey(String key) {
+        return customers.get(Math.floorMod(key.hashCode(), customers.size()));
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public int size() {
+        return customers.size();
+    }
+
+    @Override
+    public String toString() {
+        return customers.size() + " Kunden, Seed " + seed;
+    }
+}
@@ -1,12 +1,28 @@
 package com.bqnow.testshop.utils;
 
-import com.github.javafaker.Faker;
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
- * Testdaten-Generator unter Verwendung von JavaFaker
+ * Testdaten-Generator unter Verwendung von JavaFaker.
+ *
+ * Kunden stammen aus einem beim ersten Zugriff erzeugten {@link CustomerPool}
+ * mit festem Seed. Konfiguration:
+ * {@code TEST_DATA_SEED} (Default zufällig, wird beim Start ausgegeben),
+ * {@code TEST_DATA_POOL_SIZE} (Default 1000) und {@code TEST_DATA_CORPUS}
+ * (optionale Datei: wird geladen, falls vorhanden und Seed passend, sonst
+ * erzeugt und gespeichert). Mit dem ausgegebenen Seed lassen sich die Daten
+ * eines fehlgeschlagenen Laufs exakt wiederholen.
  */
 public class TestDataGenerator {
-    private static final Faker faker = new Faker();
+
+    private static final ConfigKey<Integer> POOL_SIZE = ConfigKey.integer("TEST_DATA_POOL_SIZE", 1000);
 
     public static class CustomerData {
         public final String firstName;
@@ -16,13 +32,35 @@ public class TestDataGenerator {
         public final String city;
         public final String zipCode;
 
-        public CustomerData() {
-            this.firstName = faker.name().firstName();
-            this.lastName = faker.name().lastName();
-            this.email = faker.internet().emailAddress();
-            this.address = faker.address().streetAddress();
-            this.city = faker.address().city();
-            this.zipCode = faker.number().digits(5);
+        public CustomerData(String firstName, String lastName, String email, String address, String city,
+                String zipCode) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.address = address;
+            this.city = city;
+            this.zipCode = zipCode;
+        }
+
+        public String fullName() {
+            return firstName + " " + lastName;
+        }
+
+        /**
+         * Kopie mit genau einem ungültigen Feld, abgeleitet aus den eigenen
+         * Daten und damit ebenso reproduzierbar.
+         */
+        public CustomerData invalid(Invalid variant) {
+            switch (variant) {
+                case SHORT_ZIP:
+                    return new CustomerData(firstName, lastName, email, address, city, zipCode.substring(0, 3));
+                case MALFORMED_EMAIL:
+                    return new CustomerData(firstName, lastName, email.replace("@", "-at-"), address, city, zipCode);
+                case EMPTY_CITY:
+                    return new CustomerData(firstName, lastName, email, address, "", zipCode);
+                default:
+                    throw new IllegalArgumentException("Unbekannte Variante: " + variant);
+            }
         }
 
         @Override
@@ -31,7 +69,64 @@ public class TestDataGenerator {
         }
     }
 
+    /**
+     * Ungültige Varianten für Validierungstests.
+     */
+    public enum Invalid {
+        SHORT_ZIP, MALFORMED_EMAIL, EMPTY_CITY
+    }
+
+    // Lazy: der Bestand entsteht erst beim ersten Zugriff
+    private static final class Holder {
+        static final CustomerPool POOL = createPool();
+    }
+
     public static CustomerData generateCustomer() {
-        return new CustomerData();
+        return Holder.POOL.next();
+    }
+
+    /**
+     * Fester Kunde für einen Schlüssel (z.B. Testname), unabhängig davon,
+     * welcher Worker den Test ausführt.
+     */
+    public static CustomerData customerFor(String key) {
+        return Holder.POOL.forKey(key);
+    }
+
+    public static CustomerPool pool() {
+        return Holder.POOL;
+    }
+
+    private static CustomerPool createPool() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        String configuredSeed = config.getEnvOrDefault("TEST_DATA_SEED", "");
+        String corpus = config.getEnvOrDefault("TEST_DATA_CORPUS", "");
+        int size = config.get(POOL_SIZE);
+
+        CustomerPool pool = null;
+        Path corpusFile = corpus.isBlank() ? null : Paths.get(corpus);
+        if (corpusFile != null && Files.isRegularFile(corpusFile)) {
+            try {
+                CustomerPool loaded = CustomerPool.load(corpusFile);
+                if (configuredSeed.isBlank() || Long.parseLong(configuredSeed.trim()) == loaded.seed()) {
+                    pool = loaded;
+                }
+            } catch (IOException e) {
+                System.err.println("[TestData] Korpus " + corpusFile + " nicht lesbar, erzeuge neu: " + e.getMessage());
+            }
+        }
+        if (pool == null) {
+            long seed = configuredSeed.isBlank() ? System.nanoTime() : Long.parseLong(configuredSeed.trim());
+            pool = CustomerPool.generate(seed, size);
+            if (corpusFile != null) {
+                try {
+                    pool.save(corpusFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Korpus " + corpusFile + " nicht schreibbar", e);
+                }
+            }
+        }
+        System.out.println("[TestData] " + pool + " (Wiederholung mit TEST_DATA_SEED=" + pool.seed() + ")");
+        return pool;
     }
 }
@@ -0,0 +1,55 @@
+package com.bqnow.testshop.artifacts;
+
+/**
+ * Aufnahme-Entscheidungen für einen einzelnen Testversuch.
+ */
+public final class ArtifactPlan {
+
+    private final ArtifactPolicy policy;
+    private final boolean retry;
+    private final boolean sampled;
+
+    ArtifactPlan(ArtifactPolicy policy, boolean retry, boolean sampled) {
+        this.policy = policy;
+        this.retry = retry;
+        this.sampled = sampled;
+    }
+
+    public boolean isRetry() {
+        return retry;
+    }
+
+    /**
+     * Ob das Artefakt während des Tests aufgezeichnet werden muss.
+     */
+    public boolean record(ArtifactType type) {
+        switch (policy.mode(type)) {
+            case OFF:
+                return false;
+            case ON_FIRST_RETRY:
+                return retry;
+            case ON_FAILURE_RETAINED:
+            case ALWAYS:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Ob das Artefakt nach Testende behalten und an Allure angehängt wird.
+     */
+    public boolean retain(ArtifactType type, boolean failed) {
+        switch (policy.mode(type)) {
+            case OFF:
+                return false;
+            case ON_FIRST_RETRY:
+                return retry;
+            case ALWAYS:
+                // Nicht gesampelte Tests verhalten sich wie on-failure-retained
+                return failed || sampled;
+            case ON_FAILURE_RETAINED:
+            default:
+                return failed;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bqnow.testshop.artifacts;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.retry.RetryTracker;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Konfigurierbare Aufnahme-Policy für Traces, Videos und Screenshots.
+ *
+ * Konfiguration:
+ * {@code TRACE_MODE}, {@code VIDEO_MODE}, {@code HAR_MODE},
+ * {@code SCREENSHOT_MODE} ({@code off}, {@code on-failure-retained},
+ * {@code on-first-retry}, {@code always}), {@code VIDEO_SIZE} (z.B.
+ * {@code 640x360}) und {@code ARTIFACT_SAMPLE_RATE} (Anteil der erfolgreichen
+ * Tests, deren Artefakte im Modus {@code always} behalten werden).
+ *
+ * Sind Wiederholungen aktiv ({@code RETRIES} > 0), nehmen Trace, Video und
+ * HAR per Default nur im Retry auf; der erste Versuch läuft ohne Overhead.
+ */
+public final class ArtifactPolicy {
+
+    private static final ArtifactPolicy INSTANCE = new ArtifactPolicy();
+
+    private final Map<ArtifactType, CaptureMode> modes = new EnumMap<>(ArtifactType.class);
+    private final double sampleRate;
+    private final int videoWidth;
+    private final int videoHeight;
+
+    // Fehlgeschlagene Versuche, um Wiederholungen (Retries) zu erkennen
+    private final Set<String> failedAttempts = ConcurrentHashMap.newKeySet();
+
+    private ArtifactPolicy() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        boolean retries = RetryTracker.getInstance().maxRetries() > 0;
+        for (ArtifactType type : ArtifactType.values()) {
+            modes.put(type, CaptureMode.parse(config.getEnvOrDefault(type.configKey, defaultMode(type, retries))));
+        }
+        this.sampleRate = config.get(ConfigKey.decimal("ARTIFACT_SAMPLE_RATE", 1.0));
+
+        String videoSize = config.getEnvOrDefault("VIDEO_SIZE", "");
+        if (videoSize.matches("\\d+x\\d+")) {
+            String[] parts = videoSize.split("x");
+            this.videoWidth = Integer.parseInt(parts[0]);
+            this.videoHeight = Integer.parseInt(parts[1]);
+        } else {
+            // Playwright-Default (Viewport, herunterskaliert auf max. 800x800)
+            this.videoWidth = 0;
+            this.videoHeight = 0;
+        }
+    }
+
+    public static ArtifactPolicy getInstance() {
+        return INSTANCE;
+    }
+
+    private static String defaultMode(ArtifactType type, boolean retries) {
+        if (type == ArtifactType.SCREENSHOT) {
+            return "on-failure-retained";
+        }
+        if (retries) {
+            return "on-first-retry";
+        }
+        return type == ArtifactType.HAR ? "off" : "on-failure-retained";
+    }
+
+    public CaptureMode mode(ArtifactType type) {
+        return modes.get(type);
+    }
+
+    public boolean hasCustomVideoSize() {
+        return videoWidth > 0 && videoHeight > 0;
+    }
+
+    public int videoWidth() {
+        return videoWidth;
+    }
+
+    public int videoHeight() {
+        return videoHeight;
+    }
+
+    /**
+     * Legt zu Testbeginn fest, welche Artefakte aufgenommen werden.
+     */
+    public ArtifactPlan plan(ITestResult result) {
+        boolean retry = failedAttempts.contains(attemptKey(result));
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new ArtifactPlan(this, retry, sampled);
+    }
+
+    /**
+     * Merkt sich fehlgeschlagene Versuche, damit ein erneuter Lauf derselben
+     * Methode als Retry erkannt wird.
+     */
+    public void recordOutcome(ITestResult result) {
+        if (result.getStatus() == ITestResult.FAILURE) {
+            failedAttempts.add(attemptKey(result));
+        }
+    }
+
+    /**
+     * Schlüssel eines Testaufrufs über alle Versuche hinweg.
+     */
+    public static String attemptKey(ITestResult result) {
+        return result.getTestContext().getName() + "|" + result.getMethod().getQualifiedName()
+                + "|" + Arrays.deepHashCode(result.getParameters());
+    }
+}
@@ -0,0 +1,83 @@
+package com.bqnow.testshop.artifacts;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sammelt den Overhead der Artefakt-Aufnahme (Zeit und Bytes) pro Lauf.
+ */
+public final class ArtifactStats {
+
+    private static final ArtifactStats INSTANCE = new ArtifactStats();
+    private static final Path REPORT_PATH = Paths.get("target/artifact-overhead.json");
+
+    private final Map<ArtifactType, LongAdder> nanos = new EnumMap<>(ArtifactType.class);
+    private final Map<ArtifactType, LongAdder> bytes = new EnumMap<>(ArtifactType.class);
+    private final Map<ArtifactType, LongAdder> retained = new EnumMap<>(ArtifactType.class);
+
+    private ArtifactStats() {
+        for (ArtifactType type : ArtifactType.values()) {
+            nanos.put(type, new LongAdder());
+            bytes.put(type, new LongAdder());
+            retained.put(type, new LongAdder());
+        }
+    }
+
+    public static ArtifactStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Verbucht die seit {@code startNanos} vergangene Zeit auf den Artefakt-Typ.
+     */
+    public void addTime(ArtifactType type, long startNanos) {
+        nanos.get(type).add(System.nanoTime() - startNanos);
+    }
+
+    public void addRetained(ArtifactType type, long size) {
+        retained.get(type).increment();
+        bytes.get(type).add(size);
+    }
+
+    /**
+     * Gibt den Overhead des Laufs aus und schreibt ihn nach
+     * {@code target/artifact-overhead.json}.
+     */
+    public void report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        ArtifactPolicy policy = ArtifactPolicy.getInstance();
+        System.out.println("[Artifacts] Overhead dieses Laufs:");
+        for (ArtifactType type : ArtifactType.values()) {
+            long millis = nanos.get(type).sum() / 1_000_000;
+            long size = bytes.get(type).sum();
+            long count = retained.get(type).sum();
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("mode", policy.mode(type).toString());
+            entry.put("overhead_ms", millis);
+            entry.put("retained", count);
+            entry.put("bytes", size);
+            report.put(type.name().toLowerCase(), entry);
+
+            System.out.printf("  %-10s %-20s %8d ms %6d behalten %12d Bytes%n",
+                    type.name().toLowerCase(), policy.mode(type), millis, count, size);
+        }
+
+        try {
+            Files.createDirectories(REPORT_PATH.getParent());
+            Files.writeString(REPORT_PATH, new GsonBuilder().setPrettyPrinting().create().toJson(report),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("[Artifacts] Report konnte nicht geschrieben werden: " + e.getMessage());
+        }
+    }
+}
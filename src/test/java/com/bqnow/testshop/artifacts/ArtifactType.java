@@ -0,0 +1,17 @@
+package com.bqnow.testshop.artifacts;
+
+/**
+ * Artefakt-Typen mit ihrem Konfigurationsschlüssel.
+ */
+public enum ArtifactType {
+    TRACE("TRACE_MODE"),
+    VIDEO("VIDEO_MODE"),
+    HAR("HAR_MODE"),
+    SCREENSHOT("SCREENSHOT_MODE");
+
+    final String configKey;
+
+    ArtifactType(String configKey) {
+        this.configKey = configKey;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bqnow.testshop.artifacts;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import io.qameta.allure.Allure;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchroner Writer für Screenshots, Traces und Videos.
+ *
+ * Der Test-Thread registriert den Anhang nur bei Allure und reiht das
+ * Verschieben der Datei in eine begrenzte Queue ein. Ist die Queue voll,
+ * übernimmt der Test-Thread die Arbeit selbst (Backpressure). Dateien werden
+ * per Rename bzw. Datei-zu-Datei-Kopie übertragen und nie im Heap gepuffert.
+ *
+ * Konfiguration: {@code ARTIFACT_WRITER_THREADS} (Default 2),
+ * {@code ARTIFACT_WRITER_QUEUE} (Default 64).
+ */
+public final class ArtifactWriter {
+
+    private static final ArtifactWriter INSTANCE = new ArtifactWriter();
+
+    private final ThreadPoolExecutor executor;
+    private final Path resultsDirectory;
+    private final Path tempDirectory = Paths.get("target/artifacts");
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object drained = new Object();
+
+    private ArtifactWriter() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        int threads = config.get(ConfigKey.integer("ARTIFACT_WRITER_THREADS", 2));
+        int capacity = config.get(ConfigKey.integer("ARTIFACT_WRITER_QUEUE", 64));
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        // Gleiches Verzeichnis wie der Allure-Lifecycle (von Surefire gesetzt)
+        this.resultsDirectory = Paths.get(System.getProperty("allure.results.directory", "target/allure-results"));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "artifact-writer-flush"));
+    }
+
+    public static ArtifactWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Liefert einen eindeutigen temporären Pfad, in den Playwright ein Artefakt
+     * schreiben kann.
+     */
+    public Path tempFile(String prefix, String extension) throws IOException {
+        Files.createDirectories(tempDirectory);
+        return Files.createTempFile(tempDirectory, prefix, "." + extension);
+    }
+
+    /**
+     * Hängt die Datei an den aktuellen Allure-Test an. Die Registrierung erfolgt
+     * sofort, das Verschieben nach {@code allure-results} im Hintergrund.
+     */
+    public void attach(String name, String mimeType, String extension, Path file, ArtifactType type) {
+        String source = Allure.getLifecycle().prepareAttachment(name, mimeType, extension);
+        Path target = resultsDirectory.resolve(source);
+        submit(() -> {
+            long size = Files.size(file);
+            Files.createDirectories(resultsDirectory);
+            move(file, target);
+            ArtifactStats.getInstance().addRetained(type, size);
+        });
+    }
+
+    /**
+     * Löscht ein nicht benötigtes Artefakt im Hintergrund.
+     */
+    public void discard(Path file) {
+        submit(() -> Files.deleteIfExists(file));
+    }
+
+    /**
+     * Wartet, bis alle eingereihten Artefakte geschrieben sind.
+     */
+    public void flush() {
+        synchronized (drained) {
+            while (pending.get() > 0) {
+                try {
+                    drained.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void submit(IoTask task) {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ArtifactWriter] Fehler beim Schreiben eines Artefakts: " + e.getMessage());
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (drained) {
+                        drained.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Anderes Dateisystem: Datei-zu-Datei kopieren, ohne den Inhalt im Heap zu halten
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(source);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bqnow.testshop.artifacts;
+
+/**
+ * Aufnahme-Modus für ein Artefakt (Trace, Video, Screenshot).
+ */
+public enum CaptureMode {
+    /** Nie aufnehmen. */
+    OFF,
+    /** Immer aufnehmen, aber nur bei Fehlschlag behalten. */
+    ON_FAILURE_RETAINED,
+    /** Nur im ersten Retry-Versuch aufnehmen und behalten. */
+    ON_FIRST_RETRY,
+    /** Immer aufnehmen und behalten (bei Erfolg gemäß Sampling-Rate). */
+    ALWAYS;
+
+    /**
+     * Parst Werte wie {@code on-failure-retained} aus der Konfiguration.
+     */
+    public static CaptureMode parse(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
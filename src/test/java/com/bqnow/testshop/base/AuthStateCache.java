@@ -0,0 +1,106 @@
+package com.bqnow.testshop.base;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.microsoft.playwright.BrowserContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache für authentifizierte Storage States (Cookies + LocalStorage inkl.
+ * {@code token}) pro Kombination aus Engine und Benutzer.
+ * Der Login über die UI wird nur einmal durchgeführt, danach wird der
+ * gespeicherte State bis zum Ablauf in neue Contexts injiziert.
+ */
+public final class AuthStateCache {
+
+    private static final AuthStateCache INSTANCE = new AuthStateCache();
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration ttl;
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private AuthStateCache() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.enabled = config.get(ConfigKey.flag("AUTH_STATE_CACHE", true));
+        this.directory = Paths.get(config.getEnvOrDefault("AUTH_STATE_DIR", "target/.auth"));
+        this.ttl = Duration.ofMinutes(config.get(ConfigKey.integer("AUTH_STATE_TTL_MINUTES", 30)));
+    }
+
+    public static AuthStateCache getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Liefert den Pfad zum gespeicherten State, sofern vorhanden und nicht
+     * abgelaufen.
+     *
+     * @return Pfad oder null
+     */
+    public Path validStatePath(String engine, String user) {
+        Path path = statePath(engine, user);
+        try {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            long ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis();
+            return ageMillis < ttl.toMillis() ? path : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Speichert den aktuellen State des Contexts atomar auf die Festplatte.
+     */
+    public void store(BrowserContext context, String engine, String user) {
+        Path path = statePath(engine, user);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            context.storageState(new BrowserContext.StorageStateOptions().setPath(tmp));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[AuthStateCache] State konnte nicht gespeichert werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Verwirft den gespeicherten State, z.B. wenn der Token abgelehnt wurde.
+     */
+    public void invalidate(String engine, String user) {
+        try {
+            Files.deleteIfExists(statePath(engine, user));
+        } catch (IOException e) {
+            System.err.println("[AuthStateCache] State konnte nicht gelöscht werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sperrobjekt pro (Engine, Benutzer), damit der Login auch bei paralleler
+     * Ausführung nur einmal stattfindet.
+     */
+    public Object lockFor(String engine, String user) {
+        return locks.computeIfAbsent(key(engine, user), k -> new Object());
+    }
+
+    private Path statePath(String engine, String user) {
+        return directory.resolve(key(engine, user) + ".json");
+    }
+
+    private static String key(String engine, String user) {
+        return engine + "-" + user.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
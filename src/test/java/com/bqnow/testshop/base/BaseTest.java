@@ -1,6 +1,19 @@
 package com.bqnow.testshop.base;
 
+import com.bqnow.testshop.artifacts.ArtifactPlan;
+import com.bqnow.testshop.artifacts.ArtifactPolicy;
+import com.bqnow.testshop.artifacts.ArtifactStats;
+import com.bqnow.testshop.artifacts.ArtifactType;
+import com.bqnow.testshop.artifacts.ArtifactWriter;
 import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.coverage.PageCoverage;
+import com.bqnow.testshop.metrics.ActionTimings;
+import com.bqnow.testshop.metrics.WebVitalsRecorder;
+import com.bqnow.testshop.network.ResourceBlocker;
+import com.bqnow.testshop.network.StaticAssetCache;
+import com.bqnow.testshop.selection.TestSelection;
+import com.bqnow.testshop.state.SetupTimings;
+import com.bqnow.testshop.state.StateInjector;
 import com.bqnow.testshop.pages.*;
 import com.microsoft.playwright.*;
 import io.qameta.allure.Allure;
@@ -8,163 +21,386 @@ import org.testng.SkipException;
 import org.testng.annotations.*;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.List;
 
 /**
  * Basis-Testklasse mit Playwright Lifecycle-Management und gemeinsamen
  * Fixtures.
+ *
+ * Alle Playwright-Objekte und Page Objects sind an den ausführenden
+ * Worker-Thread gebunden ({@link ThreadLocal}), damit Testmethoden derselben
+ * Klasse parallel laufen können. Ein Browser wird pro Testmethode exklusiv aus
+ * dem {@link BrowserPool} ausgeliehen, den Context liefert der
+ * {@link ContextPool} (standardmäßig neu pro Test).
  */
 public abstract class BaseTest {
-    protected Playwright playwright;
-    protected Browser browser;
-    protected BrowserContext context;
-    protected Page page;
 
     // Konfiguration
-    protected static ConfigLoader config;
+    protected static final ConfigLoader config = ConfigLoader.getInstance();
 
-    // Page Objects
-    protected LoginPage loginPage;
-    protected ShopPage shopPage;
-    protected ProductDetailPage productDetailPage;
-    protected CartPage cartPage;
+    private final ThreadLocal<Fixture> fixture = new ThreadLocal<>();
+    private final AuthStateCache authCache = AuthStateCache.getInstance();
+    private final ArtifactPolicy artifactPolicy = ArtifactPolicy.getInstance();
+    private final ArtifactStats artifactStats = ArtifactStats.getInstance();
+    private final ArtifactWriter artifactWriter = ArtifactWriter.getInstance();
+    private final ActionTimings actionTimings = ActionTimings.getInstance();
+    private final WebVitalsRecorder webVitals = WebVitalsRecorder.getInstance();
+    private final StaticAssetCache assetCache = StaticAssetCache.getInstance();
+    private final PageCoverage pageCoverage = PageCoverage.getInstance();
+    private final ContextPool contextPool = ContextPool.getInstance();
+    private volatile String browserName = "chromium";
 
     @Parameters("browser")
     @BeforeClass
     public void setupBrowser(@Optional("chromium") String browserName) {
-        config = ConfigLoader.getInstance();
-        playwright = Playwright.create();
-
-        // Browser mit entsprechenden Einstellungen erstellen
-        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                .setHeadless(config.isHeadless());
-
-        switch (browserName.toLowerCase()) {
-            case "firefox":
-                browser = playwright.firefox().launch(launchOptions);
-                break;
-            case "webkit":
-                if (config.skipWebkit()) {
-                    System.out.println("Überspringe WebKit gemäß Konfiguration");
-                    // browser = playwright.webkit().launch(launchOptions); // Weiterhin über Config
-                    // überspringbar
-                    throw new SkipException("Überspringe WebKit Tests in dieser Umgebung (CI/Docker)");
-                } else {
-                    browser = playwright.webkit().launch(launchOptions);
-                }
-                break;
-            case "chromium":
-            default:
-                browser = playwright.chromium().launch(launchOptions);
-                break;
+        if ("webkit".equalsIgnoreCase(browserName) && config.skipWebkit()) {
+            System.out.println("Überspringe WebKit gemäß Konfiguration");
+            throw new SkipException("Überspringe WebKit Tests in dieser Umgebung (CI/Docker)");
         }
+        this.browserName = browserName;
     }
 
     @BeforeMethod
-    public void setupTest() {
-        // Neuen Context für Test-Isolation erstellen
-        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
-                .setBaseURL(config.getBaseURL())
-                .setIgnoreHTTPSErrors(true)
-                // Videoaufnahme aktivieren
-                .setRecordVideoDir(Paths.get("target/videos/"));
+    public void setupTest(org.testng.ITestResult result) {
+        Fixture f = new Fixture();
+        fixture.set(f);
+        f.testName = getClass().getSimpleName() + " › " + result.getMethod().getMethodName();
+        f.artifacts = artifactPolicy.plan(result);
+        actionTimings.startTest();
+        webVitals.startTest(getClass().isAnnotationPresent(EnforcePerformanceBudgets.class));
+        f.coverage = pageCoverage.startTest();
+
+        // Browser exklusiv für diesen Worker-Thread aus dem JVM-weiten Pool ausleihen
+        f.browserLease = BrowserPool.getInstance().lease(browserName, getClass());
 
-        context = browser.newContext(contextOptions);
+        // Gecachten Login-State injizieren (außer für Klassen mit @FreshLogin)
+        f.authStatePath = usesAuthCache() ? prepareAuthState(f) : null;
 
-        // Tracing immer aktivieren (geringer Overhead, essenziell für Debugging)
-        context.tracing().start(new Tracing.StartOptions()
-                .setScreenshots(true)
-                .setSnapshots(true)
-                .setSources(true));
+        // Isolierten Context aus dem Context-Pool holen; Video, Tracing und HAR
+        // gemäß Capture-Policy legt der Pool beim Erzeugen fest (Retries immer frisch)
+        f.contextLease = contextPool.acquire(f.browserLease, f.artifacts, f.authStatePath);
+        f.context = f.contextLease.context();
+        // Statische Assets aus dem lokalen Cache ausliefern bzw. aufzeichnen
+        assetCache.attach(f.context);
+        // Netzwerk-Profil zuletzt registrieren, damit Blockieren vor dem Cache greift
+        f.resourceBlocker = ResourceBlocker.install(f.context, ResourceBlocker.profileFor(getClass()));
+
+        // Pro Test ein eigener Trace-Chunk, damit nur der Chunk eines
+        // fehlgeschlagenen Tests geschrieben wird
+        if (f.artifacts.record(ArtifactType.TRACE)) {
+            long start = System.nanoTime();
+            f.context.tracing().startChunk(new Tracing.StartChunkOptions().setTitle(result.getName()));
+            artifactStats.addTime(ArtifactType.TRACE, start);
+        }
 
-        page = context.newPage();
+        f.page = f.context.newPage();
+        // Besuchte Routen inkl. clientseitiger Navigationen für die Testauswahl
+        PageCoverage.Recording coverage = f.coverage;
+        f.page.onFrameNavigated(frame -> {
+            if (frame.parentFrame() == null) {
+                coverage.route(frame.url());
+            }
+        });
 
         // Page Objects initialisieren
-        loginPage = new LoginPage(page);
-        shopPage = new ShopPage(page);
-        productDetailPage = new ProductDetailPage(page);
-        cartPage = new CartPage(page);
+        f.loginPage = new LoginPage(f.page);
+        f.shopPage = new ShopPage(f.page);
+        f.productDetailPage = new ProductDetailPage(f.page);
+        f.cartPage = new CartPage(f.page);
     }
 
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void teardownTest(org.testng.ITestResult result) {
-        java.nio.file.Path videoPath = null;
-        if (page != null && page.video() != null) {
-            videoPath = page.video().path(); // Video-Pfad vor dem Schließen des Contexts holen
+        Fixture f = fixture.get();
+        fixture.remove();
+        if (f == null) {
+            return;
+        }
+        try {
+            TestSelection.getInstance().record(result, pageCoverage.finishTest());
+            attachPerformanceData(f);
+            closeContext(f, result);
+        } finally {
+            // Browser für den nächsten Test an den Pool zurückgeben
+            BrowserPool.getInstance().release(f.browserLease);
         }
+    }
 
-        if (result.getStatus() == org.testng.ITestResult.FAILURE) {
-            // Screenshot bei Fehler aufnehmen
-            if (page != null) {
-                byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(true));
-                Allure.addAttachment("Failure Screenshot", "image/png",
-                        new java.io.ByteArrayInputStream(screenshot), "png");
-            }
+    private void closeContext(Fixture f, org.testng.ITestResult result) {
+        BrowserContext context = f.context;
+        Page page = f.page;
+        ArtifactPlan plan = f.artifacts;
+        // Ein zur Wiederholung markierter Versuch steht hier ggf. schon auf SKIP
+        boolean failed = result.getStatus() == org.testng.ITestResult.FAILURE || result.wasRetried();
+        artifactPolicy.recordOutcome(result);
 
-            // Trace bei Fehler aufnehmen
-            if (context != null) {
-                try {
-                    String traceName = "trace-" + result.getName() + "-" + System.currentTimeMillis() + ".zip";
-                    java.nio.file.Path traceOutputPath = Paths.get("target/allure-results/" + traceName);
+        Video video = page != null ? page.video() : null;
+        // Remote oder bei weiterverwendetem Context ist das Video erst nach dem Schließen der Seite fertig;
+        // ohne Browser (Setup schon beim Ausleihen gescheitert) gibt es ohnehin kein Video
+        boolean deferredVideo = (f.browserLease != null && f.browserLease.isRemote()) || contextPool.isEnabled();
+        java.nio.file.Path videoPath = null;
+        if (video != null && !deferredVideo) {
+            videoPath = video.path(); // Video-Pfad vor dem Schließen des Contexts holen
+        }
 
-                    context.tracing().stop(new Tracing.StopOptions().setPath(traceOutputPath));
+        // Screenshot gemäß Capture-Policy direkt in eine Datei aufnehmen;
+        // das Verschieben nach allure-results übernimmt der ArtifactWriter
+        if (page != null && plan.retain(ArtifactType.SCREENSHOT, failed)) {
+            long start = System.nanoTime();
+            try {
+                java.nio.file.Path screenshotPath = artifactWriter.tempFile("screenshot-", "png");
+                page.screenshot(new Page.ScreenshotOptions().setFullPage(true).setPath(screenshotPath));
+                artifactWriter.attach(failed ? "Failure Screenshot" : "Screenshot", "image/png", "png",
+                        screenshotPath, ArtifactType.SCREENSHOT);
+            } catch (IOException | PlaywrightException e) {
+                System.err.println("Fehler beim Erstellen des Screenshots: " + e.getMessage());
+            }
+            artifactStats.addTime(ArtifactType.SCREENSHOT, start);
+        }
 
-                    Allure.addAttachment("Playwright Trace", "application/zip",
-                            new java.io.FileInputStream(traceOutputPath.toFile()), "zip");
-                } catch (Exception e) {
-                    System.err.println("Fehler beim Speichern des Trace: " + e.getMessage());
+        // Trace-Chunk nur bei Bedarf schreiben, sonst verwerfen
+        if (context != null && plan.record(ArtifactType.TRACE)) {
+            long start = System.nanoTime();
+            try {
+                if (plan.retain(ArtifactType.TRACE, failed)) {
+                    java.nio.file.Path tracePath = artifactWriter.tempFile("trace-" + result.getName() + "-", "zip");
+                    context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(tracePath));
+                    artifactWriter.attach("Playwright Trace", "application/zip", "zip", tracePath,
+                            ArtifactType.TRACE);
+                } else {
+                    context.tracing().stopChunk();
                 }
+            } catch (IOException | PlaywrightException e) {
+                System.err.println("Fehler beim Speichern des Trace: " + e.getMessage());
             }
+            artifactStats.addTime(ArtifactType.TRACE, start);
         }
 
-        // Context schließen, um Video und Traces auf die Festplatte zu schreiben
+        // Context schließen bzw. zurücksetzen, um Video und Traces auf die Festplatte zu schreiben
         if (context != null) {
-            context.close();
+            long start = System.nanoTime();
+            contextPool.release(f.browserLease, f.contextLease, !failed && !f.contextTainted);
+            if (video != null) {
+                // Beim Schließen wird das Video fertig encodiert
+                artifactStats.addTime(ArtifactType.VIDEO, start);
+            }
         }
 
-        // Video-Datei nach dem Schließen des Contexts verarbeiten
-        if (videoPath != null) {
-            if (result.getStatus() == org.testng.ITestResult.FAILURE) {
-                try {
-                    String videoFileName = "video-" + result.getName() + "-" + System.currentTimeMillis() + ".webm";
-                    java.nio.file.Path targetVideoPath = Paths.get("target/allure-results/" + videoFileName);
-                    Files.move(videoPath, targetVideoPath, StandardCopyOption.REPLACE_EXISTING);
-                    Allure.addAttachment("Failure Video", "video/webm",
-                            new java.io.FileInputStream(targetVideoPath.toFile()), "webm");
-                } catch (IOException e) {
-                    System.err.println("Fehler beim Verschieben oder Anhängen des Videos: " + e.getMessage());
-                }
+        // HAR wird beim Schließen des Contexts geschrieben
+        java.nio.file.Path harPath = f.contextLease != null ? f.contextLease.harPath() : null;
+        if (harPath != null) {
+            long start = System.nanoTime();
+            if (plan.retain(ArtifactType.HAR, failed)) {
+                artifactWriter.attach("HAR", "application/json", "har", harPath, ArtifactType.HAR);
             } else {
-                // Video bei Erfolg löschen
-                try {
-                    Files.deleteIfExists(videoPath);
-                } catch (IOException e) {
-                    System.err.println("Fehler beim Löschen der Videodatei: " + e.getMessage());
+                artifactWriter.discard(harPath);
+            }
+            artifactStats.addTime(ArtifactType.HAR, start);
+        }
+
+        // Video nur bei Bedarf herunterladen bzw. kopieren
+        if (video != null && deferredVideo) {
+            long start = System.nanoTime();
+            try {
+                if (plan.retain(ArtifactType.VIDEO, failed)) {
+                    videoPath = artifactWriter.tempFile("video-", "webm");
+                    video.saveAs(videoPath);
                 }
+                video.delete();
+            } catch (IOException | PlaywrightException e) {
+                System.err.println("Fehler beim Speichern des Videos: " + e.getMessage());
+                videoPath = null;
+            }
+            artifactStats.addTime(ArtifactType.VIDEO, start);
+        }
+
+        // Video-Datei nach dem Schließen des Contexts im Hintergrund verarbeiten
+        if (videoPath != null) {
+            long start = System.nanoTime();
+            if (plan.retain(ArtifactType.VIDEO, failed)) {
+                artifactWriter.attach(failed ? "Failure Video" : "Video", "video/webm", "webm", videoPath,
+                        ArtifactType.VIDEO);
+            } else {
+                artifactWriter.discard(videoPath);
             }
+            artifactStats.addTime(ArtifactType.VIDEO, start);
+        }
+    }
+
+    /**
+     * Hängt die langsamsten Page-Object-Aktionen, die blockierten Requests und
+     * die Web-Vitals der Navigationen des Tests an.
+     */
+    private void attachPerformanceData(Fixture f) {
+        List<ActionTimings.Sample> samples = actionTimings.finishTest();
+        if (!samples.isEmpty()) {
+            Allure.addAttachment("Langsamste Aktionen", "text/csv", ActionTimings.slowestAsCsv(samples, 10), "csv");
+        }
+        if (f.resourceBlocker != null && f.resourceBlocker.blockedRequests() > 0) {
+            Allure.addAttachment("Blockierte Requests", "text/plain", f.resourceBlocker.summarize());
+        }
+        List<WebVitalsRecorder.Measurement> measurements = webVitals.finishTest();
+        if (!measurements.isEmpty()) {
+            Allure.addAttachment("Web Vitals", "text/csv", WebVitalsRecorder.asCsv(measurements), "csv");
         }
     }
 
     /**
      * Hilfsmethode für Tests, die einen authentifizierten Status benötigen.
      * Aufzurufen in @BeforeMethod in Unterklassen, die Login benötigen.
+     * Ist ein gecachter State injiziert, wird nur noch die Startseite geöffnet;
+     * wird der Token abgelehnt, erfolgt automatisch ein erneuter UI-Login.
      */
     protected void performLogin() {
-        loginPage.navigateTo();
-        loginPage.login(config.getTestUserName(), config.getTestUserPassword());
+        Fixture f = fixture();
+        String engine = f.browserLease.engine();
+
+        if (f.authStatePath != null) {
+            f.shopPage.navigateTo();
+            if (isLoggedIn(f.page)) {
+                return;
+            }
+            System.out.println("[AuthStateCache] Gecachter Token abgelehnt, führe erneuten Login durch");
+            authCache.invalidate(engine, config.getTestUserName());
+            f.context.clearCookies();
+            f.page.evaluate("() => localStorage.clear()");
+        }
+
+        uiLogin(f.loginPage);
+
+        if (usesAuthCache()) {
+            synchronized (authCache.lockFor(engine, config.getTestUserName())) {
+                authCache.store(f.context, engine, config.getTestUserName());
+            }
+        }
+    }
+
+    /**
+     * Bereitet den Warenkorb vor und öffnet direkt {@code /cart}. Der State wird
+     * per Init-Script injiziert; mit {@code STATE_INJECTION=false} läuft
+     * stattdessen {@code uiSetup}. Die Setup-Zeit wird gemessen und berichtet.
+     */
+    protected void startAtCart(StateInjector state, Runnable uiSetup) {
+        Fixture f = fixture();
+        long start = System.nanoTime();
+        boolean injected = StateInjector.isEnabled();
+        if (injected) {
+            // Init-Scripts lassen sich nicht entfernen: Context nicht weiterverwenden
+            f.contextTainted = true;
+            state.install(f.context);
+        } else {
+            uiSetup.run();
+        }
+        f.cartPage.navigateTo();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        Allure.addAttachment("Setup-Zeit", "text/plain", SetupTimings.getInstance().record(f.testName, injected, millis));
+    }
+
+    // Zugriff auf die Fixtures des aktuellen Worker-Threads
+
+    protected Browser browser() {
+        return fixture().browserLease.browser();
+    }
+
+    /**
+     * Context des Tests. Änderungen daran sind nicht nachvollziehbar, er wird
+     * deshalb nach dem Test nicht an den {@link ContextPool} zurückgegeben.
+     */
+    protected BrowserContext context() {
+        Fixture f = fixture();
+        f.contextTainted = true;
+        return f.context;
+    }
+
+    protected Page page() {
+        return fixture().page;
+    }
+
+    protected LoginPage loginPage() {
+        return fixture().loginPage;
+    }
+
+    protected ShopPage shopPage() {
+        return fixture().shopPage;
+    }
+
+    protected ProductDetailPage productDetailPage() {
+        return fixture().productDetailPage;
+    }
+
+    protected CartPage cartPage() {
+        return fixture().cartPage;
+    }
+
+    private Fixture fixture() {
+        Fixture f = fixture.get();
+        if (f == null) {
+            throw new IllegalStateException("Keine Fixtures für Thread " + Thread.currentThread().getName()
+                    + " - Zugriff außerhalb von @BeforeMethod/@Test?");
+        }
+        return f;
+    }
+
+    private void uiLogin(LoginPage login) {
+        login.navigateTo();
+        login.login(config.getTestUserName(), config.getTestUserPassword());
         // Warten bis Navigation abgeschlossen ist
-        page.waitForURL("**/");
+        login.waitForHome();
     }
 
-    @AfterClass
-    public void teardownBrowser() {
-        if (browser != null) {
-            browser.close();
+    private boolean usesAuthCache() {
+        return authCache.isEnabled() && !getClass().isAnnotationPresent(FreshLogin.class);
+    }
+
+    /**
+     * Stellt sicher, dass für (Engine, Benutzer) ein gültiger State existiert.
+     * Der UI-Login läuft dafür einmalig in einem separaten Context.
+     */
+    private java.nio.file.Path prepareAuthState(Fixture f) {
+        String engine = f.browserLease.engine();
+        String user = config.getTestUserName();
+        synchronized (authCache.lockFor(engine, user)) {
+            java.nio.file.Path cached = authCache.validStatePath(engine, user);
+            if (cached != null) {
+                return cached;
+            }
+            try (BrowserContext loginContext = f.browserLease.browser().newContext(new Browser.NewContextOptions()
+                    .setBaseURL(config.getBaseURL())
+                    .setIgnoreHTTPSErrors(true))) {
+                uiLogin(new LoginPage(loginContext.newPage()));
+                authCache.store(loginContext, engine, user);
+            }
+            return authCache.validStatePath(engine, user);
         }
-        if (playwright != null) {
-            playwright.close();
+    }
+
+    private static boolean isLoggedIn(Page page) {
+        try {
+            page.getByTestId("nav-logout").waitFor(new Locator.WaitForOptions().setTimeout(5000));
+            return true;
+        } catch (TimeoutError e) {
+            return false;
         }
     }
+
+    /**
+     * Thread-gebundene Fixtures eines einzelnen Testlaufs.
+     */
+    private static final class Fixture {
+        String testName;
+        BrowserPool.PooledBrowser browserLease;
+        java.nio.file.Path authStatePath;
+        ArtifactPlan artifacts;
+        PageCoverage.Recording coverage;
+        ResourceBlocker resourceBlocker;
+        ContextPool.Lease contextLease;
+        boolean contextTainted;
+        BrowserContext context;
+        Page page;
+
+        LoginPage loginPage;
+        ShopPage shopPage;
+        ProductDetailPage productDetailPage;
+        CartPage cartPage;
+    }
 }
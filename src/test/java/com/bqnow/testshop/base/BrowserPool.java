@@ -0,0 +1,350 @@
+package com.bqnow.testshop.base;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-weiter Pool für Playwright-Treiber und Browser.
+ * Jede Engine wird einmal pro JVM gestartet und an Testklassen verliehen,
+ * anstatt in jedem {@code @BeforeClass} einen neuen Treiber und Browser zu
+ * starten.
+ *
+ * Playwright ist nicht thread-safe: Ein verliehener Browser gehört bis zur
+ * Rückgabe exklusiv dem ausleihenden Thread. Die Übergabe über die
+ * nebenläufigen Queues stellt die nötige Synchronisation sicher. Bei
+ * paralleler Ausführung wächst der Pool bis zur Anzahl gleichzeitiger Worker.
+ *
+ * Ist ein Browser-Server konfiguriert ({@code BROWSER_SERVER} bzw.
+ * {@code BROWSER_SERVER_<ENGINE>}, WebSocket-Endpunkt), verbindet sich der
+ * Pool per {@link BrowserType#connect} statt selbst Browser zu starten. Jeder
+ * Test bekommt weiterhin einen eigenen Context; nach einem Neustart des
+ * Servers werden getrennte Verbindungen beim nächsten Ausleihen ersetzt.
+ */
+public final class BrowserPool {
+
+    private static final BrowserPool INSTANCE = new BrowserPool();
+
+    private final Map<String, Deque<PooledBrowser>> idle = new ConcurrentHashMap<>();
+    private final Set<PooledBrowser> all = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    private final Executor warmUpExecutor = runnable -> {
+        Thread thread = new Thread(runnable, "browser-pool-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    // Kennzahlen für den Startup-Report
+    private final AtomicInteger leases = new AtomicInteger();
+    private final AtomicInteger launches = new AtomicInteger();
+    private final AtomicInteger relaunches = new AtomicInteger();
+    private final AtomicInteger connects = new AtomicInteger();
+    private final AtomicLong launchMillis = new AtomicLong();
+    private final Set<String> classEngineCombinations = ConcurrentHashMap.newKeySet();
+
+    private BrowserPool() {
+        // Fallback, falls der Suite-Listener nicht registriert ist (z.B. Einzeltest aus der IDE)
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "browser-pool-shutdown"));
+    }
+
+    public static BrowserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Startet die angegebene Anzahl Browser pro Engine parallel, jeweils mit
+     * eigenem Treiber.
+     */
+    public void warmUp(Map<String, Integer> instancesPerEngine) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : instancesPerEngine.entrySet()) {
+            String engine = normalize(entry.getKey());
+            for (int i = 0; i < entry.getValue(); i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        PooledBrowser pooled = launch(engine);
+                        // Contexts auf diesem Thread vorwärmen, solange der Browser noch niemandem gehört
+                        prewarm(pooled);
+                        idleQueue(engine).offerLast(pooled);
+                    } catch (RuntimeException e) {
+                        // Kein Abbruch der Suite: lease() versucht es später erneut
+                        System.err.println("[BrowserPool] Start von " + engine + " fehlgeschlagen: " + e.getMessage());
+                    }
+                }, warmUpExecutor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        System.out.println("[BrowserPool] " + instancesPerEngine + " parallel gestartet in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Leiht einen Browser der gewünschten Engine aus. Ist keiner frei, wird ein
+     * neuer gestartet; abgestürzte Browser werden dabei ersetzt.
+     */
+    public PooledBrowser lease(String engine) {
+        return lease(engine, null);
+    }
+
+    /**
+     * Wie {@link #lease(String)}, merkt sich zusätzlich die Testklasse für den
+     * Vergleich mit dem früheren Start pro Klasse und Engine.
+     */
+    public PooledBrowser lease(String engine, Class<?> testClass) {
+        if (shutdown.get()) {
+            throw new IllegalStateException("BrowserPool wurde bereits heruntergefahren");
+        }
+        String key = normalize(engine);
+        leases.incrementAndGet();
+        if (testClass != null) {
+            classEngineCombinations.add(key + "/" + testClass.getName());
+        }
+
+        PooledBrowser pooled;
+        while ((pooled = idleQueue(key).pollFirst()) != null) {
+            if (pooled.isHealthy()) {
+                return pooled;
+            }
+            System.err.println("[BrowserPool] " + key + " reagiert nicht mehr, starte neu...");
+            relaunches.incrementAndGet();
+            discard(pooled);
+        }
+        return launch(key);
+    }
+
+    /**
+     * Gibt einen Browser an den Pool zurück.
+     */
+    public void release(PooledBrowser pooled) {
+        if (pooled == null) {
+            return;
+        }
+        if (shutdown.get() || !pooled.isHealthy()) {
+            discard(pooled);
+            return;
+        }
+        idleQueue(pooled.engine()).offerFirst(pooled);
+    }
+
+    /**
+     * Schließt alle Browser und Treiber und gibt den Startup-Report aus.
+     */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        for (PooledBrowser pooled : all) {
+            discard(pooled);
+        }
+        idle.clear();
+        printReport();
+    }
+
+    private void printReport() {
+        int started = launches.get();
+        if (started == 0) {
+            return;
+        }
+        long avgLaunch = launchMillis.get() / started;
+        // Ohne Pool hätte jede Klasse pro Engine einen eigenen Treiber- und Browserstart gekostet
+        int withoutPool = classEngineCombinations.isEmpty() ? leases.get() : classEngineCombinations.size();
+        long saved = Math.max(0, withoutPool - started) * avgLaunch;
+        System.out.println("[BrowserPool] " + leases.get() + " Ausleihen, " + started + " Starts (Ø "
+                + avgLaunch + " ms, davon " + relaunches.get() + " Neustarts, " + connects.get()
+                + " über Browser-Server) → ca. " + saved + " ms Startup-Zeit gespart");
+    }
+
+    private PooledBrowser launch(String engine) {
+        long start = System.currentTimeMillis();
+        Playwright playwright = Playwright.create();
+        try {
+            String endpoint = serverEndpoint(engine);
+            Browser browser;
+            if (endpoint != null) {
+                browser = connect(browserType(playwright, engine), endpoint);
+                connects.incrementAndGet();
+            } else {
+                BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
+                        .setHeadless(ConfigLoader.getInstance().isHeadless());
+                browser = browserType(playwright, engine).launch(launchOptions);
+            }
+
+            long duration = System.currentTimeMillis() - start;
+            launches.incrementAndGet();
+            launchMillis.addAndGet(duration);
+
+            PooledBrowser pooled = new PooledBrowser(engine, playwright, browser, endpoint != null);
+            all.add(pooled);
+            return pooled;
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
+
+    /**
+     * WebSocket-Endpunkt des Browser-Servers für die Engine, null für lokale
+     * Browser. {@code BROWSER_SERVER_<ENGINE>} hat Vorrang vor
+     * {@code BROWSER_SERVER}.
+     */
+    static String serverEndpoint(String engine) {
+        ConfigLoader config = ConfigLoader.getInstance();
+        String endpoint = config.getEnvOrDefault("BROWSER_SERVER_" + engine.toUpperCase(Locale.ROOT),
+                config.getEnvOrDefault("BROWSER_SERVER", null));
+        return endpoint == null || endpoint.isBlank() ? null : endpoint.trim();
+    }
+
+    /**
+     * Verbindet sich mit dem Browser-Server; startet dieser gerade neu, wird
+     * mit wachsendem Abstand erneut versucht ({@code BROWSER_SERVER_RETRIES}).
+     */
+    private static Browser connect(BrowserType type, String endpoint) {
+        ConfigLoader config = ConfigLoader.getInstance();
+        int retries = config.get(ConfigKey.integer("BROWSER_SERVER_RETRIES", 5));
+        BrowserType.ConnectOptions options = new BrowserType.ConnectOptions()
+                .setTimeout(config.get(ConfigKey.integer("BROWSER_SERVER_TIMEOUT_MS", 30_000)));
+        if (!config.isHeadless()) {
+            // Nur von "playwright run-server" ausgewertet; launchServer legt headless beim Start fest
+            options.setHeaders(Map.of("x-playwright-launch-options", "{\"headless\":false}"));
+        }
+        long backoff = 500;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return type.connect(endpoint, options);
+            } catch (PlaywrightException e) {
+                if (attempt >= retries) {
+                    throw e;
+                }
+                String reason = e.getMessage() == null ? "" : e.getMessage().lines().findFirst().orElse("");
+                System.err.println("[BrowserPool] Browser-Server " + endpoint + " nicht erreichbar (" + reason
+                        + "), neuer Versuch in " + backoff + " ms");
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoff = Math.min(backoff * 2, 10_000);
+            }
+        }
+    }
+
+    private static void prewarm(PooledBrowser pooled) {
+        try {
+            ContextPool.getInstance().prewarm(pooled);
+        } catch (RuntimeException e) {
+            System.err.println("[BrowserPool] Contexts für " + pooled.engine() + " nicht vorgewärmt: " + e.getMessage());
+        }
+    }
+
+    private void discard(PooledBrowser pooled) {
+        all.remove(pooled);
+        ContextPool.getInstance().forget(pooled);
+        try {
+            pooled.close();
+        } catch (RuntimeException e) {
+            System.err.println("[BrowserPool] Fehler beim Schließen von " + pooled.engine() + ": " + e.getMessage());
+        }
+    }
+
+    private Deque<PooledBrowser> idleQueue(String engine) {
+        return idle.computeIfAbsent(engine, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static BrowserType browserType(Playwright playwright, String engine) {
+        switch (engine) {
+            case "firefox":
+                return playwright.firefox();
+            case "webkit":
+                return playwright.webkit();
+            case "chromium":
+            default:
+                return playwright.chromium();
+        }
+    }
+
+    public static String normalize(String engine) {
+        if (engine == null) {
+            return "chromium";
+        }
+        String lower = engine.toLowerCase();
+        return lower.equals("firefox") || lower.equals("webkit") ? lower : "chromium";
+    }
+
+    /**
+     * Ein gestarteter Browser inklusive seines eigenen Playwright-Treibers.
+     */
+    public static final class PooledBrowser {
+        private final String engine;
+        private final Playwright playwright;
+        private final Browser browser;
+        private final boolean remote;
+
+        PooledBrowser(String engine, Playwright playwright, Browser browser, boolean remote) {
+            this.engine = engine;
+            this.playwright = playwright;
+            this.browser = browser;
+            this.remote = remote;
+        }
+
+        public String engine() {
+            return engine;
+        }
+
+        public Playwright playwright() {
+            return playwright;
+        }
+
+        public Browser browser() {
+            return browser;
+        }
+
+        /**
+         * Ob der Browser auf einem Browser-Server läuft. Dateien wie Videos
+         * liegen dann dort und müssen per {@code saveAs} geholt werden.
+         */
+        public boolean isRemote() {
+            return remote;
+        }
+
+        boolean isHealthy() {
+            try {
+                return browser.isConnected();
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Schließt den Browser bzw. bei einem Browser-Server nur die
+         * Verbindung samt ihrer Contexts.
+         */
+        void close() {
+            try {
+                if (browser.isConnected()) {
+                    browser.close();
+                }
+            } finally {
+                playwright.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.bqnow.testshop.base;
+
+import com.bqnow.testshop.artifacts.ArtifactPlan;
+import com.bqnow.testshop.artifacts.ArtifactPolicy;
+import com.bqnow.testshop.artifacts.ArtifactStats;
+import com.bqnow.testshop.artifacts.ArtifactType;
+import com.bqnow.testshop.artifacts.ArtifactWriter;
+import com.bqnow.testshop.artifacts.CaptureMode;
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.metrics.DurationHistogram;
+import com.bqnow.testshop.network.StaticAssetCache;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.Tracing;
+import com.microsoft.playwright.Video;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.ServiceWorkerPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vorgewärmte {@link BrowserContext}s pro Browser aus dem {@link BrowserPool}.
+ *
+ * Contexts gehören wie ihr Browser exklusiv dem ausleihenden Thread und
+ * werden deshalb am Browser geparkt: beim Warm-up des {@code BrowserPool}
+ * auf dessen Start-Thread erzeugt, danach nur vom jeweiligen Worker.
+ * Ein Hintergrund-Thread kann sie deshalb weder erzeugen noch schließen;
+ * beides läuft auf dem Worker, beim Ausleihen bzw. im Teardown.
+ *
+ * Isolation über {@code CONTEXT_POOL}:
+ * <ul>
+ * <li>{@code off} (Default): neuer Context pro Test, nach dem Test
+ * geschlossen</li>
+ * <li>{@code fresh}: jeder Context wird nur einmal benutzt; der Ersatz
+ * entsteht im Teardown des Tests auf dessen Worker-Thread, die Kosten
+ * verschieben sich also nur von der Ausleihe zur Rückgabe</li>
+ * <li>{@code reset}: nach dem Test werden Seiten geschlossen,
+ * Routen, Cookies, Berechtigungen und {@code localStorage} geleert und der
+ * Context wiederverwendet</li>
+ * </ul>
+ * Contexts fehlgeschlagener Tests und Contexts mit Zustand, der sich nicht
+ * zurücksetzen lässt (Init-Scripts, direkter Zugriff über
+ * {@code BaseTest.context()}), werden immer verworfen. Wiederholungen
+ * (Retries), HAR-Aufnahmen und Tests mit Login-State bekommen immer einen
+ * neuen Context, der danach geschlossen wird; der Login-State kommt dabei
+ * wie ohne Pool über {@code storageStatePath} statt über eine zusätzliche
+ * Seite pro Test.
+ *
+ * Der Report zeigt neben der Ausleihe auch die Rückgabe (Schließen,
+ * Zurücksetzen bzw. Ersatz erzeugen); erst beide zusammen sind die Kosten
+ * pro Test. Solange sie nicht zeigen, dass {@code reset} oder {@code fresh}
+ * netto schneller ist als Schließen und neu Erzeugen, bleibt der Pool aus.
+ */
+public final class ContextPool {
+
+    private static final ContextPool INSTANCE = new ContextPool();
+    private static final String RESET_PATH = "/__context-pool";
+
+    enum Mode {
+        OFF, FRESH, RESET
+    }
+
+    private final Mode mode;
+    private final int size;
+    private final String baseUrl;
+
+    // Geparkte Contexts pro Browser und Form (Video/Trace); Zugriff nur durch den Besitzer des Browsers
+    private final Map<BrowserPool.PooledBrowser, Map<Shape, Deque<BrowserContext>>> idle = new ConcurrentHashMap<>();
+
+    // Kennzahlen
+    private final DurationHistogram acquireMicros = new DurationHistogram();
+    private final DurationHistogram releaseMicros = new DurationHistogram();
+    private final LongAdder warmHits = new LongAdder();
+    private final LongAdder coldCreates = new LongAdder();
+    private final LongAdder prewarmed = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    private ContextPool() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.mode = config.get(ConfigKey.choice("CONTEXT_POOL", Mode.OFF));
+        this.size = Math.max(1, config.get(ConfigKey.integer("CONTEXT_POOL_SIZE", 1)));
+        this.baseUrl = config.getBaseURL();
+    }
+
+    public static ContextPool getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Erzeugt {@code CONTEXT_POOL_SIZE} Contexts in der Form, die ein erster
+     * Testversuch gemäß Capture-Policy braucht. Nur vom Thread aufzurufen,
+     * dem der Browser gerade gehört.
+     */
+    void prewarm(BrowserPool.PooledBrowser browser) {
+        if (!isEnabled()) {
+            return;
+        }
+        ArtifactPolicy policy = ArtifactPolicy.getInstance();
+        Shape shape = new Shape(recordsFirstAttempt(policy.mode(ArtifactType.VIDEO)),
+                recordsFirstAttempt(policy.mode(ArtifactType.TRACE)));
+        Deque<BrowserContext> parked = parked(browser, shape);
+        while (parked.size() < size) {
+            parked.addLast(newContext(browser.browser(), shape, null, null));
+            prewarmed.increment();
+        }
+    }
+
+    private static boolean recordsFirstAttempt(CaptureMode mode) {
+        return mode == CaptureMode.ON_FAILURE_RETAINED || mode == CaptureMode.ALWAYS;
+    }
+
+    /**
+     * Liefert einen Context für den nächsten Test gemäß Aufnahme-Plan. Mit
+     * {@code authStatePath} (darf null sein) entsteht immer ein neuer Context
+     * mit diesem Storage-State.
+     */
+    public Lease acquire(BrowserPool.PooledBrowser browser, ArtifactPlan plan, Path authStatePath) {
+        long start = System.nanoTime();
+        Shape shape = new Shape(plan.record(ArtifactType.VIDEO), plan.record(ArtifactType.TRACE));
+        Lease lease;
+        if (!isEnabled() || plan.isRetry() || plan.record(ArtifactType.HAR) || authStatePath != null) {
+            Path harPath = plan.record(ArtifactType.HAR) ? harFile() : null;
+            coldCreates.increment();
+            lease = new Lease(newContext(browser.browser(), shape, authStatePath, harPath), shape, harPath, false);
+        } else {
+            BrowserContext context = parked(browser, shape).pollFirst();
+            if (context != null) {
+                warmHits.increment();
+            } else {
+                coldCreates.increment();
+                context = newContext(browser.browser(), shape, null, null);
+            }
+            lease = new Lease(context, shape, null, true);
+        }
+        acquireMicros.record((System.nanoTime() - start) / 1_000);
+        return lease;
+    }
+
+    /**
+     * Gibt den Context nach dem Test zurück. {@code reusable} ist false, wenn
+     * der Test fehlschlug oder Zustand hinterlassen hat, der sich nicht
+     * zurücksetzen lässt.
+     */
+    public void release(BrowserPool.PooledBrowser browser, Lease lease, boolean reusable) {
+        if (lease == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            recycle(browser, lease, reusable);
+        } finally {
+            releaseMicros.record((System.nanoTime() - start) / 1_000);
+        }
+    }
+
+    private void recycle(BrowserPool.PooledBrowser browser, Lease lease, boolean reusable) {
+        BrowserContext context = lease.context;
+        if (!lease.pooled || !browser.isHealthy()) {
+            closeQuietly(context);
+            return;
+        }
+        Deque<BrowserContext> parked = parked(browser, lease.shape);
+        if (mode == Mode.RESET && reusable && parked.size() < size && reset(context)) {
+            parked.addLast(context);
+            resets.increment();
+            return;
+        }
+        discarded.increment();
+        closeQuietly(context);
+        if (mode == Mode.FRESH && parked.size() < size) {
+            // Ersatz im Teardown erzeugen; der Context gehört dem Thread des
+            // Browsers, die Zeit zählt deshalb zur Rückgabe dieses Tests
+            try {
+                parked.addLast(newContext(browser.browser(), lease.shape, null, null));
+            } catch (PlaywrightException e) {
+                System.err.println("[ContextPool] Ersatz-Context nicht erzeugt: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vergisst die geparkten Contexts eines geschlossenen Browsers.
+     */
+    void forget(BrowserPool.PooledBrowser browser) {
+        idle.remove(browser);
+    }
+
+    public void report() {
+        long acquisitions = acquireMicros.count();
+        if (acquisitions == 0) {
+            return;
+        }
+        System.out.printf(Locale.ROOT,
+                "[ContextPool] Modus %s: %d Contexts ausgegeben (%d vorgewärmt/zurückgesetzt, %d neu), %d vorab erzeugt, "
+                        + "%d zurückgesetzt, %d verworfen, Ausleihe p50=%.1fms p90=%.1fms max=%.1fms, "
+                        + "Rückgabe p50=%.1fms p90=%.1fms max=%.1fms%n",
+                mode.name().toLowerCase(Locale.ROOT), acquisitions, warmHits.sum(),
+                coldCreates.sum(), prewarmed.sum(), resets.sum(), discarded.sum(),
+                acquireMicros.percentile(50) / 1000.0, acquireMicros.percentile(90) / 1000.0,
+                acquireMicros.max() / 1000.0, releaseMicros.percentile(50) / 1000.0,
+                releaseMicros.percentile(90) / 1000.0, releaseMicros.max() / 1000.0);
+    }
+
+    private static Path harFile() {
+        try {
+            return ArtifactWriter.getInstance().tempFile("har-", "har");
+        } catch (IOException e) {
+            throw new UncheckedIOException("HAR-Datei konnte nicht angelegt werden", e);
+        }
+    }
+
+    private BrowserContext newContext(Browser browser, Shape shape, Path storageState, Path harPath) {
+        ArtifactPolicy policy = ArtifactPolicy.getInstance();
+        Browser.NewContextOptions options = new Browser.NewContextOptions()
+                .setBaseURL(baseUrl)
+                .setIgnoreHTTPSErrors(true);
+        if (shape.video) {
+            options.setRecordVideoDir(Paths.get("target/videos/"));
+            if (policy.hasCustomVideoSize()) {
+                options.setRecordVideoSize(policy.videoWidth(), policy.videoHeight());
+            }
+        }
+        if (storageState != null) {
+            options.setStorageStatePath(storageState);
+        }
+        if (harPath != null) {
+            // Wird beim Schließen des Contexts geschrieben
+            options.setRecordHarPath(harPath).setRecordHarMode(HarMode.FULL);
+        }
+        // Service Worker würden Requests am Routing vorbei beantworten
+        if (StaticAssetCache.getInstance().isEnabled()) {
+            options.setServiceWorkers(ServiceWorkerPolicy.BLOCK);
+        }
+        BrowserContext context = browser.newContext(options);
+        if (shape.trace) {
+            // Tracing läuft über die ganze Lebensdauer, pro Test ein eigener Chunk
+            long start = System.nanoTime();
+            context.tracing().start(new Tracing.StartOptions()
+                    .setScreenshots(true)
+                    .setSnapshots(true)
+                    .setSources(true));
+            ArtifactStats.getInstance().addTime(ArtifactType.TRACE, start);
+        }
+        return context;
+    }
+
+    /**
+     * Leert den Context für den nächsten Test. Schlägt ein Schritt fehl,
+     * wird der Context verworfen.
+     */
+    private boolean reset(BrowserContext context) {
+        try {
+            for (Page page : new ArrayList<>(context.pages())) {
+                page.close();
+            }
+            context.unrouteAll();
+            context.clearCookies();
+            context.clearPermissions();
+            context.setOffline(false);
+            List<String> origins = new ArrayList<>();
+            for (JsonElement entry : storageOrigins(JsonParser.parseString(context.storageState()))) {
+                JsonObject originState = entry.getAsJsonObject();
+                if (originState.getAsJsonArray("localStorage").size() > 0) {
+                    origins.add(originState.get("origin").getAsString());
+                }
+            }
+            for (String storageOrigin : origins) {
+                onOrigin(context, storageOrigin, "() => { localStorage.clear(); sessionStorage.clear(); }");
+            }
+            return true;
+        } catch (PlaywrightException | IllegalStateException e) {
+            System.err.println("[ContextPool] Zurücksetzen fehlgeschlagen, verwerfe Context: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Iterable<JsonElement> storageOrigins(JsonElement state) {
+        JsonObject object = state.getAsJsonObject();
+        return object.has("origins") ? object.getAsJsonArray("origins") : List.of();
+    }
+
+    /**
+     * Führt ein Script auf einer lokal beantworteten Seite des Origins aus,
+     * ohne die App zu laden. Ein dabei aufgezeichnetes Video wird verworfen.
+     */
+    private void onOrigin(BrowserContext context, String storageOrigin, String script) {
+        Page page = context.newPage();
+        try {
+            page.route(storageOrigin + RESET_PATH, route -> route.fulfill(new Route.FulfillOptions()
+                    .setStatus(200)
+                    .setContentType("text/html")
+                    .setBody("<!doctype html><title>context-pool</title>")));
+            page.navigate(storageOrigin + RESET_PATH);
+            page.evaluate(script);
+        } finally {
+            Video video = page.video();
+            page.close();
+            if (video != null) {
+                video.delete();
+            }
+        }
+    }
+
+    private Deque<BrowserContext> parked(BrowserPool.PooledBrowser browser, Shape shape) {
+        return idle.computeIfAbsent(browser, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(shape, k -> new ArrayDeque<>());
+    }
+
+    private static void closeQuietly(BrowserContext context) {
+        try {
+            context.close();
+        } catch (PlaywrightException e) {
+            System.err.println("[ContextPool] Fehler beim Schließen des Contexts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aufnahme-Form eines Contexts; Video lässt sich nur beim Erzeugen
+     * festlegen, Tracing wird beim Erzeugen gestartet.
+     */
+    private static final class Shape {
+        final boolean video;
+        final boolean trace;
+
+        Shape(boolean video, boolean trace) {
+            this.video = video;
+            this.trace = trace;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Shape && ((Shape) other).video == video && ((Shape) other).trace == trace;
+        }
+
+        @Override
+        public int hashCode() {
+            return (video ? 2 : 0) + (trace ? 1 : 0);
+        }
+    }
+
+    /**
+     * Ein ausgegebener Context.
+     */
+    public static final class Lease {
+        private final BrowserContext context;
+        private final Shape shape;
+        private final Path harPath;
+        private final boolean pooled;
+
+        private Lease(BrowserContext context, Shape shape, Path harPath, boolean pooled) {
+            this.context = context;
+            this.shape = shape;
+            this.harPath = harPath;
+            this.pooled = pooled;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        /**
+         * Ziel der HAR-Aufnahme, vollständig nach {@link #release}; null ohne HAR.
+         */
+        public Path harPath() {
+            return harPath;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bqnow.testshop.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert Testklassen, die an Überschreitungen der Performance-Budgets
+ * scheitern sollen, auch wenn {@code PERF_BUDGET_MODE=warn} (Default) gilt.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EnforcePerformanceBudgets {
+}
@@ -0,0 +1,15 @@
+package com.bqnow.testshop.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert Testklassen, die den Login explizit über die UI testen.
+ * Für diese Klassen wird kein gecachter Auth-State injiziert.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface FreshLogin {
+}
@@ -0,0 +1,76 @@
+package com.bqnow.testshop.base;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Verteilt die konfigurierte Worker-Anzahl auf die Engines der Suite.
+ * Die {@code <test>}-Blöcke (Engines) laufen parallel, innerhalb jedes Blocks
+ * laufen die Testmethoden parallel ({@code parallel="methods"}).
+ *
+ * Worker-Anzahl über {@code WORKERS} (Default: Anzahl CPU-Kerne, höchstens
+ * {@value #DEFAULT_MAX_WORKERS}; {@code auto}: alle CPU-Kerne);
+ * {@code WORKERS=1} führt alles sequenziell aus.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+
+    // Jeder Worker kann einen eigenen Browser starten; auf großen CI-Hosts nicht alle Kerne belegen
+    static final int DEFAULT_MAX_WORKERS = 4;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int workers = workerCount();
+
+        for (XmlSuite suite : suites) {
+            List<XmlTest> tests = suite.getTests();
+            if (tests.isEmpty()) {
+                continue;
+            }
+
+            if (workers <= 1) {
+                suite.setParallel(XmlSuite.ParallelMode.NONE);
+                suite.setThreadCount(1);
+                for (XmlTest test : tests) {
+                    test.setParallel(XmlSuite.ParallelMode.NONE);
+                    test.setThreadCount(1);
+                }
+                System.out.println("[Parallel] Sequenzielle Ausführung (WORKERS=1)");
+                continue;
+            }
+
+            int concurrentTests = Math.min(tests.size(), workers);
+            // Aufrunden, damit alle Kerne ausgelastet sind (Browser warten überwiegend auf I/O)
+            int threadsPerTest = (workers + concurrentTests - 1) / concurrentTests;
+
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(concurrentTests);
+            for (XmlTest test : tests) {
+                test.setParallel(XmlSuite.ParallelMode.METHODS);
+                test.setThreadCount(threadsPerTest);
+            }
+            System.out.println("[Parallel] " + workers + " Worker: " + concurrentTests + " Engines parallel × "
+                    + threadsPerTest + " Threads pro Engine (parallel=methods)");
+        }
+    }
+
+    static int workerCount() {
+        String configured = ConfigLoader.getInstance().getEnvOrDefault("WORKERS", "");
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (configured.isBlank()) {
+            return Math.min(cores, DEFAULT_MAX_WORKERS);
+        }
+        if ("auto".equalsIgnoreCase(configured.trim())) {
+            return cores;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(configured.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Ungültiger Wert für WORKERS: '" + configured + "' (erwartet: Zahl oder 'auto')", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.bqnow.testshop.base;
+
+import com.bqnow.testshop.artifacts.ArtifactStats;
+import com.bqnow.testshop.artifacts.ArtifactWriter;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.network.ResourceBlocker;
+import com.bqnow.testshop.network.StaticAssetCache;
+import com.bqnow.testshop.pages.PageSync;
+import com.bqnow.testshop.scheduling.TestDurations;
+import com.bqnow.testshop.selection.TestSelection;
+import com.bqnow.testshop.state.SetupTimings;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlTest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Suite-Listener für JVM-weite Fixtures.
+ * Startet beim Suite-Start einen Browser pro Engine parallel und fährt am
+ * Ende alle wieder herunter; weitere Browser startet der
+ * {@link BrowserPool} erst, wenn ein Worker keinen freien vorfindet. Gibt zum Abschluss den Artefakt-Overhead und die
+ * Trefferquote des Asset-Caches aus.
+ */
+public class SuiteLifecycleListener implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        ConfigLoader config = ConfigLoader.getInstance();
+        System.out.println("[Config] " + config.describe());
+
+        // Engines aus den browser-Parametern der testng.xml ermitteln, vorab
+        // nur ein Browser pro Engine: wie viele Worker einer Engine wirklich
+        // gleichzeitig Tests bekommen, zeigt sich erst beim Ausleihen
+        Map<String, Integer> engines = new LinkedHashMap<>();
+        for (XmlTest test : suite.getXmlSuite().getTests()) {
+            String engine = BrowserPool.normalize(test.getParameter("browser"));
+            if ("webkit".equals(engine) && config.skipWebkit()) {
+                continue;
+            }
+            engines.put(engine, 1);
+        }
+
+        BrowserPool.getInstance().warmUp(engines);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        BrowserPool.getInstance().shutdown();
+        ContextPool.getInstance().report();
+        // Ausstehende Screenshots, Traces und Videos schreiben, bevor der Report entsteht
+        ArtifactWriter.getInstance().flush();
+        ArtifactStats.getInstance().report();
+        StaticAssetCache.getInstance().report();
+        ResourceBlocker.report();
+        SetupTimings.getInstance().report();
+        PageSync.report();
+        TestSelection.getInstance().finish();
+        TestDurations.getInstance().save();
+    }
+}
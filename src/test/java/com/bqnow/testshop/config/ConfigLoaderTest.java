@@ -0,0 +1,137 @@
+package com.bqnow.testshop.config;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Zusammenführen der Konfigurationsebenen mit Quelle.
+ */
+public class ConfigLoaderTest {
+
+    private Path configDir;
+
+    @BeforeClass
+    public void writeEnvFiles() throws IOException {
+        configDir = Files.createTempDirectory("config-loader");
+        Files.writeString(configDir.resolve(".env"),
+                "BASE_URL=http://localhost:3000\nTEST_USER_NAME=consultant\nHEADLESS=true\nGRAFANA_LOKI_KEY=secret\n"
+                        + "GRAFANA_BATCH_SIZE=\n");
+        Files.writeString(configDir.resolve(".env.prod"), "BASE_URL=https://shop.example\nCI=true\n");
+        Files.writeString(configDir.resolve(".env.local"), "TEST_USER_NAME=local-user\n");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteEnvFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(configDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void mergesAllLayersInPriorityOrder() {
+        ConfigLoader config = new ConfigLoader(configDir, Map.of("TEST_ENV", "prod"), new Properties());
+
+        assertEquals(config.getBaseURL(), "https://shop.example");
+        assertEquals(config.sourceOf("BASE_URL"), configDir.resolve(".env.prod").toString());
+        // .env.local überschreibt nur seine eigenen Schlüssel
+        assertEquals(config.getTestUserName(), "local-user");
+        assertEquals(config.sourceOf("TEST_USER_NAME"), configDir.resolve(".env.local").toString());
+        assertTrue(config.isHeadless());
+        assertTrue(config.isCI());
+        assertEquals(config.loadedFiles().size(), 3);
+    }
+
+    @Test
+    public void systemPropertiesOverrideEnvironment() {
+        Properties properties = new Properties();
+        properties.setProperty("BASE_URL", "http://worker-2:3000");
+        ConfigLoader config = new ConfigLoader(configDir,
+                Map.of("BASE_URL", "http://env:3000", "TEST_USER_PASSWORD", "from-env", "HEADLESS", " "), properties);
+
+        assertEquals(config.getBaseURL(), "http://worker-2:3000");
+        assertEquals(config.sourceOf("BASE_URL"), ConfigLoader.SOURCE_SYSTEM_PROPERTY);
+        assertEquals(config.getTestUserPassword(), "from-env");
+        assertEquals(config.sourceOf("TEST_USER_PASSWORD"), ConfigLoader.SOURCE_ENV);
+        // Leere Umgebungsvariablen verdecken keine Dateiwerte
+        assertTrue(config.isHeadless());
+    }
+
+    @Test
+    public void typedKeysFallBackToDefaults() {
+        ConfigLoader config = new ConfigLoader(configDir, Map.of(), new Properties());
+
+        assertEquals((int) config.get(ConfigKey.integer("GRAFANA_BATCH_SIZE", 50)), 50);
+        assertEquals((int) config.get(ConfigKey.integer("NOT_SET", 7)), 7);
+        assertEquals(config.getTestUserPassword(), "pwd");
+        assertFalse(config.isCI());
+        assertNull(config.sourceOf("NOT_SET"));
+        assertEquals(config.getEnvOrDefault("NOT_SET", "fallback"), "fallback");
+    }
+
+    @Test
+    public void flagsAcceptOnlyLowerCaseTrue() {
+        ConfigLoader config = new ConfigLoader(configDir, Map.of("CI", "TRUE", "SKIP_WEBKIT", "true"),
+                new Properties());
+
+        assertFalse(config.isCI());
+        assertTrue(config.get(ConfigLoader.SKIP_WEBKIT));
+    }
+
+    @Test
+    public void flagsIgnoreValuesOtherThanTrueOrFalse() {
+        ConfigLoader config = new ConfigLoader(configDir,
+                Map.of("WEB_VITALS", "false", "STATE_INJECTION", "FALSE", "SCHEDULE_LONGEST_FIRST", "1"),
+                new Properties());
+
+        assertFalse(config.get(ConfigKey.flag("WEB_VITALS", true)));
+        assertTrue(config.get(ConfigKey.flag("STATE_INJECTION", true)), "Nur exakt false schaltet ab");
+        assertTrue(config.get(ConfigKey.flag("SCHEDULE_LONGEST_FIRST", true)));
+        assertFalse(config.get(ConfigKey.flag("SCHEDULE_LONGEST_FIRST", false)));
+    }
+
+    @Test
+    public void choicesIgnoreCase() {
+        ConfigLoader config = new ConfigLoader(configDir, Map.of("CONTEXT_POOL", " off "), new Properties());
+
+        assertEquals(config.get(ConfigKey.choice("CONTEXT_POOL", PoolMode.RESET)), PoolMode.OFF);
+        assertEquals(config.get(ConfigKey.choice("NOT_SET", PoolMode.RESET)), PoolMode.RESET);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*CONTEXT_POOL.*")
+    public void rejectsUnknownChoices() {
+        new ConfigLoader(configDir, Map.of("CONTEXT_POOL", "sometimes"), new Properties())
+                .get(ConfigKey.choice("CONTEXT_POOL", PoolMode.RESET));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsMalformedTypedValues() {
+        new ConfigLoader(configDir, Map.of(), new Properties()).get(ConfigKey.integer("BASE_URL", 0));
+    }
+
+    @Test
+    public void masksSecretsInDescription() {
+        String description = new ConfigLoader(configDir, Map.of(), new Properties()).describe();
+
+        assertTrue(description.contains("GRAFANA_LOKI_KEY=****"));
+        assertFalse(description.contains("secret"));
+        assertTrue(description.contains("TEST_USER_NAME=local-user"));
+    }
+
+    private enum PoolMode {
+        OFF, RESET
+    }
+}
@@ -0,0 +1,180 @@
+package com.bqnow.testshop.framework;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lokaler HTTP-Stub für Framework-Tests, z.B. als Ersatz für Grafana Loki.
+ * Zeichnet alle Requests auf (gzip-Bodies werden entpackt) und antwortet mit
+ * vorprogrammierten Statuscodes.
+ */
+public class StubHttpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<RecordedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private final Deque<Integer> queuedStatuses = new ConcurrentLinkedDeque<>();
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private volatile int defaultStatus = 204;
+
+    private StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public static StubHttpServer start() throws IOException {
+        return new StubHttpServer();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Die nächsten Requests werden der Reihe nach mit diesen Statuscodes beantwortet.
+     */
+    public void enqueueStatus(int... statuses) {
+        for (int status : statuses) {
+            queuedStatuses.addLast(status);
+        }
+    }
+
+    public void setDefaultStatus(int status) {
+        this.defaultStatus = status;
+    }
+
+    /**
+     * Feste Antwort für einen Pfad (ohne Query-String).
+     */
+    public void respond(String path, int status, String body, String... headers) {
+        responses.put(path, new Response(status, body, headers));
+    }
+
+    /**
+     * Antwort für alle Requests, auf die {@code matcher} zutrifft. Regeln
+     * werden in der Reihenfolge ihrer Registrierung vor den festen Antworten
+     * pro Pfad geprüft.
+     */
+    public void respondTo(Predicate<RecordedRequest> matcher, int status, String body, String... headers) {
+        rules.add(new Rule(matcher, new Response(status, body, headers)));
+    }
+
+    public List<RecordedRequest> requests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        String body = new String("gzip".equalsIgnoreCase(encoding) ? gunzip(raw) : raw, StandardCharsets.UTF_8);
+        String path = exchange.getRequestURI().getPath();
+        RecordedRequest request = new RecordedRequest(exchange.getRequestMethod(), path,
+                exchange.getRequestHeaders().getFirst("Content-Encoding"),
+                exchange.getRequestHeaders().getFirst("Cookie"), body,
+                exchange.getRequestHeaders().getFirst("Next-Action"));
+        requests.add(request);
+
+        Integer queued = queuedStatuses.pollFirst();
+        Response response = queued != null ? new Response(queued, "", new String[0]) : null;
+        for (Rule rule : rules) {
+            if (response == null && rule.matcher.test(request)) {
+                response = rule.response;
+            }
+        }
+        if (response == null) {
+            response = responses.getOrDefault(path, new Response(defaultStatus, "", new String[0]));
+        }
+
+        for (int i = 0; i + 1 < response.headers.length; i += 2) {
+            exchange.getResponseHeaders().add(response.headers[i], response.headers[i + 1]);
+        }
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        if (response.status == 204 || bytes.length == 0) {
+            exchange.sendResponseHeaders(response.status, -1);
+        } else {
+            exchange.sendResponseHeaders(response.status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private static byte[] gunzip(byte[] raw) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Ein aufgezeichneter Request.
+     */
+    public static final class RecordedRequest {
+        public final String method;
+        public final String path;
+        public final String contentEncoding;
+        public final String cookie;
+        public final String body;
+        // Header für Next.js Server Actions
+        public final String nextAction;
+
+        RecordedRequest(String method, String path, String contentEncoding, String cookie, String body,
+                String nextAction) {
+            this.method = method;
+            this.path = path;
+            this.contentEncoding = contentEncoding;
+            this.cookie = cookie;
+            this.body = body;
+            this.nextAction = nextAction;
+        }
+    }
+
+    private static final class Rule {
+        final Predicate<RecordedRequest> matcher;
+        final Response response;
+
+        Rule(Predicate<RecordedRequest> matcher, Response response) {
+            this.matcher = matcher;
+            this.response = response;
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+        final String[] headers;
+
+        Response(int status, String body, String[] headers) {
+            this.status = status;
+            this.body = body;
+            this.headers = headers;
+        }
+    }
+}
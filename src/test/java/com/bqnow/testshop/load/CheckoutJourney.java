@@ -0,0 +1,81 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.pages.CartPage;
+import com.bqnow.testshop.pages.LoginPage;
+import com.bqnow.testshop.pages.ProductDetailPage;
+import com.bqnow.testshop.pages.ShopPage;
+import com.bqnow.testshop.utils.TestDataGenerator;
+import com.microsoft.playwright.Page;
+
+/**
+ * Die Checkout-Journey aus {@code HappyPathTest} als Folge gemessener
+ * Schritte für den Lastmodus, ausgeführt mit denselben Page Objects.
+ *
+ * Zwischen den Schritten liegt die Denkzeit des {@link LoadProfile}; sie
+ * zählt nicht zur Journey-Latenz. Schlägt ein Schritt fehl, bricht die
+ * Journey ab und wird als Fehler gezählt.
+ */
+final class CheckoutJourney {
+
+    // Testdaten wie im HappyPathTest
+    private static final String PRODUCT_ID = "1";
+    private static final String PRODUCT_CATEGORY = "Electronics";
+    private static final String PRODUCT_PRICE = "299.99";
+
+    private final LoadProfile profile;
+    private final LoadMetrics metrics;
+
+    CheckoutJourney(LoadProfile profile, LoadMetrics metrics) {
+        this.profile = profile;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Führt die Journey auf der (frischen) Page aus. Liefert false, wenn ein
+     * Schritt fehlgeschlagen ist.
+     */
+    boolean run(Page page) throws InterruptedException {
+        ConfigLoader config = ConfigLoader.getInstance();
+        LoginPage loginPage = new LoginPage(page);
+        ShopPage shopPage = new ShopPage(page);
+        ProductDetailPage productDetailPage = new ProductDetailPage(page);
+        CartPage cartPage = new CartPage(page);
+        JourneyTimer timer = new JourneyTimer(metrics, profile::nextThinkTimeMillis);
+
+        try {
+            timer.step("login", () -> {
+                loginPage.navigateTo();
+                loginPage.login(config.getTestUserName(), config.getTestUserPassword());
+                loginPage.waitForHome();
+            });
+            timer.step("browse", () -> {
+                shopPage.filterByCategory(PRODUCT_CATEGORY);
+                shopPage.openProductDetails(PRODUCT_ID);
+            });
+            timer.step("addToCart", () -> productDetailPage.addToCart(PRODUCT_ID));
+            timer.step("cart", () -> {
+                cartPage.navigateTo();
+                cartPage.increaseQuantity(PRODUCT_ID);
+                cartPage.checkTotal(PRODUCT_ID, PRODUCT_PRICE);
+            });
+            timer.step("checkout", () -> {
+                cartPage.proceedToCheckout();
+                TestDataGenerator.CustomerData customer = TestDataGenerator.generateCustomer();
+                cartPage.fillShippingDetails(
+                        customer.firstName + " " + customer.lastName,
+                        customer.address,
+                        customer.city,
+                        customer.zipCode,
+                        customer.email);
+                cartPage.submitOrder();
+                cartPage.verifyOrderSuccess();
+            });
+        } catch (JourneyTimer.StepFailure e) {
+            metrics.recordError(LoadMetrics.JOURNEY, timer.activeMillis(), e.getCause());
+            return false;
+        }
+        metrics.recordSuccess(LoadMetrics.JOURNEY, timer.activeMillis());
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+package com.bqnow.testshop.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transport über {@code java.net.http} ohne Playwright-Treiber. Alle
+ * Sessions teilen sich einen Client (Verbindungs-Pool); Cookies hält jede
+ * Session selbst, da ein {@code CookieHandler} pro Client gelten würde.
+ */
+final class HttpClientTransport implements ProtocolTransport {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseURL;
+    private final HttpClient client;
+
+    HttpClientTransport(String baseURL) {
+        this.baseURL = baseURL.endsWith("/") ? baseURL.substring(0, baseURL.length() - 1) : baseURL;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public Session newSession() {
+        return new HttpSession();
+    }
+
+    @Override
+    public void close() {
+        // HttpClient gibt seine Ressourcen ab Java 21 über close() frei, vorher per GC
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                System.err.println("[Protocol] HttpClient nicht geschlossen: " + e.getMessage());
+            }
+        }
+    }
+
+    private final class HttpSession implements Session {
+
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+
+        @Override
+        public Result get(String path) {
+            return send(request(path).GET());
+        }
+
+        @Override
+        public Result post(String path, Map<String, String> headers, String body) {
+            HttpRequest.Builder builder = request(path)
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+            headers.forEach(builder::header);
+            return send(builder);
+        }
+
+        @Override
+        public void close() {
+            cookies.clear();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseURL + path)).timeout(TIMEOUT);
+            if (!cookies.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                cookies.forEach((name, value) -> header.append(header.length() == 0 ? "" : "; ")
+                        .append(name).append('=').append(value));
+                builder.header("Cookie", header.toString());
+            }
+            return builder;
+        }
+
+        private Result send(HttpRequest.Builder builder) {
+            try {
+                HttpResponse<String> response = client.send(builder.build(),
+                        HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                storeCookies(response.headers().allValues("Set-Cookie"));
+                return new Result(response.statusCode(), response.body());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Request unterbrochen", e);
+            }
+        }
+
+        private void storeCookies(List<String> setCookies) {
+            for (String setCookie : setCookies) {
+                String pair = setCookie.split(";", 2)[0];
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    cookies.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bqnow.testshop.load;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Misst die Schritte einer Journey und verbucht sie in {@link LoadMetrics}.
+ * Vor jedem Schritt außer dem ersten liegt die Denkzeit; sie zählt nicht zur
+ * aktiven Zeit. Schlägt ein Schritt fehl, bricht {@link StepFailure} die
+ * Journey ab.
+ *
+ * Wartet der Generator selbst (z.B. auf einen Playwright-Treiber), wird diese
+ * Zeit von der Schrittdauer abgezogen und als {@value #QUEUE_STEP} verbucht.
+ */
+final class JourneyTimer {
+
+    static final String QUEUE_STEP = "generatorQueue";
+
+    private final LoadMetrics metrics;
+    private final LongSupplier thinkTimeMillis;
+    private final LongSupplier queueNanos;
+    private long activeMillis;
+    private int completedSteps;
+
+    JourneyTimer(LoadMetrics metrics, LongSupplier thinkTimeMillis) {
+        this(metrics, thinkTimeMillis, null);
+    }
+
+    /**
+     * {@code queueNanos} (darf null sein) liefert die kumulierte Wartezeit
+     * des Generators im aktuellen Thread.
+     */
+    JourneyTimer(LoadMetrics metrics, LongSupplier thinkTimeMillis, LongSupplier queueNanos) {
+        this.metrics = metrics;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.queueNanos = queueNanos;
+    }
+
+    void step(String name, Runnable body) throws InterruptedException {
+        if (completedSteps > 0) {
+            long thinkTime = thinkTimeMillis.getAsLong();
+            if (thinkTime > 0) {
+                Thread.sleep(thinkTime);
+            }
+        }
+        long queuedBefore = queueNanos != null ? queueNanos.getAsLong() : 0;
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (RuntimeException | AssertionError e) {
+            long millis = finishStep(start, queuedBefore);
+            metrics.recordError(name, millis, e);
+            throw new StepFailure(e);
+        }
+        long millis = finishStep(start, queuedBefore);
+        completedSteps++;
+        metrics.recordSuccess(name, millis);
+    }
+
+    /**
+     * Schrittdauer ohne Wartezeit des Generators.
+     */
+    private long finishStep(long start, long queuedBefore) {
+        long elapsed = System.nanoTime() - start;
+        if (queueNanos != null) {
+            long queued = queueNanos.getAsLong() - queuedBefore;
+            elapsed -= queued;
+            metrics.recordSuccess(QUEUE_STEP, queued / 1_000_000);
+        }
+        long millis = Math.max(0, elapsed) / 1_000_000;
+        activeMillis += millis;
+        return millis;
+    }
+
+    /**
+     * Summe der Schrittdauern ohne Denkzeiten.
+     */
+    long activeMillis() {
+        return activeMillis;
+    }
+
+    /**
+     * Bricht die Journey nach einem fehlgeschlagenen Schritt ab; die Ursache
+     * ist bereits beim Schritt verbucht.
+     */
+    static final class StepFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StepFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.metrics.DurationHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kennzahlen eines Lastlaufs: Latenz und Fehler pro Journey-Schritt sowie
+ * Durchsatz der kompletten Journey. Alle VU-Threads schreiben lock-frei.
+ */
+public final class LoadMetrics {
+
+    public static final String JOURNEY = "journey";
+
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    // Reihenfolge des ersten Auftretens = Reihenfolge der Schritte in der Journey
+    private final Map<String, Integer> stepOrder = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrder = new AtomicInteger();
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+    private final LongAdder missedArrivals = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    void recordSuccess(String step, long millis) {
+        stats(step).latency.record(millis);
+    }
+
+    void recordError(String step, long millis, Throwable error) {
+        StepStats stats = stats(step);
+        stats.latency.record(millis);
+        stats.errors.increment();
+        errorsByCause.computeIfAbsent(step + ": " + error.getClass().getSimpleName(), k -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Eine Journey konnte im offenen Modell nicht gestartet werden, weil kein
+     * VU frei war.
+     */
+    void recordMissedArrival() {
+        missedArrivals.increment();
+    }
+
+    private StepStats stats(String step) {
+        return steps.computeIfAbsent(step, k -> {
+            stepOrder.putIfAbsent(k, nextOrder.getAndIncrement());
+            return new StepStats();
+        });
+    }
+
+    public long journeys() {
+        StepStats journey = steps.get(JOURNEY);
+        return journey == null ? 0 : journey.latency.count();
+    }
+
+    public long failedJourneys() {
+        StepStats journey = steps.get(JOURNEY);
+        return journey == null ? 0 : journey.errors.sum();
+    }
+
+    public double errorRate() {
+        long journeys = journeys();
+        return journeys == 0 ? 0 : (double) failedJourneys() / journeys;
+    }
+
+    public long missedArrivals() {
+        return missedArrivals.sum();
+    }
+
+    public double elapsedSeconds() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1e9;
+    }
+
+    /**
+     * Erfolgreiche Journeys pro Sekunde.
+     */
+    public double throughput() {
+        double seconds = elapsedSeconds();
+        return seconds <= 0 ? 0 : (journeys() - failedJourneys()) / seconds;
+    }
+
+    /**
+     * Schritte in Journey-Reihenfolge, die Journey selbst zuletzt.
+     */
+    Map<String, StepStats> orderedSteps() {
+        Map<Integer, String> byOrder = new TreeMap<>();
+        stepOrder.forEach((step, order) -> byOrder.put(order, step));
+        Map<String, StepStats> ordered = new LinkedHashMap<>();
+        byOrder.values().stream().filter(step -> !JOURNEY.equals(step))
+                .forEach(step -> ordered.put(step, steps.get(step)));
+        if (steps.containsKey(JOURNEY)) {
+            ordered.put(JOURNEY, steps.get(JOURNEY));
+        }
+        return ordered;
+    }
+
+    /**
+     * Tabelle für Konsole und Allure.
+     */
+    public String report() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%d Journeys in %.1f s, %.2f erfolgreiche Journeys/s, Fehlerquote %.2f%%%n",
+                journeys(), elapsedSeconds(), throughput(), errorRate() * 100));
+        if (missedArrivals() > 0) {
+            text.append(String.format(Locale.ROOT, "%d Ankünfte verpasst (kein VU frei)%n", missedArrivals()));
+        }
+        text.append(String.format(Locale.ROOT, "%-20s %8s %8s %8s %8s %8s %8s%n",
+                "Schritt", "n", "Fehler", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        orderedSteps().forEach((step, stats) -> text.append(String.format(Locale.ROOT,
+                "%-20s %8d %7.2f%% %8d %8d %8d %8d%n", step, stats.latency.count(), stats.errorRate() * 100,
+                stats.latency.percentile(50), stats.latency.percentile(90), stats.latency.percentile(99),
+                stats.latency.max())));
+        if (!errorsByCause.isEmpty()) {
+            text.append("Fehler nach Ursache:").append(System.lineSeparator());
+            new TreeMap<>(errorsByCause).forEach((cause, count) -> text.append("  ").append(cause).append(": ")
+                    .append(count.sum()).append(System.lineSeparator()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Tabelle als CSV für den Report-Anhang.
+     */
+    public String asCsv() {
+        StringBuilder csv = new StringBuilder("Schritt,n,Fehler,p50_ms,p90_ms,p99_ms,max_ms\n");
+        orderedSteps().forEach((step, stats) -> csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d%n",
+                step, stats.latency.count(), stats.errors.sum(), stats.latency.percentile(50),
+                stats.latency.percentile(90), stats.latency.percentile(99), stats.latency.max())));
+        return csv.toString();
+    }
+
+    /**
+     * Latenz (Millisekunden) und Fehleranzahl eines Schritts.
+     */
+    static final class StepStats {
+        final DurationHistogram latency = new DurationHistogram();
+        final LongAdder errors = new LongAdder();
+
+        double errorRate() {
+            long count = latency.count();
+            return count == 0 ? 0 : (double) errors.sum() / count;
+        }
+    }
+}
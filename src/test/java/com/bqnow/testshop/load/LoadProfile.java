@@ -0,0 +1,206 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lastprofil für den Lastmodus: Ramp-up-Stufen, Denkzeiten und optionale
+ * Ankunftsrate.
+ *
+ * Stufen ({@code LOAD_STAGES}) werden als {@code Dauer:Ziel-VUs}
+ * angegeben, z.B. {@code 30s:5,2m:20,30s:0}: innerhalb jeder Stufe wird die
+ * Anzahl aktiver virtueller Benutzer linear vom Wert der vorherigen Stufe auf
+ * das Ziel verändert (Start bei 0).
+ *
+ * Ohne {@code LOAD_ARRIVAL_RATE} startet jeder aktive VU nach einer Journey
+ * sofort die nächste (geschlossenes Modell). Mit Ankunftsrate (Journeys pro
+ * Sekunde) beginnen Journeys im festen Takt; die Stufen begrenzen dann nur die
+ * Anzahl gleichzeitiger VUs (offenes Modell).
+ */
+public final class LoadProfile {
+
+    private final List<Stage> stages;
+    private final double arrivalRate;
+    private final long thinkTimeMinMillis;
+    private final long thinkTimeMaxMillis;
+    private final int vusPerBrowser;
+
+    LoadProfile(List<Stage> stages, double arrivalRate, long thinkTimeMinMillis, long thinkTimeMaxMillis,
+            int vusPerBrowser) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Laststufe erforderlich");
+        }
+        if (thinkTimeMinMillis < 0 || thinkTimeMaxMillis < thinkTimeMinMillis) {
+            throw new IllegalArgumentException("Ungültige Denkzeit: " + thinkTimeMinMillis + "-" + thinkTimeMaxMillis);
+        }
+        if (vusPerBrowser < 1) {
+            throw new IllegalArgumentException("LOAD_VUS_PER_BROWSER muss mindestens 1 sein");
+        }
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+        this.arrivalRate = arrivalRate;
+        this.thinkTimeMinMillis = thinkTimeMinMillis;
+        this.thinkTimeMaxMillis = thinkTimeMaxMillis;
+        this.vusPerBrowser = vusPerBrowser;
+    }
+
+    /**
+     * Liest das Profil aus {@code LOAD_STAGES} (Default {@code 30s:5,1m:5,15s:0}),
+     * {@code LOAD_ARRIVAL_RATE} (Default 0 = geschlossenes Modell),
+     * {@code LOAD_THINK_TIME_MS} (fest oder {@code min-max}, Default
+     * {@code 500-1500}) und {@code LOAD_VUS_PER_BROWSER} (Default 20).
+     */
+    public static LoadProfile fromConfig() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        long[] thinkTime = parseRange(config.getEnvOrDefault("LOAD_THINK_TIME_MS", "500-1500"));
+        return new LoadProfile(
+                parseStages(config.getEnvOrDefault("LOAD_STAGES", "30s:5,1m:5,15s:0")),
+                config.get(ConfigKey.decimal("LOAD_ARRIVAL_RATE", 0)),
+                thinkTime[0], thinkTime[1],
+                config.get(ConfigKey.integer("LOAD_VUS_PER_BROWSER", 20)));
+    }
+
+    /**
+     * Anzahl aktiver VUs zum Zeitpunkt {@code elapsedMillis} seit Start.
+     */
+    public int targetVus(long elapsedMillis) {
+        int from = 0;
+        long stageStart = 0;
+        for (Stage stage : stages) {
+            long stageEnd = stageStart + stage.durationMillis;
+            if (elapsedMillis < stageEnd) {
+                double progress = stage.durationMillis == 0 ? 1.0
+                        : (double) (elapsedMillis - stageStart) / stage.durationMillis;
+                return (int) Math.round(from + (stage.targetVus - from) * progress);
+            }
+            from = stage.targetVus;
+            stageStart = stageEnd;
+        }
+        return 0;
+    }
+
+    public int maxVus() {
+        return stages.stream().mapToInt(stage -> stage.targetVus).max().orElse(0);
+    }
+
+    public long totalDurationMillis() {
+        return stages.stream().mapToLong(stage -> stage.durationMillis).sum();
+    }
+
+    public boolean isOpenModel() {
+        return arrivalRate > 0;
+    }
+
+    /**
+     * Journeys pro Sekunde, 0 im geschlossenen Modell.
+     */
+    public double arrivalRate() {
+        return arrivalRate;
+    }
+
+    public int vusPerBrowser() {
+        return vusPerBrowser;
+    }
+
+    /**
+     * Zufällige Denkzeit innerhalb des konfigurierten Bereichs.
+     */
+    public long nextThinkTimeMillis() {
+        if (thinkTimeMaxMillis == thinkTimeMinMillis) {
+            return thinkTimeMinMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(thinkTimeMinMillis, thinkTimeMaxMillis + 1);
+    }
+
+    public List<Stage> stages() {
+        return stages;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Stage stage : stages) {
+            text.append(text.length() == 0 ? "" : " → ").append(stage);
+        }
+        text.append(String.format(Locale.ROOT, ", Denkzeit %d-%d ms", thinkTimeMinMillis, thinkTimeMaxMillis));
+        if (isOpenModel()) {
+            text.append(String.format(Locale.ROOT, ", Ankunftsrate %.2f/s", arrivalRate));
+        }
+        return text.toString();
+    }
+
+    static List<Stage> parseStages(String value) {
+        List<Stage> stages = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pieces = part.trim().split(":");
+            if (pieces.length != 2) {
+                throw new IllegalArgumentException("Ungültige Laststufe '" + part.trim() + "', erwartet Dauer:VUs");
+            }
+            int target = Integer.parseInt(pieces[1].trim());
+            if (target < 0) {
+                throw new IllegalArgumentException("Negative VU-Anzahl in Laststufe '" + part.trim() + "'");
+            }
+            stages.add(new Stage(parseDurationMillis(pieces[0].trim()), target));
+        }
+        return stages;
+    }
+
+    /**
+     * Dauer mit Einheit {@code ms}, {@code s}, {@code m} oder {@code h};
+     * ohne Einheit Sekunden.
+     */
+    static long parseDurationMillis(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.endsWith("ms")) {
+            return Long.parseLong(lower.substring(0, lower.length() - 2));
+        }
+        long factor;
+        switch (lower.charAt(lower.length() - 1)) {
+            case 'h':
+                factor = 3_600_000;
+                break;
+            case 'm':
+                factor = 60_000;
+                break;
+            case 's':
+                factor = 1_000;
+                break;
+            default:
+                return Long.parseLong(lower) * 1_000;
+        }
+        return Long.parseLong(lower.substring(0, lower.length() - 1)) * factor;
+    }
+
+    static long[] parseRange(String value) {
+        String[] bounds = value.trim().split("-");
+        long min = Long.parseLong(bounds[0].trim());
+        long max = bounds.length > 1 ? Long.parseLong(bounds[1].trim()) : min;
+        return new long[] { min, max };
+    }
+
+    /**
+     * Eine Laststufe: in {@code durationMillis} linear auf {@code targetVus}.
+     */
+    public static final class Stage {
+        final long durationMillis;
+        final int targetVus;
+
+        Stage(long durationMillis, int targetVus) {
+            this.durationMillis = durationMillis;
+            this.targetVus = targetVus;
+        }
+
+        @Override
+        public String toString() {
+            return durationMillis / 1000 + "s:" + targetVus;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bqnow.testshop.load;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Parsen der Laststufen und Ramp-up-Verlauf.
+ */
+public class LoadProfileTest {
+
+    @Test
+    public void parsesStagesWithUnits() {
+        List<LoadProfile.Stage> stages = LoadProfile.parseStages("30s:5, 2m:20,500ms:0");
+
+        assertEquals(stages.size(), 3);
+        assertEquals(stages.get(0).durationMillis, 30_000);
+        assertEquals(stages.get(1).durationMillis, 120_000);
+        assertEquals(stages.get(1).targetVus, 20);
+        assertEquals(stages.get(2).durationMillis, 500);
+        assertEquals(LoadProfile.parseDurationMillis("1h"), 3_600_000);
+        assertEquals(LoadProfile.parseDurationMillis("45"), 45_000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsStageWithoutTarget() {
+        LoadProfile.parseStages("30s");
+    }
+
+    @Test
+    public void rampsLinearlyBetweenStages() {
+        LoadProfile profile = new LoadProfile(LoadProfile.parseStages("10s:10,10s:10,10s:0"), 0, 0, 0, 5);
+
+        assertEquals(profile.targetVus(0), 0);
+        assertEquals(profile.targetVus(5_000), 5);
+        assertEquals(profile.targetVus(10_000), 10);
+        assertEquals(profile.targetVus(15_000), 10);
+        assertEquals(profile.targetVus(25_000), 5);
+        assertEquals(profile.targetVus(30_000), 0);
+        assertEquals(profile.maxVus(), 10);
+        assertEquals(profile.totalDurationMillis(), 30_000);
+        assertFalse(profile.isOpenModel());
+    }
+
+    @Test
+    public void thinkTimeStaysWithinRange() {
+        LoadProfile profile = new LoadProfile(LoadProfile.parseStages("1s:1"), 2.5, 100, 200, 1);
+
+        assertTrue(profile.isOpenModel());
+        for (int i = 0; i < 100; i++) {
+            long thinkTime = profile.nextThinkTimeMillis();
+            assertTrue(thinkTime >= 100 && thinkTime <= 200, "Denkzeit außerhalb des Bereichs: " + thinkTime);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.pages.BasePage;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Führt die {@link CheckoutJourney} mit virtuellen Benutzern (VUs) gemäß
+ * {@link LoadProfile} aus.
+ *
+ * Mehrere VUs teilen sich einen headless Chromium: Der Runner startet
+ * {@code ceil(maxVus / LOAD_VUS_PER_BROWSER)} Browser mit CDP-Port
+ * ({@code LOAD_CDP_BASE_PORT}, Default 9300, fortlaufend). Jeder VU läuft auf
+ * einem eigenen Thread mit eigenem Playwright-Treiber (Playwright ist nicht
+ * thread-safe), verbindet sich per {@code connectOverCDP} und öffnet pro
+ * Journey nur einen leichtgewichtigen {@link BrowserContext}. Die Page
+ * Objects laufen im Lastmodus ({@link BasePage#setLoadMode}), damit nur
+ * funktionale Fehler als Fehler zählen.
+ */
+public final class LoadRunner {
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    // Laufende Journeys dürfen nach Ende des Profils noch abschließen
+    private static final long DRAIN_TIMEOUT_MILLIS = 120_000;
+
+    private final LoadProfile profile;
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final Semaphore arrivals = new Semaphore(0);
+    private final AtomicInteger busyVus = new AtomicInteger();
+    private final int basePort;
+    private volatile long startNanos;
+    private volatile boolean finished;
+
+    public LoadRunner(LoadProfile profile) {
+        this.profile = profile;
+        this.basePort = ConfigLoader.getInstance().get(ConfigKey.integer("LOAD_CDP_BASE_PORT", 9300));
+    }
+
+    /**
+     * Führt das komplette Profil aus und liefert die Kennzahlen.
+     */
+    public LoadMetrics run() throws InterruptedException {
+        int maxVus = profile.maxVus();
+        int browserCount = (maxVus + profile.vusPerBrowser() - 1) / profile.vusPerBrowser();
+        System.out.println("[Load] Profil: " + profile + " | " + maxVus + " VUs auf " + browserCount + " Browser(n)");
+        BasePage.setLoadMode(true);
+
+        List<SharedBrowser> browsers = new ArrayList<>();
+        List<Thread> vus = new ArrayList<>();
+        ScheduledExecutorService pacer = null;
+        try {
+            for (int i = 0; i < browserCount; i++) {
+                browsers.add(SharedBrowser.launch(basePort + i));
+            }
+
+            startNanos = System.nanoTime();
+            metrics.start();
+            for (int i = 0; i < maxVus; i++) {
+                int index = i;
+                String endpoint = browsers.get(i / profile.vusPerBrowser()).endpoint;
+                Thread vu = new Thread(() -> runVirtualUser(index, endpoint), "load-vu-" + i);
+                vu.setDaemon(true);
+                vu.start();
+                vus.add(vu);
+            }
+            if (profile.isOpenModel()) {
+                pacer = Executors.newSingleThreadScheduledExecutor();
+                long periodMicros = Math.max(1, Math.round(1_000_000 / profile.arrivalRate()));
+                pacer.scheduleAtFixedRate(this::arrive, 0, periodMicros, TimeUnit.MICROSECONDS);
+            }
+
+            Thread.sleep(profile.totalDurationMillis());
+        } finally {
+            finished = true;
+            if (pacer != null) {
+                pacer.shutdownNow();
+            }
+            long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+            for (Thread vu : vus) {
+                vu.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+            metrics.stop();
+            for (SharedBrowser browser : browsers) {
+                browser.close();
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Offenes Modell: eine Journey freigeben, falls ein aktiver VU frei ist,
+     * sonst als verpasste Ankunft zählen.
+     */
+    private void arrive() {
+        int idle = profile.targetVus(elapsedMillis()) - busyVus.get();
+        if (arrivals.availablePermits() >= idle) {
+            metrics.recordMissedArrival();
+        } else {
+            arrivals.release();
+        }
+    }
+
+    private void runVirtualUser(int index, String endpoint) {
+        try (Playwright playwright = Playwright.create()) {
+            Browser browser = playwright.chromium().connectOverCDP(endpoint);
+            CheckoutJourney journey = new CheckoutJourney(profile, metrics);
+            while (!finished) {
+                if (index >= profile.targetVus(elapsedMillis())) {
+                    Thread.sleep(IDLE_POLL_MILLIS);
+                    continue;
+                }
+                if (profile.isOpenModel() && !arrivals.tryAcquire(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+                busyVus.incrementAndGet();
+                try (BrowserContext context = browser.newContext(new Browser.NewContextOptions()
+                        .setBaseURL(ConfigLoader.getInstance().getBaseURL())
+                        .setIgnoreHTTPSErrors(true))) {
+                    journey.run(context.newPage());
+                } catch (RuntimeException e) {
+                    // z.B. newContext fehlgeschlagen: als fehlgeschlagene Journey zählen, VU läuft weiter
+                    metrics.recordError(LoadMetrics.JOURNEY, 0, e);
+                } finally {
+                    busyVus.decrementAndGet();
+                }
+                if (!profile.isOpenModel()) {
+                    // Denkzeit vor der nächsten Journey (geschlossenes Modell)
+                    Thread.sleep(profile.nextThinkTimeMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("[Load] VU " + index + " abgebrochen: " + e.getMessage());
+            metrics.recordError("vu", 0, e);
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Ein headless Chromium mit CDP-Port, an den sich die VUs verbinden.
+     */
+    private static final class SharedBrowser {
+        final Playwright playwright;
+        final Browser browser;
+        final String endpoint;
+
+        private SharedBrowser(Playwright playwright, Browser browser, String endpoint) {
+            this.playwright = playwright;
+            this.browser = browser;
+            this.endpoint = endpoint;
+        }
+
+        static SharedBrowser launch(int port) {
+            Playwright playwright = Playwright.create();
+            try {
+                Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
+                        .setHeadless(true)
+                        .setArgs(List.of("--remote-debugging-port=" + port)));
+                return new SharedBrowser(playwright, browser, "http://127.0.0.1:" + port);
+            } catch (RuntimeException e) {
+                playwright.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                browser.close();
+            } catch (RuntimeException e) {
+                System.err.println("[Load] Fehler beim Schließen des Browsers " + endpoint + ": " + e.getMessage());
+            } finally {
+                playwright.close();
+            }
+        }
+    }
+}
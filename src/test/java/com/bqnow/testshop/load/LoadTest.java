@@ -0,0 +1,42 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import io.qameta.allure.*;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Lastmodus: die Checkout-Journey aus {@code HappyPathTest} mit vielen
+ * virtuellen Benutzern gegen den Shop (mvn test -Pload).
+ *
+ * Der Test schlägt fehl, wenn keine Journey abgeschlossen wurde oder die
+ * Fehlerquote {@code LOAD_MAX_ERROR_RATE} (Default 0.01) übersteigt.
+ */
+@Epic("TestShop Last")
+@Feature("Checkout unter Last")
+public class LoadTest {
+
+    @Test
+    @Story("Checkout Journey mit virtuellen Benutzern")
+    @Description("Führt die Happy-Path-Journey gemäß Lastprofil aus und berichtet Durchsatz, Perzentile und Fehlerquoten pro Schritt")
+    public void checkoutJourneyUnderLoad() throws InterruptedException {
+        LoadProfile profile = LoadProfile.fromConfig();
+        double maxErrorRate = ConfigLoader.getInstance().get(ConfigKey.decimal("LOAD_MAX_ERROR_RATE", 0.01));
+
+        LoadMetrics metrics = new LoadRunner(profile).run();
+
+        String report = metrics.report();
+        System.out.println("[Load] Ergebnis:" + System.lineSeparator() + report);
+        Allure.addAttachment("Lastprofil", "text/plain", profile.toString());
+        Allure.addAttachment("Last-Kennzahlen", "text/plain", report);
+        Allure.addAttachment("Schritte", "text/csv", metrics.asCsv(), "csv");
+
+        assertTrue(metrics.journeys() > 0, "Keine Journey abgeschlossen");
+        assertTrue(metrics.errorRate() <= maxErrorRate, String.format(Locale.ROOT,
+                "Fehlerquote %.2f%% über dem Limit von %.2f%%", metrics.errorRate() * 100, maxErrorRate * 100));
+    }
+}
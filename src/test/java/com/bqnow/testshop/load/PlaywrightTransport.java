@@ -0,0 +1,144 @@
+package com.bqnow.testshop.load;
+
+import com.microsoft.playwright.APIRequest;
+import com.microsoft.playwright.APIRequestContext;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.RequestOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Transport über Playwrights {@link APIRequestContext}: ein Context pro
+ * Session (eigene Cookies), verteilt auf {@code PROTOCOL_DRIVERS}
+ * Playwright-Treiber.
+ *
+ * Playwright ist nicht thread-safe, daher hält jeder Aufruf das Lock seines
+ * Treibers. Gleichzeitig laufende Requests sind so auf die Anzahl Treiber
+ * begrenzt; Sessions, die gerade denken, belegen keinen Treiber. Die
+ * Wartezeit auf das Lock wird pro Thread erfasst ({@link #queueTime()}) und
+ * getrennt von der Schrittlatenz ausgewiesen. Ein
+ * {@link ReentrantLock} statt {@code synchronized}, damit wartende virtuelle
+ * Threads ihren Träger-Thread freigeben.
+ */
+final class PlaywrightTransport implements ProtocolTransport {
+
+    // Kumulierte Lock-Wartezeit pro Thread (jede Session läuft auf einem eigenen Thread)
+    private static final ThreadLocal<long[]> QUEUE_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final String baseURL;
+    private final List<Driver> drivers = new ArrayList<>();
+    private final AtomicInteger nextDriver = new AtomicInteger();
+
+    PlaywrightTransport(String baseURL, int driverCount) {
+        if (driverCount < 1) {
+            throw new IllegalArgumentException("PROTOCOL_DRIVERS muss mindestens 1 sein");
+        }
+        this.baseURL = baseURL;
+        try {
+            for (int i = 0; i < driverCount; i++) {
+                // Der Protokollmodus braucht keine Browser
+                drivers.add(new Driver(Playwright.create(new Playwright.CreateOptions()
+                        .setEnv(Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1")))));
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Session newSession() {
+        Driver driver = drivers.get(Math.floorMod(nextDriver.getAndIncrement(), drivers.size()));
+        APIRequestContext context = driver.call(() -> driver.playwright.request().newContext(
+                new APIRequest.NewContextOptions().setBaseURL(baseURL).setIgnoreHTTPSErrors(true)));
+        return new PlaywrightSession(driver, context);
+    }
+
+    @Override
+    public LongSupplier queueTime() {
+        return () -> QUEUE_NANOS.get()[0];
+    }
+
+    @Override
+    public void close() {
+        for (Driver driver : drivers) {
+            try {
+                driver.call(() -> {
+                    driver.playwright.close();
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                System.err.println("[Protocol] Treiber nicht geschlossen: " + e.getMessage());
+            }
+        }
+        drivers.clear();
+    }
+
+    private static final class PlaywrightSession implements Session {
+        private final Driver driver;
+        private final APIRequestContext context;
+
+        PlaywrightSession(Driver driver, APIRequestContext context) {
+            this.driver = driver;
+            this.context = context;
+        }
+
+        @Override
+        public Result get(String path) {
+            return driver.call(() -> toResult(context.get(path)));
+        }
+
+        @Override
+        public Result post(String path, Map<String, String> headers, String body) {
+            RequestOptions options = RequestOptions.create().setData(body);
+            headers.forEach(options::setHeader);
+            return driver.call(() -> toResult(context.post(path, options)));
+        }
+
+        @Override
+        public void close() {
+            driver.call(() -> {
+                context.dispose();
+                return null;
+            });
+        }
+
+        private static Result toResult(APIResponse response) {
+            try {
+                return new Result(response.status(), response.text());
+            } finally {
+                response.dispose();
+            }
+        }
+    }
+
+    /**
+     * Ein Playwright-Treiber mit exklusivem Zugriff.
+     */
+    private static final class Driver {
+        final Playwright playwright;
+        final ReentrantLock lock = new ReentrantLock();
+
+        Driver(Playwright playwright) {
+            this.playwright = playwright;
+        }
+
+        <T> T call(Supplier<T> body) {
+            long start = System.nanoTime();
+            lock.lock();
+            QUEUE_NANOS.get()[0] += System.nanoTime() - start;
+            try {
+                return body.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
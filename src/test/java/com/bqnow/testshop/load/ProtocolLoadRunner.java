@@ -0,0 +1,198 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.utils.CustomerPool;
+import com.bqnow.testshop.utils.TestDataGenerator;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Protokollmodus: virtuelle Benutzer ohne Browser, die den {@link ShopProtocol}
+ * über einen {@link ProtocolTransport} ausführen.
+ *
+ * Sessions starten im offenen Modell zu festen Sollzeitpunkten
+ * ({@code PROTOCOL_ARRIVAL_RATE} pro Sekunde) und laufen je auf einem eigenen
+ * virtuellen Thread (Java 21+, sonst auf höchstens
+ * {@code PROTOCOL_PLATFORM_THREADS} Plattform-Threads). Die Journey-Latenz
+ * wird ab dem Sollzeitpunkt gemessen (korrigiert um Coordinated Omission):
+ * Verzögert sich ein Start, weil der Generator, der Thread-Pool oder das
+ * Session-Limit ({@code PROTOCOL_MAX_SESSIONS}) bremst, zählt die Wartezeit
+ * mit. Wartezeit auf Transport-Ressourcen innerhalb eines Schritts weist der
+ * {@link JourneyTimer} getrennt aus.
+ * Zum Vergleich wird die unkorrigierte Zeit als {@code journey_uncorrected}
+ * geführt.
+ */
+public final class ProtocolLoadRunner {
+
+    static final String JOURNEY_UNCORRECTED = "journey_uncorrected";
+
+    // Laufende Sessions dürfen nach Ende der Laufzeit noch abschließen
+    private static final long DRAIN_TIMEOUT_MILLIS = 120_000;
+
+    private final double arrivalRate;
+    private final long durationMillis;
+    private final long thinkTimeMinMillis;
+    private final long thinkTimeMaxMillis;
+    private final double buggyRatio;
+    private final int maxSessions;
+    private final int platformThreads;
+
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger peakSessions = new AtomicInteger();
+
+    ProtocolLoadRunner(double arrivalRate, long durationMillis, long thinkTimeMinMillis, long thinkTimeMaxMillis,
+            double buggyRatio, int maxSessions, int platformThreads) {
+        if (arrivalRate <= 0) {
+            throw new IllegalArgumentException("PROTOCOL_ARRIVAL_RATE muss größer 0 sein");
+        }
+        if (thinkTimeMinMillis < 0 || thinkTimeMaxMillis < thinkTimeMinMillis) {
+            throw new IllegalArgumentException("Ungültige Denkzeit: " + thinkTimeMinMillis + "-" + thinkTimeMaxMillis);
+        }
+        this.arrivalRate = arrivalRate;
+        this.durationMillis = durationMillis;
+        this.thinkTimeMinMillis = thinkTimeMinMillis;
+        this.thinkTimeMaxMillis = thinkTimeMaxMillis;
+        this.buggyRatio = buggyRatio;
+        this.maxSessions = maxSessions;
+        this.platformThreads = platformThreads;
+    }
+
+    /**
+     * Liest {@code PROTOCOL_ARRIVAL_RATE} (Default 20 Sessions/s),
+     * {@code PROTOCOL_DURATION} (Default 1m), {@code PROTOCOL_THINK_TIME_MS}
+     * (Default 1000-3000), {@code PROTOCOL_BUGGY_RATIO} (Anteil der Checkouts
+     * mit Produkt 999, Default 0.1), {@code PROTOCOL_MAX_SESSIONS}
+     * (Default 10000) und {@code PROTOCOL_PLATFORM_THREADS} (Default 256,
+     * nur ohne virtuelle Threads).
+     */
+    public static ProtocolLoadRunner fromConfig() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        long[] thinkTime = LoadProfile.parseRange(config.getEnvOrDefault("PROTOCOL_THINK_TIME_MS", "1000-3000"));
+        return new ProtocolLoadRunner(
+                config.get(ConfigKey.decimal("PROTOCOL_ARRIVAL_RATE", 20)),
+                LoadProfile.parseDurationMillis(config.getEnvOrDefault("PROTOCOL_DURATION", "1m")),
+                thinkTime[0], thinkTime[1],
+                config.get(ConfigKey.decimal("PROTOCOL_BUGGY_RATIO", 0.1)),
+                config.get(ConfigKey.integer("PROTOCOL_MAX_SESSIONS", 10000)),
+                config.get(ConfigKey.integer("PROTOCOL_PLATFORM_THREADS", 256)));
+    }
+
+    /**
+     * Führt den Lauf über den Transport aus und liefert die Kennzahlen.
+     */
+    public LoadMetrics run(ProtocolTransport transport) throws InterruptedException {
+        ServerActions actions;
+        try (ProtocolTransport.Session discovery = transport.newSession()) {
+            actions = ServerActions.discover(discovery, "/login", "/cart");
+        }
+        ShopProtocol protocol = new ShopProtocol(actions);
+        // Kundendaten vorab erzeugt: Faker kostet pro Aufruf mehr als ein Request
+        CustomerPool customers = TestDataGenerator.pool();
+        System.out.println(String.format(Locale.ROOT,
+                "[Protocol] %.1f Sessions/s für %d s, Denkzeit %d-%d ms, Server Actions %s", arrivalRate,
+                durationMillis / 1000, thinkTimeMinMillis, thinkTimeMaxMillis, actions));
+
+        Semaphore sessionSlots = new Semaphore(maxSessions);
+        ExecutorService executor = newSessionExecutor(platformThreads);
+        long periodNanos = Math.max(1, Math.round(1e9 / arrivalRate));
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + durationMillis * 1_000_000;
+        metrics.start();
+        try {
+            for (long i = 0;; i++) {
+                long intendedStart = startNanos + i * periodNanos;
+                if (intendedStart >= endNanos) {
+                    break;
+                }
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                sessionSlots.acquire();
+                TestDataGenerator.CustomerData customer = customers.next();
+                executor.execute(() -> {
+                    try {
+                        runSession(transport, protocol, customer, intendedStart);
+                    } finally {
+                        sessionSlots.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                System.err.println("[Protocol] " + activeSessions.get() + " Sessions nach Laufzeitende abgebrochen");
+                executor.shutdownNow();
+            }
+            metrics.stop();
+        }
+        return metrics;
+    }
+
+    private void runSession(ProtocolTransport transport, ShopProtocol protocol,
+            TestDataGenerator.CustomerData customer, long intendedStartNanos) {
+        peakSessions.accumulateAndGet(activeSessions.incrementAndGet(), Math::max);
+        long startDelayMillis = (System.nanoTime() - intendedStartNanos) / 1_000_000;
+        JourneyTimer timer = new JourneyTimer(metrics, this::nextThinkTimeMillis, transport.queueTime());
+        boolean buggy = ThreadLocalRandom.current().nextDouble() < buggyRatio;
+        try (ProtocolTransport.Session session = transport.newSession()) {
+            protocol.run(session, customer, buggy, timer);
+            metrics.recordSuccess(LoadMetrics.JOURNEY, startDelayMillis + timer.activeMillis());
+            metrics.recordSuccess(JOURNEY_UNCORRECTED, timer.activeMillis());
+        } catch (JourneyTimer.StepFailure e) {
+            metrics.recordError(LoadMetrics.JOURNEY, startDelayMillis + timer.activeMillis(), e.getCause());
+            metrics.recordError(JOURNEY_UNCORRECTED, timer.activeMillis(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // z.B. Session konnte nicht angelegt werden
+            metrics.recordError(LoadMetrics.JOURNEY, startDelayMillis + timer.activeMillis(), e);
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Höchste Anzahl gleichzeitig laufender Sessions.
+     */
+    public int peakSessions() {
+        return peakSessions.get();
+    }
+
+    private long nextThinkTimeMillis() {
+        if (thinkTimeMaxMillis == thinkTimeMinMillis) {
+            return thinkTimeMinMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(thinkTimeMinMillis, thinkTimeMaxMillis + 1);
+    }
+
+    /**
+     * Ein virtueller Thread pro Session (Java 21+); auf älteren JVMs ein fester
+     * Pool von {@code platformThreads} Plattform-Threads, weitere Sessions
+     * warten (und die Wartezeit zählt zur korrigierten Journey-Latenz). Per
+     * Reflection, da das Projekt für Java 17 baut.
+     */
+    static ExecutorService newSessionExecutor(int platformThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("[Protocol] Keine virtuellen Threads (Java " + Runtime.version().feature()
+                    + "), verwende " + platformThreads + " Plattform-Threads");
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(1, platformThreads), runnable -> {
+                Thread thread = new Thread(runnable, "protocol-session-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.framework.StubHttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Protokollmodus gegen einen lokalen Stub der App (beide
+ * Transporte, ohne Browser).
+ */
+public class ProtocolLoadRunnerTest {
+
+    private static final String CHECKOUT_ID = "7f1e0c4b9a2d3e5f60718293a4b5c6d7e8f90a1b2c";
+
+    private StubHttpServer app;
+
+    @BeforeMethod
+    public void startApp() throws Exception {
+        app = StubHttpServer.start();
+        String page = "<html><script src=\"/_next/static/chunks/app/cart.js\"></script></html>";
+        app.respond("/login", 200, page);
+        app.respond("/", 200, page);
+        app.respond("/products/1", 200, page);
+        app.respond("/_next/static/chunks/app/cart.js", 200,
+                "let c=(0,n.createServerReference)(\"" + CHECKOUT_ID + "\",n.callServer,void 0,n.findSourceMapURL,\"checkout\");");
+        app.respondTo(r -> "POST".equals(r.method) && r.body.contains("\"999\""), 500,
+                "0:{\"error\":\"Internal Server Error: processing failed for item 999.\"}");
+        app.respondTo(r -> "POST".equals(r.method), 200, "0:{\"orderId\":\"ORDER-1700000000000\"}");
+        app.respond("/cart", 200, page);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopApp() {
+        app.close();
+    }
+
+    @Test
+    public void discoversServerActionsFromClientChunks() {
+        Map<String, String> ids = ServerActions.parse(
+                "a=(0,r.createServerReference)(\"" + CHECKOUT_ID + "\",r.callServer,void 0,r.findSourceMapURL,\"checkout\")");
+        assertEquals(ids, Map.of("checkout", CHECKOUT_ID));
+    }
+
+    @Test
+    public void runsCheckoutFlowsOverHttpClient() throws Exception {
+        try (ProtocolTransport transport = new HttpClientTransport(app.url(""))) {
+            assertRunSucceeds(transport, 100);
+        }
+    }
+
+    @Test
+    public void runsCheckoutFlowsOverApiRequestContext() throws Exception {
+        try (ProtocolTransport transport = new PlaywrightTransport(app.url(""), 2)) {
+            // Weniger Sessions: jeder Treiber arbeitet seine Requests nacheinander ab
+            LoadMetrics metrics = assertRunSucceeds(transport, 20);
+            assertTrue(metrics.orderedSteps().containsKey(JourneyTimer.QUEUE_STEP),
+                    "Wartezeit auf Treiber muss getrennt ausgewiesen werden");
+        }
+    }
+
+    @Test
+    public void countsUnrelatedErrorAsFailedRejection() throws Exception {
+        try (StubHttpServer broken = StubHttpServer.start()) {
+            String page = "<html><script src=\"/_next/static/chunks/app/cart.js\"></script></html>";
+            broken.respond("/login", 200, page);
+            broken.respond("/", 200, page);
+            broken.respond("/cart", 200, page);
+            broken.respond("/_next/static/chunks/app/cart.js", 200,
+                    "let c=(0,n.createServerReference)(\"" + CHECKOUT_ID + "\",n.callServer,void 0,n.findSourceMapURL,\"checkout\");");
+            broken.respondTo(r -> "POST".equals(r.method), 500, "Internal Server Error");
+
+            try (ProtocolTransport transport = new HttpClientTransport(broken.url(""))) {
+                LoadMetrics metrics = new ProtocolLoadRunner(10, 500, 0, 0, 1.0, 1000, 16).run(transport);
+                assertTrue(metrics.journeys() > 0, metrics.report());
+                assertEquals(metrics.failedJourneys(), metrics.journeys(), metrics.report());
+            }
+        }
+    }
+
+    private LoadMetrics assertRunSucceeds(ProtocolTransport transport, int sessionsPerSecond)
+            throws InterruptedException {
+        ProtocolLoadRunner runner = new ProtocolLoadRunner(sessionsPerSecond, 1_000, 0, 0, 0.3, 1000, 16);
+        LoadMetrics metrics = runner.run(transport);
+
+        assertEquals(metrics.journeys(), sessionsPerSecond, metrics.report());
+        assertEquals(metrics.failedJourneys(), 0, metrics.report());
+        List<StubHttpServer.RecordedRequest> checkouts = app.requests().stream()
+                .filter(r -> "POST".equals(r.method)).toList();
+        assertEquals(checkouts.size(), metrics.journeys());
+        assertTrue(checkouts.stream().allMatch(r -> CHECKOUT_ID.equals(r.nextAction) && "/cart".equals(r.path)));
+        assertTrue(checkouts.stream().anyMatch(r -> r.body.contains("\"999\"")), "Kein Checkout mit Produkt 999");
+        assertTrue(metrics.orderedSteps().containsKey("checkoutRejected"));
+        return metrics;
+    }
+}
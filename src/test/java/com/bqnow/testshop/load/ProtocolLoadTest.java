@@ -0,0 +1,45 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import io.qameta.allure.*;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Protokollmodus: Login, Warenkorb und Checkout ohne Browser mit vielen
+ * gleichzeitigen Sessions (mvn test -Pprotocol).
+ *
+ * Der Test schlägt fehl, wenn keine Journey abgeschlossen wurde oder die
+ * Fehlerquote {@code LOAD_MAX_ERROR_RATE} (Default 0.01) übersteigt.
+ */
+@Epic("TestShop Last")
+@Feature("Checkout unter Last (Protokoll)")
+public class ProtocolLoadTest {
+
+    @Test
+    @Story("Checkout Flows auf HTTP-Ebene")
+    @Description("Spielt Login, Warenkorb und Checkout (inkl. abgelehntem Produkt 999) mit virtuellen Threads ab")
+    public void checkoutFlowsUnderProtocolLoad() throws InterruptedException {
+        ConfigLoader config = ConfigLoader.getInstance();
+        double maxErrorRate = config.get(ConfigKey.decimal("LOAD_MAX_ERROR_RATE", 0.01));
+
+        ProtocolLoadRunner runner = ProtocolLoadRunner.fromConfig();
+        LoadMetrics metrics;
+        try (ProtocolTransport transport = ProtocolTransport.fromConfig(config.getBaseURL())) {
+            metrics = runner.run(transport);
+        }
+
+        String report = metrics.report() + "Gleichzeitige Sessions (max): " + runner.peakSessions();
+        System.out.println("[Protocol] Ergebnis:" + System.lineSeparator() + report);
+        Allure.addAttachment("Last-Kennzahlen", "text/plain", report);
+        Allure.addAttachment("Schritte", "text/csv", metrics.asCsv(), "csv");
+
+        assertTrue(metrics.journeys() > 0, "Keine Journey abgeschlossen");
+        assertTrue(metrics.errorRate() <= maxErrorRate, String.format(Locale.ROOT,
+                "Fehlerquote %.2f%% über dem Limit von %.2f%%", metrics.errorRate() * 100, maxErrorRate * 100));
+    }
+}
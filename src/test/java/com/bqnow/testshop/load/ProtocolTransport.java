@@ -0,0 +1,81 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * HTTP-Transport für den Protokollmodus. Jede Session hält ihre eigenen
+ * Cookies; Sessions werden von beliebigen (virtuellen) Threads benutzt, aber
+ * nie von mehreren gleichzeitig.
+ */
+interface ProtocolTransport extends AutoCloseable {
+
+    Session newSession();
+
+    @Override
+    void close();
+
+    /**
+     * Kumulierte Wartezeit des aktuellen Threads auf eine knappe Ressource
+     * des Transports (z.B. einen Treiber) in Nanosekunden; null, wenn der
+     * Transport Requests nicht drosselt. Diese Zeit gehört zum Generator,
+     * nicht zur App, und zählt daher nicht zur Schrittlatenz.
+     */
+    default LongSupplier queueTime() {
+        return null;
+    }
+
+    /**
+     * Transport gemäß {@code PROTOCOL_TRANSPORT}: {@code http} (Default,
+     * {@code java.net.http}, ohne Treiber) oder {@code playwright}
+     * ({@code APIRequestContext}, höchstens {@code PROTOCOL_DRIVERS}
+     * Requests gleichzeitig).
+     */
+    static ProtocolTransport fromConfig(String baseURL) {
+        ConfigLoader config = ConfigLoader.getInstance();
+        String transport = config.getEnvOrDefault("PROTOCOL_TRANSPORT", "http").trim().toLowerCase(Locale.ROOT);
+        switch (transport) {
+            case "http":
+                return new HttpClientTransport(baseURL);
+            case "playwright":
+                return new PlaywrightTransport(baseURL,
+                        config.get(ConfigKey.integer("PROTOCOL_DRIVERS", 8)));
+            default:
+                throw new IllegalArgumentException("Unbekannter PROTOCOL_TRANSPORT: " + transport);
+        }
+    }
+
+    /**
+     * Eine Benutzersitzung (Cookie-Jar) gegen die App.
+     */
+    interface Session extends AutoCloseable {
+
+        Result get(String path);
+
+        Result post(String path, Map<String, String> headers, String body);
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Status und Body einer Antwort.
+     */
+    final class Result {
+        final int status;
+        final String body;
+
+        Result(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
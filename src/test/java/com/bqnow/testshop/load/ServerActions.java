@@ -0,0 +1,94 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigLoader;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * IDs der Next.js Server Actions der App (Header {@code Next-Action}).
+ *
+ * Die IDs ändern sich mit jedem Build. Sie werden daher aus den
+ * Client-Chunks der Seiten gelesen: Next.js registriert jede Action dort per
+ * {@code createServerReference("<id>", ..., "<exportName>")}. Einzelne IDs
+ * lassen sich über {@code PROTOCOL_ACTION_<NAME>} (z.B.
+ * {@code PROTOCOL_ACTION_CHECKOUT}) fest vorgeben.
+ */
+final class ServerActions {
+
+    private static final Pattern SCRIPT_SRC = Pattern.compile("src=\"(/_next/static/[^\"]+\\.js)\"");
+    private static final Pattern SERVER_REFERENCE = Pattern.compile(
+            "createServerReference\\)?\\(\"([0-9a-f]{40,42})\"[^)]*?\"(\\w+)\"\\)");
+
+    private final Map<String, String> idsByName;
+
+    private ServerActions(Map<String, String> idsByName) {
+        this.idsByName = idsByName;
+    }
+
+    /**
+     * Liest die Actions aus den Chunks der angegebenen Seiten.
+     */
+    static ServerActions discover(ProtocolTransport.Session session, String... pages) {
+        Set<String> scripts = new LinkedHashSet<>();
+        for (String page : pages) {
+            ProtocolTransport.Result result = session.get(page);
+            if (result.ok()) {
+                Matcher matcher = SCRIPT_SRC.matcher(result.body);
+                while (matcher.find()) {
+                    scripts.add(matcher.group(1));
+                }
+            }
+        }
+        Map<String, String> ids = new TreeMap<>();
+        for (String script : scripts) {
+            ProtocolTransport.Result result = session.get(script);
+            if (result.ok()) {
+                ids.putAll(parse(result.body));
+            }
+        }
+        return new ServerActions(ids);
+    }
+
+    static Map<String, String> parse(String javascript) {
+        Map<String, String> ids = new TreeMap<>();
+        Matcher matcher = SERVER_REFERENCE.matcher(javascript);
+        while (matcher.find()) {
+            ids.put(matcher.group(2), matcher.group(1));
+        }
+        return ids;
+    }
+
+    /**
+     * ID der Action {@code name}, {@code null} falls weder gefunden noch
+     * konfiguriert.
+     */
+    String id(String name) {
+        String configured = ConfigLoader.getInstance()
+                .getEnvOrDefault("PROTOCOL_ACTION_" + name.toUpperCase(Locale.ROOT), "");
+        return configured.isBlank() ? idsByName.get(name) : configured.trim();
+    }
+
+    /**
+     * Wie {@link #id(String)}, aber die Action muss existieren.
+     */
+    String require(String name) {
+        String id = id(name);
+        if (id == null) {
+            throw new IllegalStateException("Server Action '" + name + "' nicht gefunden (gefunden: "
+                    + idsByName.keySet() + "); ID über PROTOCOL_ACTION_" + name.toUpperCase(Locale.ROOT)
+                    + " setzen");
+        }
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return idsByName.keySet().toString();
+    }
+}
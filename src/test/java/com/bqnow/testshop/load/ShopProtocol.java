@@ -0,0 +1,121 @@
+package com.bqnow.testshop.load;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.utils.TestDataGenerator;
+import com.google.gson.Gson;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Login-, Warenkorb- und Checkout-Flow der App auf HTTP-Ebene.
+ *
+ * Der Warenkorb lebt im LocalStorage des Browsers; auf Protokollebene
+ * bleiben davon die Seitenaufrufe und der Checkout, der den Warenkorb und die
+ * Lieferdaten als Argumente der Server Action {@code checkout} übergibt.
+ * Der Login läuft über die Server Action {@code login}, sofern die App eine
+ * solche registriert, sonst nur über den Aufruf der Login-Seite.
+ *
+ * Für Produkt 999 lehnt der Server den Checkout ab (wie im
+ * {@code EdgeCaseTest}); dieser Flow gilt als erfolgreich, wenn die
+ * Ablehnung mit der Meldung {@value #REJECTION_MARKER} kommt. Andere Fehler
+ * (z.B. ein 404 oder ein anderer 500) zählen als Fehler.
+ */
+final class ShopProtocol {
+
+    static final String BUGGY_PRODUCT_ID = "999";
+    static final String REJECTION_MARKER = "processing failed for item " + BUGGY_PRODUCT_ID;
+
+    private static final Gson GSON = new Gson();
+    private static final Map<String, String> ACTION_HEADERS = Map.of(
+            "Accept", "text/x-component",
+            "Content-Type", "text/plain;charset=UTF-8");
+
+    private final ServerActions actions;
+
+    ShopProtocol(ServerActions actions) {
+        this.actions = actions;
+    }
+
+    /**
+     * Führt Login, Stöbern, Warenkorb und Checkout für einen Benutzer aus.
+     */
+    void run(ProtocolTransport.Session session, TestDataGenerator.CustomerData customer, boolean buggyProduct,
+            JourneyTimer timer) throws InterruptedException {
+        ConfigLoader config = ConfigLoader.getInstance();
+        Product product = buggyProduct
+                ? new Product(BUGGY_PRODUCT_ID, "Glitchy Gadget", 99.99)
+                : new Product("1", "Premium Wireless Headphones", 299.99);
+
+        timer.step("login", () -> {
+            expectOk(session.get("/login"), "GET /login");
+            String loginAction = actions.id("login");
+            if (loginAction != null) {
+                expectOk(callAction(session, "/login", loginAction,
+                        config.getTestUserName(), config.getTestUserPassword()), "Action login");
+            }
+        });
+        timer.step("browse", () -> {
+            expectOk(session.get("/"), "GET /");
+            if (buggyProduct) {
+                expectOk(session.get("/?query=" + URLEncoder.encode(product.name, StandardCharsets.UTF_8)),
+                        "GET /?query=");
+            } else {
+                expectOk(session.get("/products/" + product.id), "GET /products/" + product.id);
+            }
+        });
+        timer.step("cart", () -> expectOk(session.get("/cart"), "GET /cart"));
+        timer.step(buggyProduct ? "checkoutRejected" : "checkout", () -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", product.id);
+            item.put("name", product.name);
+            item.put("price", product.price);
+            item.put("quantity", 1);
+            Map<String, String> shipping = new LinkedHashMap<>();
+            shipping.put("name", customer.firstName + " " + customer.lastName);
+            shipping.put("address", customer.address);
+            shipping.put("city", customer.city);
+            shipping.put("zip", customer.zipCode);
+            shipping.put("email", customer.email);
+
+            ProtocolTransport.Result result = callAction(session, "/cart", actions.require("checkout"),
+                    List.of(item), shipping);
+            if (buggyProduct) {
+                if (result.body == null || !result.body.contains(REJECTION_MARKER)) {
+                    throw new IllegalStateException("Checkout von Produkt 999 nicht wie erwartet abgelehnt (HTTP "
+                            + result.status + ")");
+                }
+            } else if (!result.ok() || !result.body.contains("ORDER-")) {
+                throw new IllegalStateException("Checkout ohne Bestell-ID (HTTP " + result.status + ")");
+            }
+        });
+    }
+
+    private static ProtocolTransport.Result callAction(ProtocolTransport.Session session, String page,
+            String actionId, Object... arguments) {
+        Map<String, String> headers = new LinkedHashMap<>(ACTION_HEADERS);
+        headers.put("Next-Action", actionId);
+        return session.post(page, headers, GSON.toJson(arguments));
+    }
+
+    private static void expectOk(ProtocolTransport.Result result, String request) {
+        if (!result.ok()) {
+            throw new IllegalStateException(request + " lieferte HTTP " + result.status);
+        }
+    }
+
+    private static final class Product {
+        final String id;
+        final String name;
+        final double price;
+
+        Product(String id, String name, double price) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+        }
+    }
+}
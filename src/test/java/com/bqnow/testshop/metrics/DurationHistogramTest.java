@@ -0,0 +1,58 @@
+package com.bqnow.testshop.metrics;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Perzentile und Bucket-Grenzen des Histogramms.
+ */
+public class DurationHistogramTest {
+
+    @Test
+    public void computesPercentilesWithinBucketPrecision() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(histogram.count(), 1000);
+        assertEquals(histogram.max(), 1000);
+        assertEquals(histogram.mean(), 500.5, 0.001);
+        assertWithin(histogram.percentile(50), 500);
+        assertWithin(histogram.percentile(90), 900);
+        assertWithin(histogram.percentile(99), 990);
+        assertEquals(histogram.percentile(100), 1000);
+    }
+
+    @Test
+    public void bucketsCoverTheFullValueRange() {
+        long[] values = { 0, 1, 15, 16, 17, 1023, 1024, 123_456_789, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = DurationHistogram.bucketIndex(value);
+            assertTrue(DurationHistogram.upperBound(index) >= value, "Obergrenze zu klein für " + value);
+            if (index > 0) {
+                assertTrue(DurationHistogram.upperBound(index - 1) < value, "Falscher Bucket für " + value);
+            }
+        }
+    }
+
+    @Test
+    public void mergesHistograms() {
+        DurationHistogram a = new DurationHistogram();
+        DurationHistogram b = new DurationHistogram();
+        a.record(10);
+        b.record(5000);
+
+        a.merge(b);
+        assertEquals(a.count(), 2);
+        assertEquals(a.max(), 5000);
+        assertEquals(a.percentile(50), 10);
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.0625,
+                "Erwartet ~" + expected + ", erhalten " + actual);
+    }
+}
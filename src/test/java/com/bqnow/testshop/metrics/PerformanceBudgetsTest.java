@@ -0,0 +1,66 @@
+package com.bqnow.testshop.metrics;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Auswertung der Performance-Budgets pro Route.
+ */
+public class PerformanceBudgetsTest {
+
+    @Test
+    public void routeBudgetOverridesDefault() throws IOException {
+        PerformanceBudgets budgets = load("*.lcp_ms=2500\n*.cls=0.1\n/cart.lcp_ms=800\n");
+
+        List<String> cart = budgets.violations(vitals("/cart", 900, 0.05));
+        assertEquals(cart.size(), 1);
+        assertTrue(cart.get(0).startsWith("/cart lcp_ms="), cart.get(0));
+
+        assertTrue(budgets.violations(vitals("/", 900, 0.05)).isEmpty());
+        assertEquals(budgets.violations(vitals("/", 3000, 0.2)).size(), 2);
+    }
+
+    @Test
+    public void ignoresMetricsTheEngineDoesNotReport() throws IOException {
+        PerformanceBudgets budgets = load("/cart.lcp_ms=800\n");
+        assertTrue(budgets.violations(new WebVitals("/cart", Map.of("fcp_ms", 5000.0))).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsUnknownMetrics() throws IOException {
+        load("/cart.lcp=800\n");
+    }
+
+    @Test
+    public void derivesRouteFromUrl() {
+        assertEquals(WebVitals.routeOf("http://localhost:3000/cart?x=1"), "/cart");
+        assertEquals(WebVitals.routeOf("http://localhost:3000"), "/");
+    }
+
+    private static PerformanceBudgets load(String content) throws IOException {
+        Path file = Files.createTempFile("budgets-", ".properties");
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            return PerformanceBudgets.load(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static WebVitals vitals(String route, double lcp, double cls) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put("lcp_ms", lcp);
+        metrics.put("cls", cls);
+        return new WebVitals(route, metrics);
+    }
+}
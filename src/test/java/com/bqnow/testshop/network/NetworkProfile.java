@@ -0,0 +1,41 @@
+package com.bqnow.testshop.network;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Benannte Netzwerk-Profile: welche Ressourcen beim Laden blockiert werden.
+ */
+public enum NetworkProfile {
+    /** Alles laden (z.B. für E2E-Journeys und Performance-Messungen). */
+    FULL(Set.of(), false),
+    /** Bilder, Fonts, Medien und Third-Party-Skripte blockieren. */
+    FUNCTIONAL(Set.of("image", "font", "media"), true),
+    /** Zusätzlich Stylesheets blockieren; nur für rein logische Checks. */
+    MINIMAL(Set.of("image", "font", "media", "stylesheet"), true);
+
+    private final Set<String> blockedTypes;
+    private final boolean blockThirdParty;
+
+    NetworkProfile(Set<String> blockedTypes, boolean blockThirdParty) {
+        this.blockedTypes = blockedTypes;
+        this.blockThirdParty = blockThirdParty;
+    }
+
+    public boolean blocksType(String resourceType) {
+        return blockedTypes.contains(resourceType);
+    }
+
+    public boolean blocksThirdParty() {
+        return blockThirdParty;
+    }
+
+    public static NetworkProfile parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
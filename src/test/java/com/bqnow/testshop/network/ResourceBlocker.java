@@ -0,0 +1,175 @@
+package com.bqnow.testshop.network;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Blockiert Requests eines Contexts gemäß {@link NetworkProfile} und zählt
+ * die blockierten Requests und (soweit aus dem Asset-Cache bekannt) Bytes.
+ *
+ * Blockierte Requests erreichen den Asset-Cache nie; bekannt sind daher nur
+ * Größen von Assets der App, die ein Test mit {@link NetworkProfile#FULL}
+ * (in diesem oder einem früheren Lauf mit gleichem Image-Tag) aufgezeichnet
+ * hat. Third-Party-Requests bleiben immer ohne Größe.
+ *
+ * Zusätzliche URL-Muster (Globs, kommagetrennt) über
+ * {@code NETWORK_BLOCK_PATTERNS}; sie gelten für alle Profile außer
+ * {@link NetworkProfile#FULL}.
+ */
+public final class ResourceBlocker {
+
+    private static final List<Pattern> EXTRA_PATTERNS = parsePatterns(
+            ConfigLoader.getInstance().getEnvOrDefault("NETWORK_BLOCK_PATTERNS", ""));
+    private static final LongAdder TOTAL_REQUESTS = new LongAdder();
+    private static final LongAdder TOTAL_BYTES = new LongAdder();
+    private static final LongAdder TOTAL_UNKNOWN = new LongAdder();
+
+    private final NetworkProfile profile;
+    private final String origin;
+    // Nur auf dem Thread des Contexts verändert (Route-Handler laufen dort)
+    private final Map<String, Integer> blockedByType = new TreeMap<>();
+    private long blockedRequests;
+    private long blockedBytes;
+    private long unknownSizes;
+
+    private ResourceBlocker(NetworkProfile profile, String origin) {
+        this.profile = profile;
+        this.origin = origin;
+    }
+
+    /**
+     * Profil aus der Annotation der Testklasse, sonst aus
+     * {@code NETWORK_PROFILE} (Default {@code functional}).
+     */
+    public static NetworkProfile profileFor(Class<?> testClass) {
+        UseNetworkProfile annotation = testClass.getAnnotation(UseNetworkProfile.class);
+        if (annotation != null) {
+            return annotation.value();
+        }
+        return NetworkProfile.parse(ConfigLoader.getInstance().getEnvOrDefault("NETWORK_PROFILE", "functional"));
+    }
+
+    /**
+     * Installiert den Blocker für den Context. Muss nach anderen Route-Handlern
+     * registriert werden, damit er zuerst greift.
+     */
+    public static ResourceBlocker install(BrowserContext context, NetworkProfile profile) {
+        ResourceBlocker blocker = new ResourceBlocker(profile,
+                StaticAssetCache.originOf(ConfigLoader.getInstance().getBaseURL()));
+        if (profile != NetworkProfile.FULL) {
+            context.route("**/*", blocker::handle);
+        }
+        return blocker;
+    }
+
+    private void handle(Route route) {
+        Request request = route.request();
+        if (!shouldBlock(request)) {
+            route.fallback();
+            return;
+        }
+        route.abort("blockedbyclient");
+        blockedRequests++;
+        blockedByType.merge(request.resourceType(), 1, Integer::sum);
+        long size = StaticAssetCache.getInstance().knownSize(request.url());
+        if (size > 0) {
+            blockedBytes += size;
+        } else {
+            unknownSizes++;
+        }
+    }
+
+    private boolean shouldBlock(Request request) {
+        String url = request.url();
+        if (url.startsWith("data:") || url.startsWith("blob:")) {
+            return false;
+        }
+        if (profile.blocksType(request.resourceType())) {
+            return true;
+        }
+        // Dokumente nie blockieren, auch nicht von fremden Origins (z.B. Redirects)
+        if (profile.blocksThirdParty() && !url.startsWith(origin) && !"document".equals(request.resourceType())) {
+            return true;
+        }
+        for (Pattern pattern : EXTRA_PATTERNS) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public NetworkProfile profile() {
+        return profile;
+    }
+
+    public long blockedRequests() {
+        return blockedRequests;
+    }
+
+    /**
+     * Zusammenfassung für den Test-Report; zählt gleichzeitig in die
+     * Gesamtsumme des Laufs.
+     */
+    public String summarize() {
+        TOTAL_REQUESTS.add(blockedRequests);
+        TOTAL_BYTES.add(blockedBytes);
+        TOTAL_UNKNOWN.add(unknownSizes);
+        return String.format(Locale.ROOT,
+                "Profil: %s%nBlockierte Requests: %d%nEingesparte Bytes: %d (nur %d Requests mit aus einem full-Lauf "
+                        + "aufgezeichneter Größe, %d ohne bekannte Größe)%nNach Typ: %s%n",
+                profile, blockedRequests, blockedBytes, blockedRequests - unknownSizes, unknownSizes, blockedByType);
+    }
+
+    /**
+     * Gibt die Summe über alle Tests aus.
+     */
+    public static void report() {
+        if (TOTAL_REQUESTS.sum() > 0) {
+            System.out.printf(Locale.ROOT,
+                    "[Network] %d Requests blockiert, %.1f MB eingespart (nur bekannte Größen, %d Requests ohne Größe)%n",
+                    TOTAL_REQUESTS.sum(), TOTAL_BYTES.sum() / (1024.0 * 1024.0), TOTAL_UNKNOWN.sum());
+        }
+    }
+
+    private static List<Pattern> parsePatterns(String value) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String glob : value.split(",")) {
+            if (!glob.isBlank()) {
+                patterns.add(globToRegex(glob.trim()));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Playwright-Globs: {@code **} passt auf alles, {@code *} auf alles außer
+     * {@code /}.
+     */
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                boolean doubleStar = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                regex.append(doubleStar ? ".*" : "[^/]*");
+                if (doubleStar) {
+                    i++;
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
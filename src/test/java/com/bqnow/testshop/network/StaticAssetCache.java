@@ -0,0 +1,414 @@
+package com.bqnow.testshop.network;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Record-and-Replay-Cache für statische Assets des Shops (JS, CSS, Fonts,
+ * Bilder).
+ *
+ * Antworten werden inhaltsadressiert (SHA-256) unter
+ * {@code ASSET_CACHE_DIR/<SHOP_IMAGE_TAG>/blobs} abgelegt, ein Index ordnet
+ * URLs den Blobs zu. Im Replay werden Blobs aus einem begrenzten
+ * Heap-Cache ({@code ASSET_CACHE_MEMORY_MB}, LRU) über {@code context.route}
+ * ausgeliefert. Die Route greift nur für statische Pfade ({@code /_next/static/},
+ * {@code /_next/image}, Skript-, Style-, Font- und Bild-Endungen); Dokumente,
+ * API-Aufrufe und Server Actions gehen ohne Umweg über Java direkt an die
+ * App. Ein neuer Image-Tag bekommt ein eigenes Verzeichnis. Jeder Lauf
+ * stempelt sein Verzeichnis mit {@code last-used}; Verzeichnisse anderer
+ * Tags werden erst entfernt, wenn sie länger als
+ * {@code ASSET_CACHE_RETENTION_DAYS} (Default 7, 0 = nie) unbenutzt sind,
+ * damit parallele JVMs mit demselben {@code target/} sich keinen Cache
+ * unter den Füßen wegräumen.
+ *
+ * Modi über {@code ASSET_CACHE}: {@code off}, {@code record} (immer vom
+ * Server laden und speichern), {@code replay} (nur aus dem Cache, Misses gehen
+ * ungespeichert an den Server) und {@code auto} (Default: Treffer ausliefern,
+ * Misses aufzeichnen).
+ */
+public final class StaticAssetCache {
+
+    private static final StaticAssetCache INSTANCE = new StaticAssetCache();
+
+    private static final Set<String> STATIC_TYPES = Set.of("script", "stylesheet", "font", "image", "media");
+    // Beim Ausliefern neu berechnet bzw. nach dem Dekodieren nicht mehr gültig
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-length", "content-encoding",
+            "transfer-encoding", "connection", "date", "set-cookie");
+    private static final Set<String> STATIC_EXTENSIONS = Set.of("js", "mjs", "css", "woff", "woff2", "ttf", "otf",
+            "png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String LAST_USED = "last-used";
+
+    enum Mode {
+        OFF, RECORD, REPLAY, AUTO
+    }
+
+    private final Mode mode;
+    private final String origin;
+    private final String imageTag;
+    private final Path directory;
+    private final Path blobDirectory;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final long memoryLimit;
+    // Blob → Inhalt, access-order für LRU; Zugriff nur unter synchronized(memory)
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private volatile boolean dirty;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder servedBytes = new LongAdder();
+
+    private StaticAssetCache() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.mode = config.get(ConfigKey.choice("ASSET_CACHE", Mode.AUTO));
+        this.origin = originOf(config.getBaseURL());
+        this.imageTag = config.getEnvOrDefault("SHOP_IMAGE_TAG", "latest").replaceAll("[^A-Za-z0-9._-]", "_");
+        Path root = Paths.get(config.getEnvOrDefault("ASSET_CACHE_DIR", "target/.asset-cache"));
+        this.directory = root.resolve(imageTag);
+        this.blobDirectory = directory.resolve("blobs");
+        this.memoryLimit = config.get(ConfigKey.integer("ASSET_CACHE_MEMORY_MB", 64)) * 1024L * 1024;
+        int retentionDays = config.get(ConfigKey.integer("ASSET_CACHE_RETENTION_DAYS", 7));
+
+        if (mode != Mode.OFF) {
+            markUsed();
+            if (retentionDays > 0) {
+                pruneUnusedTags(root, imageTag, Instant.now().minus(Duration.ofDays(retentionDays)));
+            }
+            loadIndex();
+        }
+    }
+
+    public static StaticAssetCache getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Registriert den Cache für die statischen Assets der App. Alle anderen
+     * Requests erreicht die Route gar nicht erst.
+     */
+    public void attach(BrowserContext context) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        context.route(url -> isStaticAsset(origin, url), this::handle);
+    }
+
+    /**
+     * Ob die URL ein statisches Asset der App adressiert (ohne Query und
+     * Fragment geprüft).
+     */
+    static boolean isStaticAsset(String origin, String url) {
+        if (!url.startsWith(origin)) {
+            return false;
+        }
+        String path = url.substring(origin.length() - 1);
+        int end = path.length();
+        for (char separator : new char[] { '?', '#' }) {
+            int index = path.indexOf(separator);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        path = path.substring(0, end);
+        if (path.startsWith("/_next/static/") || path.equals("/_next/image")) {
+            return true;
+        }
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/')
+                && STATIC_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Größe einer aufgezeichneten Antwort in Bytes, -1 falls unbekannt.
+     */
+    public long knownSize(String url) {
+        Entry entry = index.get(url);
+        if (entry == null) {
+            return -1;
+        }
+        try {
+            return Files.size(blobDirectory.resolve(entry.sha256));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void handle(Route route) {
+        Request request = route.request();
+        if (!"GET".equals(request.method()) || !STATIC_TYPES.contains(request.resourceType())) {
+            route.fallback();
+            return;
+        }
+
+        String url = request.url();
+        Entry entry = mode == Mode.RECORD ? null : index.get(url);
+        if (entry != null) {
+            byte[] body = read(entry.sha256);
+            if (body != null) {
+                hits.increment();
+                servedBytes.add(body.length);
+                route.fulfill(new Route.FulfillOptions()
+                        .setStatus(entry.status)
+                        .setHeaders(entry.headers)
+                        .setBodyBytes(body));
+                return;
+            }
+        }
+
+        misses.increment();
+        if (mode == Mode.REPLAY) {
+            route.fallback();
+            return;
+        }
+        record(route, url);
+    }
+
+    private void record(Route route, String url) {
+        APIResponse response;
+        try {
+            response = route.fetch();
+        } catch (PlaywrightException e) {
+            route.abort();
+            return;
+        }
+        byte[] body = response.body();
+        if (response.status() == 200) {
+            try {
+                Map<String, String> headers = new HashMap<>();
+                response.headers().forEach((name, value) -> {
+                    if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                        headers.put(name, value);
+                    }
+                });
+                String sha256 = storeBlob(body);
+                index.put(url, new Entry(sha256, response.status(), headers));
+                dirty = true;
+                recorded.increment();
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("[AssetCache] Konnte " + url + " nicht speichern: " + e.getMessage());
+            }
+        }
+        route.fulfill(new Route.FulfillOptions().setResponse(response).setBodyBytes(body));
+    }
+
+    private String storeBlob(byte[] body) throws IOException {
+        String sha256 = sha256(body);
+        Path blob = blobDirectory.resolve(sha256);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blobDirectory);
+            Path temp = Files.createTempFile(blobDirectory, sha256, ".tmp");
+            Files.write(temp, body);
+            Files.move(temp, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return sha256;
+    }
+
+    /**
+     * Liefert den Blob aus dem Heap-Cache bzw. liest ihn von der Festplatte.
+     * Der gelieferte Puffer wird geteilt und darf nicht verändert werden.
+     */
+    private byte[] read(String sha256) {
+        synchronized (memory) {
+            byte[] cached = memory.get(sha256);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] body;
+        try {
+            body = Files.readAllBytes(blobDirectory.resolve(sha256));
+        } catch (IOException e) {
+            return null;
+        }
+        if (body.length <= memoryLimit) {
+            synchronized (memory) {
+                if (memory.put(sha256, body) == null) {
+                    memoryBytes += body.length;
+                }
+                Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+                while (memoryBytes > memoryLimit && eldest.hasNext()) {
+                    memoryBytes -= eldest.next().getValue().length;
+                    eldest.remove();
+                }
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Schreibt den Index und gibt die Trefferquote aus.
+     */
+    public void report() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        if (dirty) {
+            saveIndex();
+        }
+        long total = hits.sum() + misses.sum();
+        double hitRate = total == 0 ? 0 : 100.0 * hits.sum() / total;
+        System.out.printf(Locale.ROOT,
+                "[AssetCache] Modus %s, Tag %s: %d Treffer, %d Misses (Trefferquote %.1f%%), %d aufgezeichnet, %.1f MB aus dem Cache%n",
+                mode.name().toLowerCase(Locale.ROOT), imageTag, hits.sum(), misses.sum(), hitRate, recorded.sum(),
+                servedBytes.sum() / (1024.0 * 1024.0));
+    }
+
+    private void loadIndex() {
+        Path file = directory.resolve("index.json");
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Entry> loaded = GSON.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+            }.getType());
+            if (loaded != null) {
+                index.putAll(loaded);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[AssetCache] Index nicht lesbar, starte leer: " + e.getMessage());
+        }
+    }
+
+    private synchronized void saveIndex() {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "index", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(new HashMap<>(index), writer);
+            }
+            Files.move(temp, directory.resolve("index.json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("[AssetCache] Index konnte nicht gespeichert werden: " + e.getMessage());
+        }
+        markUsed();
+    }
+
+    /**
+     * Stempelt das Verzeichnis dieses Tags als benutzt.
+     */
+    private void markUsed() {
+        try {
+            Files.createDirectories(directory);
+            Path marker = directory.resolve(LAST_USED);
+            if (!Files.exists(marker)) {
+                Files.createFile(marker);
+            }
+            Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            System.err.println("[AssetCache] Nutzung nicht vermerkt: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Entfernt Verzeichnisse anderer Tags als {@code currentTag}, die seit
+     * {@code cutoff} von keinem Lauf benutzt wurden.
+     */
+    static void pruneUnusedTags(Path root, String currentTag, Instant cutoff) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> tags = Files.list(root)) {
+            tags.filter(Files::isDirectory)
+                    .filter(dir -> !dir.getFileName().toString().equals(currentTag))
+                    .filter(dir -> lastUsed(dir).isBefore(cutoff))
+                    .forEach(StaticAssetCache::deleteRecursively);
+        } catch (IOException e) {
+            System.err.println("[AssetCache] Alte Cache-Verzeichnisse nicht entfernt: " + e.getMessage());
+        }
+    }
+
+    private static Instant lastUsed(Path dir) {
+        Path marker = dir.resolve(LAST_USED);
+        try {
+            return Files.getLastModifiedTime(Files.exists(marker) ? marker : dir).toInstant();
+        } catch (IOException e) {
+            // Im Zweifel als benutzt behandeln
+            return Instant.now();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // nächster Lauf versucht es erneut
+                }
+            });
+        } catch (IOException e) {
+            // ignorieren
+        }
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String originOf(String baseURL) {
+        URI uri = URI.create(baseURL);
+        return uri.getScheme() + "://" + uri.getAuthority() + "/";
+    }
+
+    /**
+     * Index-Eintrag: URL → Blob mit Status und Headern der Originalantwort.
+     */
+    static final class Entry {
+        String sha256;
+        int status;
+        Map<String, String> headers;
+
+        Entry(String sha256, int status, Map<String, String> headers) {
+            this.sha256 = sha256;
+            this.status = status;
+            this.headers = headers;
+        }
+    }
+}
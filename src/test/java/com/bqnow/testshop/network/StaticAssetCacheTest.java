@@ -0,0 +1,66 @@
+package com.bqnow.testshop.network;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Nur statische Pfade der App laufen über die Cache-Route.
+ */
+public class StaticAssetCacheTest {
+
+    private static final String ORIGIN = "http://localhost:3000/";
+
+    @Test
+    public void matchesStaticPathsOnly() {
+        assertTrue(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "_next/static/chunks/main-abc.js"));
+        assertTrue(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "_next/static/media/font.woff2"));
+        assertTrue(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "_next/image?url=%2Fimg%2Fa.png&w=640"));
+        assertTrue(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "images/headphones.JPG?v=2"));
+        assertTrue(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "favicon.ico"));
+
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN), "Dokument");
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "cart"), "Dokument");
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "api/products"), "API-Aufruf");
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "checkout?step=.js"), "Endung nur in der Query");
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, ORIGIN + "v1.2/orders"), "Punkt im Verzeichnis");
+        assertFalse(StaticAssetCache.isStaticAsset(ORIGIN, "https://cdn.example.com/lib.js"), "Fremder Origin");
+    }
+
+    @Test
+    public void prunesOnlyTagsUnusedForTheRetentionWindow() throws IOException {
+        Path root = Files.createTempDirectory("asset-cache");
+        try {
+            Instant now = Instant.now();
+            Path current = tag(root, "v2", now.minus(Duration.ofDays(30)));
+            Path recent = tag(root, "v1", now.minus(Duration.ofDays(1)));
+            Path stale = tag(root, "v0", now.minus(Duration.ofDays(8)));
+
+            StaticAssetCache.pruneUnusedTags(root, "v2", now.minus(Duration.ofDays(7)));
+
+            assertTrue(Files.exists(current), "Eigener Tag");
+            assertTrue(Files.exists(recent), "Von einer anderen JVM benutzt");
+            assertFalse(Files.exists(stale), "Länger unbenutzt");
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static Path tag(Path root, String name, Instant lastUsed) throws IOException {
+        Path dir = Files.createDirectories(root.resolve(name));
+        Files.setLastModifiedTime(Files.createFile(dir.resolve("last-used")), FileTime.from(lastUsed));
+        return dir;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bqnow.testshop.network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Wählt das Netzwerk-Profil für eine Testklasse und überschreibt damit
+ * {@code NETWORK_PROFILE}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface UseNetworkProfile {
+    NetworkProfile value();
+}
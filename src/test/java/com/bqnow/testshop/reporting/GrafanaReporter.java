@@ -1,38 +1,118 @@
 package com.bqnow.testshop.reporting;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
 /**
  * Grafana Loki Reporter für TestNG.
- * Sendet Testergebnisse exakt im gleichen Format wie der TypeScript-Reporter.
+ * Sendet Testergebnisse in Streams mit den Labels app, environment, browser
+ * und kind ({@code test_result}, {@code context_summary},
+ * {@code test_summary}); Testname, Status und Dauer stehen in der Log-Zeile.
+ * Im Streaming-Modus (Default) werden Einzelergebnisse schon während des Laufs
+ * in Batches gesendet, die Zusammenfassung folgt am Ende.
+ * Im Shard-Modus ({@code GRAFANA_SHARD_RESULTS}) entfallen die
+ * Zusammenfassungen; sie sendet der {@link ShardMerger} einmal für alle Shards.
  */
+import com.bqnow.testshop.base.BrowserPool;
+import com.bqnow.testshop.config.ConfigKey;
 import com.bqnow.testshop.config.ConfigLoader;
-import com.google.gson.Gson;
+import com.bqnow.testshop.metrics.ActionTimings;
+import com.bqnow.testshop.metrics.DurationHistogram;
+import com.bqnow.testshop.metrics.WebVitalsRecorder;
+import com.bqnow.testshop.retry.RetryTracker;
+import com.bqnow.testshop.scheduling.TestDurations;
 
-public class GrafanaReporter implements ITestListener {
+public class GrafanaReporter implements ITestListener, ISuiteListener {
 
     private static final String DEFAULT_APP_NAME = "testshop-java";
-    private final List<TestDetail> tests = new ArrayList<>();
+    private final ResultRecorder recorder;
     private final long suiteStartTime;
+    private final LokiPayloadEncoder encoder;
+
+    // Streaming-Modus: Ergebnisse werden während des Laufs in Batches gesendet
+    private final LokiClient client;
+    private final LokiBatcher batcher;
+
+    // Shard-Modus: Zusammenfassungen übernimmt der ShardMerger
+    private final Path shardResultsFile;
+    private final ShardResults shardResults;
 
     public GrafanaReporter() {
         this.suiteStartTime = System.currentTimeMillis();
+        this.encoder = createEncoder();
+        this.client = createClient();
+        boolean streaming = !"false".equals(ConfigLoader.get("GRAFANA_STREAMING"));
+        this.batcher = client != null && streaming ? createBatcher(client) : null;
+        // Einzelergebnisse nur halten, wenn sie nicht gestreamt werden
+        this.recorder = new ResultRecorder(client != null && batcher == null);
+
+        String shardFile = ConfigLoader.get("GRAFANA_SHARD_RESULTS");
+        if (shardFile == null || shardFile.isBlank()) {
+            this.shardResultsFile = null;
+            this.shardResults = null;
+        } else {
+            this.shardResultsFile = Paths.get(shardFile);
+            this.shardResults = new ShardResults(
+                    ConfigLoader.getInstance().getEnvOrDefault("SHARD", ""), suiteStartTime);
+        }
+    }
+
+    /**
+     * Loki-Client aus {@code GRAFANA_LOKI_*}, null wenn nicht konfiguriert.
+     */
+    static LokiClient createClient() {
+        String lokiUrl = ConfigLoader.get("GRAFANA_LOKI_URL");
+        String lokiUser = ConfigLoader.get("GRAFANA_LOKI_USER");
+        String lokiKey = ConfigLoader.get("GRAFANA_LOKI_KEY");
+        if (lokiUrl == null || lokiUser == null || lokiKey == null) {
+            return null;
+        }
+        return new LokiClient(lokiUrl, lokiUser, lokiKey,
+                intConfig("GRAFANA_MAX_RETRIES", 5), intConfig("GRAFANA_RETRY_BACKOFF_MS", 500));
+    }
+
+    private LokiBatcher createBatcher(LokiClient lokiClient) {
+        LokiBatcher.Overflow overflow = "drop".equalsIgnoreCase(ConfigLoader.get("GRAFANA_OVERFLOW"))
+                ? LokiBatcher.Overflow.DROP
+                : LokiBatcher.Overflow.SPILL;
+        return new LokiBatcher(lokiClient,
+                encoder::encodeResults,
+                intConfig("GRAFANA_BATCH_SIZE", 50),
+                intConfig("GRAFANA_FLUSH_INTERVAL_MS", 5000),
+                intConfig("GRAFANA_BUFFER_SIZE", 10_000),
+                overflow,
+                Paths.get("target/grafana-spill.jsonl"));
+    }
+
+    static LokiPayloadEncoder createEncoder() {
+        // App-Namen standardisieren
+        String appName = ConfigLoader.get("GRAFANA_APP_NAME");
+        if (appName == null || appName.isEmpty()) {
+            appName = DEFAULT_APP_NAME; // Hardcoded Fallback für Konsistenz
+        }
+
+        String environment = ConfigLoader.get("TEST_ENV");
+        if (environment == null)
+            environment = "local";
+
+        String user = ConfigLoader.getInstance().getEnvOrDefault("USER", "ci-runner");
+        return new LokiPayloadEncoder(appName, environment, user);
+    }
+
+    private static int intConfig(String key, int defaultValue) {
+        return ConfigLoader.getInstance().get(ConfigKey.integer(key, defaultValue));
     }
 
     @Override
@@ -49,6 +129,10 @@ public class GrafanaReporter implements ITestListener {
 
     @Override
     public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            // Zur Wiederholung markierter Versuch; gezählt wird nur das Endergebnis
+            return;
+        }
         recordTest(result, "skipped", null);
     }
 
@@ -63,8 +147,10 @@ public class GrafanaReporter implements ITestListener {
             testName += " (" + result.getMethod().getDescription() + ")";
         }
 
-        // Error übernehmen
-        String cleanError = error;
+        // Error übernehmen; bei flaky Tests den Fehler des ersten Versuchs
+        RetryTracker retryTracker = RetryTracker.getInstance();
+        int retries = "skipped".equals(status) ? 0 : retryTracker.retriesBefore(result);
+        String cleanError = error != null || retries == 0 ? error : retryTracker.firstError(result);
 
         // Browser aus TestNG Parametern lesen (definiert in testng.xml)
         String browser = result.getTestContext().getCurrentXmlTest().getParameter("browser");
@@ -72,159 +158,204 @@ public class GrafanaReporter implements ITestListener {
             browser = "chromium"; // Fallback
         }
 
-        tests.add(new TestDetail(
+        TestDetail detail = new TestDetail(
                 testName,
                 browser,
                 status,
                 duration,
                 cleanError,
-                System.currentTimeMillis()));
+                nowNanos());
+        detail.retries = retries;
+        recorder.record(result.getTestContext().getName(), detail);
+        if (shardResults != null) {
+            shardResults.add(result.getTestContext().getName(), detail);
+        }
+        if (!"skipped".equals(status)) {
+            // Laufzeit-Historie für Longest-first und Sharding
+            TestDurations.getInstance().record(TestDurations.testKey(result.getMethod()),
+                    BrowserPool.normalize(browser), duration);
+        }
+        if (batcher != null) {
+            batcher.add(detail);
+        }
     }
 
+    /**
+     * Sendet die Ergebnisse eines {@code <test>}-Blocks und dessen
+     * Zusammenfassung (kind=context_summary).
+     */
     @Override
     public void onFinish(ITestContext context) {
-        System.out.println("\n[GrafanaReporter] 🏁 Testlauf beendet. Ergebnisse werden gesammelt...");
+        ResultRecorder.Summary summary = recorder.context(context.getName());
+        System.out.println("\n[GrafanaReporter] 🏁 " + context.getName() + " beendet: " + summary.total()
+                + " Tests (" + summary.passed + " ✅, davon " + summary.flaky + " flaky, " + summary.failed + " ❌, "
+                + summary.skipped + " ⏭️)");
 
-        String lokiUrl = ConfigLoader.get("GRAFANA_LOKI_URL");
-        String lokiUser = ConfigLoader.get("GRAFANA_LOKI_USER");
-        String lokiKey = ConfigLoader.get("GRAFANA_LOKI_KEY");
-
-        if (lokiUrl == null || lokiUser == null || lokiKey == null) {
-            System.out.println("⚠️ Grafana Env-Variablen fehlen. Upload übersprungen.");
+        if (client == null) {
             return;
         }
 
         try {
-            String payload = buildLokiPayload();
-            sendToLoki(lokiUrl, lokiUser, lokiKey, payload);
+            if (batcher != null) {
+                // Einzelergebnisse werden bereits gestreamt, nur den Rest senden
+                batcher.flush();
+            } else {
+                List<TestDetail> details = recorder.drainDetails(context.getName());
+                if (!details.isEmpty()) {
+                    sendToLoki(encoder.encodeResults(details), details.size() + " Testergebnisse");
+                }
+            }
+            if (shardResults != null) {
+                return;
+            }
+            String browser = context.getCurrentXmlTest().getParameter("browser");
+            sendToLoki(buildSummaryPayload("context_summary", browser, summary), "Zusammenfassung " + context.getName());
         } catch (Exception e) {
             System.err.println("❌ Fehler beim Senden an Grafana: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private String buildLokiPayload() {
-        // 1. App-Namen standardisieren
-        String appName = ConfigLoader.get("GRAFANA_APP_NAME");
-        if (appName == null || appName.isEmpty()) {
-            appName = DEFAULT_APP_NAME; // Hardcoded Fallback für Konsistenz
+    /**
+     * Sendet genau einmal pro Suite die Gesamt-Zusammenfassung
+     * (kind=test_summary, wichtigster Stream für das Dashboard).
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        ResultRecorder.Summary summary = recorder.suite();
+        System.out.println("[GrafanaReporter] Suite beendet: " + summary.total() + " Tests, " + summary.flaky
+                + " flaky");
+        summary.stability.forEach((browser, tests) -> tests.forEach((test, s) -> {
+            if (s.flaky > 0) {
+                System.out.printf("[GrafanaReporter]   flaky %-10s %s: %d/%d%n", browser, test, s.flaky, s.runs);
+            }
+        }));
+        summary.byBrowser.forEach((browser, h) -> System.out.printf(
+                "[GrafanaReporter]   %-10s p50=%dms p90=%dms p99=%dms max=%dms%n",
+                browser, h.percentile(50), h.percentile(90), h.percentile(99), h.max()));
+        List<ActionTimings.ActionStats> actions = ActionTimings.getInstance().snapshot();
+        printSlowestActions(actions);
+        if (shardResults != null) {
+            writeShardResults();
         }
 
-        String environment = ConfigLoader.get("TEST_ENV");
-        if (environment == null)
-            environment = "local";
-
-        System.out.println("[GrafanaReporter] Building Payload for App: " + appName + " | Env: " + environment);
-
-        Gson gson = new Gson();
-        Map<String, Object> lokiPayload = new HashMap<>();
-        List<Map<String, Object>> streams = new ArrayList<>();
-
-        // Zeitstempel generieren (Jetzt)
-        String timestampNs = String.valueOf(System.currentTimeMillis()) + "000000";
-
-        // 1. Individuelle Testergebnisse
-        tests.sort(Comparator.comparingLong(t -> t.timestamp));
-
-        for (TestDetail t : tests) {
-            Map<String, String> streamLabels = new HashMap<>();
-            streamLabels.put("app", appName);
-            streamLabels.put("environment", environment);
-            streamLabels.put("kind", "test_result");
-            streamLabels.put("test_name", t.title);
-            streamLabels.put("browser", t.browser);
-            streamLabels.put("status", t.status);
-
-            Map<String, Object> logLine = new HashMap<>();
-            logLine.put("event", "test_completed");
-            logLine.put("test_name", t.title);
-            logLine.put("browser", t.browser); // Added for parity with TS
-            logLine.put("status", t.status);
-            logLine.put("duration_ms", t.duration);
-            logLine.put("error", t.error);
-            logLine.put("user", ConfigLoader.get("USER") != null ? ConfigLoader.get("USER") : "ci-runner");
-
-            List<Object> valuesEntry = new ArrayList<>();
-            // Wir nutzen für ALLE Events den aktuellen Zeitstempel des Versands,
-            // um "Out of Order" Fehler bei Loki sicher zu vermeiden.
-            valuesEntry.add(timestampNs);
-            valuesEntry.add(gson.toJson(logLine));
-
-            Map<String, Object> streamEntry = new HashMap<>();
-            streamEntry.put("stream", streamLabels);
-            streamEntry.put("values", Collections.singletonList(valuesEntry));
-
-            streams.add(streamEntry);
+        if (client == null) {
+            System.out.println("⚠️ Grafana Env-Variablen fehlen. Upload übersprungen.");
+            return;
         }
 
-        // 2. Zusammenfassung Stream (Der wichtigste für das Dashboard!)
-        long totalDuration = System.currentTimeMillis() - suiteStartTime;
-        long passed = tests.stream().filter(t -> "passed".equals(t.status)).count();
-        long failed = tests.stream().filter(t -> "failed".equals(t.status)).count();
-        long skipped = tests.stream().filter(t -> "skipped".equals(t.status)).count();
-
-        Map<String, String> summaryLabels = new HashMap<>();
-        summaryLabels.put("app", appName);
-        summaryLabels.put("environment", environment);
-        summaryLabels.put("kind", "test_summary"); // WICHTIGER LABEL FÜR DASHBOARD QUERY
-
-        Map<String, Object> summaryLog = new HashMap<>();
-        summaryLog.put("event", "run_completed");
-        summaryLog.put("total", tests.size());
-        summaryLog.put("passed", passed);
-        summaryLog.put("failed", failed);
-        summaryLog.put("skipped", skipped);
-        summaryLog.put("duration", totalDuration);
-
-        List<Object> summaryValues = new ArrayList<>();
-        summaryValues.add(timestampNs);
-        summaryValues.add(gson.toJson(summaryLog));
-
-        Map<String, Object> summaryStream = new HashMap<>();
-        summaryStream.put("stream", summaryLabels);
-        summaryStream.put("values", Collections.singletonList(summaryValues));
-
-        streams.add(summaryStream);
-
-        lokiPayload.put("streams", streams);
-
-        return gson.toJson(lokiPayload);
+        try {
+            if (batcher != null) {
+                batcher.close();
+                System.out.println("[GrafanaReporter] " + batcher.sentCount() + " Testergebnisse gestreamt");
+            }
+            if (shardResults == null) {
+                sendToLoki(buildSummaryPayload("test_summary", null, summary), "Gesamt-Zusammenfassung");
+            }
+            sendActionTimings(actions);
+            sendWebVitals();
+        } catch (Exception e) {
+            System.err.println("❌ Fehler beim Senden an Grafana: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 
-    private void sendToLoki(String url, String user, String key, String payload) throws Exception {
-        System.out.println("📡 Sende " + tests.size() + " Testergebnisse an Grafana Loki...");
+    private void writeShardResults() {
+        try {
+            shardResults.write(shardResultsFile, System.currentTimeMillis());
+            System.out.println("[GrafanaReporter] Shard " + shardResults.shard + ": Ergebnisse nach "
+                    + shardResultsFile + " geschrieben, Zusammenfassung folgt im Merge-Schritt");
+        } catch (IOException e) {
+            System.err.println("❌ Shard-Ergebnisse nicht geschrieben: " + e.getMessage());
+        }
+    }
 
-        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
-        String auth = Base64.getEncoder().encodeToString((user + ":" + key).getBytes(StandardCharsets.UTF_8));
+    private byte[] buildSummaryPayload(String kind, String browser, ResultRecorder.Summary summary) {
+        return encoder.encodeSummary(kind, browser, summary, System.currentTimeMillis() - suiteStartTime, nowNanos());
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Basic " + auth)
-                .POST(HttpRequest.BodyPublishers.ofString(payload))
-                .build();
+    /**
+     * Exportiert die Aktions-Latenzen pro Engine (kind=action_timings).
+     */
+    private void sendActionTimings(List<ActionTimings.ActionStats> actions) {
+        Map<String, List<ActionTimings.ActionStats>> byEngine = new TreeMap<>();
+        for (ActionTimings.ActionStats stats : actions) {
+            byEngine.computeIfAbsent(stats.engine, k -> new ArrayList<>()).add(stats);
+        }
+        for (Map.Entry<String, List<ActionTimings.ActionStats>> entry : byEngine.entrySet()) {
+            byte[] payload = encoder.encodeEvent("action_timings", entry.getKey(), nowNanos(), line -> {
+                line.name("event").value("action_timings");
+                line.name("actions").beginArray();
+                for (ActionTimings.ActionStats stats : entry.getValue()) {
+                    DurationHistogram h = stats.histogram;
+                    line.beginObject();
+                    line.name("page_object").value(stats.pageObject);
+                    line.name("action").value(stats.action);
+                    line.name("target").value(stats.target);
+                    line.name("count").value(h.count());
+                    line.name("p50_ms").value(h.percentile(50) / 1000.0);
+                    line.name("p90_ms").value(h.percentile(90) / 1000.0);
+                    line.name("p99_ms").value(h.percentile(99) / 1000.0);
+                    line.name("max_ms").value(h.max() / 1000.0);
+                    line.endObject();
+                }
+                line.endArray();
+            });
+            sendToLoki(payload, "Aktions-Latenzen " + entry.getKey());
+        }
+    }
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Exportiert die Web-Vitals pro Engine und Route (kind=web_vitals).
+     */
+    private void sendWebVitals() {
+        WebVitalsRecorder webVitals = WebVitalsRecorder.getInstance();
+        for (Map.Entry<String, Map<String, DurationHistogram>> engine : webVitals.snapshotByEngine().entrySet()) {
+            byte[] payload = encoder.encodeEvent("web_vitals", engine.getKey(), nowNanos(), line -> {
+                line.name("event").value("web_vitals");
+                line.name("budget_violations").value(webVitals.violationCount());
+                line.name("metrics").beginArray();
+                for (Map.Entry<String, DurationHistogram> entry : engine.getValue().entrySet()) {
+                    int separator = entry.getKey().lastIndexOf('|');
+                    DurationHistogram h = entry.getValue();
+                    line.beginObject();
+                    line.name("route").value(entry.getKey().substring(0, separator));
+                    line.name("metric").value(entry.getKey().substring(separator + 1));
+                    line.name("count").value(h.count());
+                    line.name("p50").value(h.percentile(50) / 1000.0);
+                    line.name("p90").value(h.percentile(90) / 1000.0);
+                    line.name("max").value(h.max() / 1000.0);
+                    line.endObject();
+                }
+                line.endArray();
+            });
+            sendToLoki(payload, "Web Vitals " + engine.getKey());
+        }
+    }
 
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            System.out.println("✅ Metriken erfolgreich an Grafana gesendet!");
-        } else {
-            System.err.println("❌ Grafana API Fehler (" + response.statusCode() + "): " + response.body());
+    private static void printSlowestActions(List<ActionTimings.ActionStats> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        System.out.println("[GrafanaReporter] Langsamste Aktionen (p90):");
+        for (ActionTimings.ActionStats stats : actions.subList(0, Math.min(10, actions.size()))) {
+            DurationHistogram h = stats.histogram;
+            System.out.printf("[GrafanaReporter]   %-8s %-18s %-16s %-45s n=%-4d p90=%.0fms max=%.0fms%n",
+                    stats.engine, stats.pageObject, stats.action, stats.target, h.count(),
+                    h.percentile(90) / 1000.0, h.max() / 1000.0);
         }
     }
 
-    // Hilfsklasse
-    private static class TestDetail {
-        String title, browser, status, error;
-        long duration, timestamp;
+    static long nowNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
 
-        TestDetail(String t, String b, String s, long d, String e, long ts) {
-            this.title = t;
-            this.browser = b;
-            this.status = s;
-            this.duration = d;
-            this.error = e;
-            this.timestamp = ts;
+    private void sendToLoki(byte[] payload, String description) {
+        System.out.println("📡 Sende " + description + " an Grafana Loki...");
+
+        if (client.push(payload) == LokiClient.Outcome.SENT) {
+            System.out.println("✅ Metriken erfolgreich an Grafana gesendet!");
         }
     }
 
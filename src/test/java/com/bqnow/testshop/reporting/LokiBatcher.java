@@ -0,0 +1,250 @@
+package com.bqnow.testshop.reporting;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Sendet Testergebnisse während des Laufs in Batches an Loki.
+ *
+ * Ergebnisse landen in einem begrenzten Puffer und werden von einem
+ * Hintergrund-Thread gesendet, sobald {@code batchSize} erreicht oder das
+ * Flush-Intervall abgelaufen ist. Ist der Puffer voll oder schlägt das Senden
+ * vorübergehend fehl (5xx, Verbindung), werden Ergebnisse je nach Policy
+ * verworfen oder auf die Festplatte ausgelagert und beim nächsten Flush
+ * nachgesendet. Batches, die Loki dauerhaft ablehnt (4xx), werden mit
+ * Log-Zeile verworfen statt ausgelagert, damit sie das Nachsenden nicht
+ * endlos blockieren. Unlesbare
+ * Zeilen in der Auslagerungsdatei (z.B. nach einem Absturz) werden
+ * übersprungen.
+ */
+class LokiBatcher implements AutoCloseable {
+
+    enum Overflow {
+        DROP, SPILL
+    }
+
+    private static final Gson GSON = new Gson();
+
+    private final LokiClient client;
+    private final Function<List<TestDetail>, byte[]> encoder;
+    private final int batchSize;
+    private final BlockingQueue<TestDetail> buffer;
+    private final Overflow overflow;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+    private final ScheduledExecutorService sender;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    LokiBatcher(LokiClient client, Function<List<TestDetail>, byte[]> encoder, int batchSize,
+            long flushIntervalMillis, int capacity, Overflow overflow, Path spillFile) {
+        this.client = client;
+        this.encoder = encoder;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflow = overflow;
+        this.spillFile = spillFile;
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loki-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender.scheduleWithFixedDelay(this::drain, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Nimmt ein Ergebnis auf; blockiert den Test-Thread nie.
+     */
+    void add(TestDetail detail) {
+        if (!buffer.offer(detail)) {
+            handleOverflow(List.of(detail));
+        }
+        if (buffer.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> {
+                flushScheduled.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Sendet synchron alle gepufferten und ausgelagerten Ergebnisse.
+     */
+    void flush() {
+        try {
+            sender.submit(this::drain).get();
+        } catch (Exception e) {
+            System.err.println("[GrafanaReporter] Flush fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        sender.shutdown();
+        if (dropped.get() > 0 || spilled.get() > 0 || rejected.get() > 0) {
+            System.err.println("[GrafanaReporter] " + dropped.get() + " Ergebnisse verworfen, " + rejected.get()
+                    + " von Loki abgelehnt, " + spilled.get() + " ausgelagert");
+        }
+    }
+
+    long sentCount() {
+        return sent.get();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    long spilledCount() {
+        return spilled.get();
+    }
+
+    long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Läuft ausschließlich auf dem Sender-Thread. Fängt alle Fehler, da eine
+     * Exception die periodischen Flushes des Executors beenden würde.
+     */
+    private void drain() {
+        try {
+            List<TestDetail> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                send(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            replaySpill();
+        } catch (RuntimeException e) {
+            System.err.println("[GrafanaReporter] Senden fehlgeschlagen: " + e);
+        }
+    }
+
+    private void send(List<TestDetail> batch) {
+        switch (client.push(encoder.apply(batch))) {
+            case SENT:
+                sent.addAndGet(batch.size());
+                break;
+            case REJECTED:
+                rejected.addAndGet(batch.size());
+                System.err.println("[GrafanaReporter] Loki lehnt Batch mit " + batch.size()
+                        + " Ergebnissen dauerhaft ab, verworfen");
+                break;
+            case RETRYABLE:
+            default:
+                handleOverflow(batch);
+                break;
+        }
+    }
+
+    private void handleOverflow(List<TestDetail> details) {
+        if (overflow == Overflow.DROP || spillFile == null) {
+            dropped.addAndGet(details.size());
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillFile.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (TestDetail detail : details) {
+                        writer.write(GSON.toJson(detail));
+                        writer.newLine();
+                    }
+                }
+                spilled.addAndGet(details.size());
+            } catch (IOException e) {
+                dropped.addAndGet(details.size());
+                System.err.println("[GrafanaReporter] Auslagern fehlgeschlagen: " + e.getMessage());
+            }
+        }
+    }
+
+    private void replaySpill() {
+        if (spillFile == null) {
+            return;
+        }
+        Path sending = spillFile.resolveSibling(spillFile.getFileName() + ".sending");
+        synchronized (spillLock) {
+            try {
+                if (Files.exists(spillFile)) {
+                    if (Files.exists(sending)) {
+                        // Rest eines abgebrochenen Nachsendens nicht überschreiben
+                        try (OutputStream out = Files.newOutputStream(sending, StandardOpenOption.APPEND)) {
+                            Files.copy(spillFile, out);
+                        }
+                        Files.delete(spillFile);
+                    } else {
+                        Files.move(spillFile, sending);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("[GrafanaReporter] Ausgelagerte Ergebnisse nicht übernommen: " + e.getMessage());
+                return;
+            }
+            if (!Files.exists(sending)) {
+                return;
+            }
+        }
+
+        List<TestDetail> batch = new ArrayList<>(batchSize);
+        int malformed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(sending, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                TestDetail detail;
+                try {
+                    detail = GSON.fromJson(line, TestDetail.class);
+                } catch (RuntimeException e) {
+                    detail = null;
+                }
+                if (detail == null) {
+                    malformed++;
+                    continue;
+                }
+                batch.add(detail);
+                spilled.decrementAndGet();
+                if (batch.size() == batchSize) {
+                    send(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+            Files.deleteIfExists(sending);
+            if (malformed > 0) {
+                System.err.println("[GrafanaReporter] " + malformed + " unlesbare ausgelagerte Zeilen übersprungen");
+            }
+        } catch (IOException e) {
+            System.err.println("[GrafanaReporter] Ausgelagerte Ergebnisse nicht lesbar: " + e.getMessage());
+        }
+    }
+}
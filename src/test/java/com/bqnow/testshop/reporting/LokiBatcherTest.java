@@ -0,0 +1,167 @@
+package com.bqnow.testshop.reporting;
+
+import com.bqnow.testshop.framework.StubHttpServer;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Streaming-Upload an einen lokalen Loki-Stub.
+ */
+public class LokiBatcherTest {
+
+    private StubHttpServer loki;
+
+    @BeforeMethod
+    public void startStub() throws IOException {
+        loki = StubHttpServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        loki.close();
+    }
+
+    @Test
+    public void sendsGzippedBatchesBySize() {
+        try (LokiBatcher batcher = batcher(client(0), 2, 10, LokiBatcher.Overflow.DROP, null)) {
+            for (int i = 0; i < 5; i++) {
+                batcher.add(detail("test-" + i));
+            }
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 5);
+        }
+
+        List<StubHttpServer.RecordedRequest> requests = loki.requests();
+        assertTrue(requests.size() >= 3, "Erwartet mindestens 3 Batches, erhalten: " + requests.size());
+        assertTrue(requests.stream().allMatch(r -> "gzip".equals(r.contentEncoding)), "Body muss gzip-komprimiert sein");
+        assertEquals(countEntries(requests), 5);
+    }
+
+    @Test
+    public void retriesOnRateLimitAndServerErrors() {
+        loki.enqueueStatus(503, 429);
+        assertEquals(client(3).push("{\"streams\":[]}"), LokiClient.Outcome.SENT);
+        assertEquals(loki.requests().size(), 3);
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() {
+        loki.enqueueStatus(400);
+        assertEquals(client(3).push("{\"streams\":[]}"), LokiClient.Outcome.REJECTED);
+        assertEquals(loki.requests().size(), 1);
+    }
+
+    @Test
+    public void spillsToDiskAndReplaysWhenLokiRecovers() throws IOException {
+        Path spill = Files.createTempFile("loki-spill", ".jsonl");
+        Files.delete(spill);
+        loki.setDefaultStatus(500);
+
+        try (LokiBatcher batcher = batcher(client(0), 10, 10, LokiBatcher.Overflow.SPILL, spill)) {
+            for (int i = 0; i < 3; i++) {
+                batcher.add(detail("test-" + i));
+            }
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 0);
+            assertEquals(batcher.spilledCount(), 3);
+            assertTrue(Files.exists(spill));
+
+            loki.setDefaultStatus(204);
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 3);
+            assertEquals(batcher.spilledCount(), 0);
+        }
+        assertFalse(Files.exists(spill));
+    }
+
+    @Test
+    public void dropsRejectedBatchesInsteadOfSpilling() throws IOException {
+        Path spill = Files.createTempFile("loki-spill", ".jsonl");
+        Files.delete(spill);
+        loki.setDefaultStatus(400);
+
+        try (LokiBatcher batcher = batcher(client(3), 10, 10, LokiBatcher.Overflow.SPILL, spill)) {
+            for (int i = 0; i < 3; i++) {
+                batcher.add(detail("test-" + i));
+            }
+            batcher.flush();
+            assertEquals(batcher.rejectedCount(), 3);
+            assertEquals(batcher.spilledCount(), 0);
+            assertFalse(Files.exists(spill), "Abgelehnte Batches dürfen das Nachsenden nicht blockieren");
+
+            loki.setDefaultStatus(204);
+            batcher.add(detail("after"));
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 1);
+        }
+        assertEquals(loki.requests().size(), 2);
+    }
+
+    @Test
+    public void skipsMalformedLinesAndKeepsUnsentReplay() throws IOException {
+        Path dir = Files.createTempDirectory("loki-spill");
+        Path spill = dir.resolve("spill.jsonl");
+        Gson gson = new Gson();
+        // Abgebrochenes Nachsenden eines früheren Laufs, letzte Zeile abgeschnitten
+        Files.writeString(dir.resolve("spill.jsonl.sending"),
+                gson.toJson(detail("old-0")) + "\n{\"title\":\"old-1\",\"brow\n");
+        Files.writeString(spill, gson.toJson(detail("new-0")) + "\n");
+
+        try (LokiBatcher batcher = batcher(client(0), 10, 10, LokiBatcher.Overflow.SPILL, spill)) {
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 2);
+            batcher.add(detail("after"));
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 3, "Flushes müssen nach unlesbaren Zeilen weiterlaufen");
+        }
+        assertFalse(Files.exists(spill));
+        assertFalse(Files.exists(dir.resolve("spill.jsonl.sending")));
+    }
+
+    @Test
+    public void dropsWhenBufferIsFull() {
+        try (LokiBatcher batcher = batcher(client(0), 100, 2, LokiBatcher.Overflow.DROP, null)) {
+            for (int i = 0; i < 3; i++) {
+                batcher.add(detail("test-" + i));
+            }
+            assertEquals(batcher.droppedCount(), 1);
+            batcher.flush();
+            assertEquals(batcher.sentCount(), 2);
+        }
+    }
+
+    private LokiClient client(int maxRetries) {
+        return new LokiClient(loki.url("/loki/api/v1/push"), "user", "key", maxRetries, 10);
+    }
+
+    private static LokiBatcher batcher(LokiClient client, int batchSize, int capacity, LokiBatcher.Overflow overflow,
+            Path spill) {
+        Gson gson = new Gson();
+        return new LokiBatcher(client,
+                batch -> gson.toJson(batch.stream().map(d -> d.title).collect(Collectors.toList()))
+                        .getBytes(StandardCharsets.UTF_8),
+                batchSize, 60_000, capacity, overflow, spill);
+    }
+
+    private static int countEntries(List<StubHttpServer.RecordedRequest> requests) {
+        return requests.stream().mapToInt(r -> JsonParser.parseString(r.body).getAsJsonArray().size()).sum();
+    }
+
+    private static TestDetail detail(String title) {
+        return new TestDetail(title, "chromium", "passed", 42, null, System.nanoTime());
+    }
+}
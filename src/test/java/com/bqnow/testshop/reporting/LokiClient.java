@@ -0,0 +1,124 @@
+package com.bqnow.testshop.reporting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP-Client für die Loki Push API.
+ * Nutzt einen einzigen, wiederverwendeten {@link HttpClient}, komprimiert den
+ * Body mit gzip und wiederholt Requests bei 429/5xx mit exponentiellem
+ * Backoff.
+ */
+class LokiClient {
+
+    /**
+     * Ergebnis eines Pushs: gesendet, vorübergehend fehlgeschlagen (5xx, 429,
+     * Verbindung; später erneut versuchen) oder von Loki dauerhaft abgelehnt
+     * (übrige 4xx, z.B. zu groß oder außerhalb der Reihenfolge; Wiederholen
+     * hilft nicht).
+     */
+    enum Outcome {
+        SENT, RETRYABLE, REJECTED
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final URI uri;
+    private final String authorization;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+
+    LokiClient(String url, String user, String key, int maxRetries, long initialBackoffMillis) {
+        this.uri = URI.create(url);
+        this.authorization = "Basic "
+                + Base64.getEncoder().encodeToString((user + ":" + key).getBytes(StandardCharsets.UTF_8));
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    /**
+     * Sendet einen Payload an Loki.
+     *
+     * @return {@link Outcome#SENT} bei 2xx, {@link Outcome#REJECTED} bei
+     *         Client-Fehlern, sonst {@link Outcome#RETRYABLE} nach dem
+     *         letzten Versuch
+     */
+    Outcome push(String payload) {
+        return push(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sendet einen bereits UTF-8-kodierten Payload an Loki.
+     */
+    Outcome push(byte[] payload) {
+        byte[] body = gzip(payload);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Content-Encoding", "gzip")
+                .header("Authorization", authorization)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        long backoff = initialBackoffMillis;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            long wait = backoff;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                int status = response.statusCode();
+                if (status >= 200 && status < 300) {
+                    return Outcome.SENT;
+                }
+                if (status != 429 && status < 500) {
+                    // Client-Fehler (z.B. 400 bei ungültigem Payload) lassen sich nicht durch Wiederholen beheben
+                    System.err.println("❌ Grafana API Fehler (" + status + "): " + response.body());
+                    return Outcome.REJECTED;
+                }
+                System.err.println("[GrafanaReporter] Loki antwortet mit " + status + ", Versuch " + (attempt + 1)
+                        + "/" + (maxRetries + 1));
+                wait = Math.max(wait, retryAfterMillis(response));
+            } catch (IOException e) {
+                System.err.println("[GrafanaReporter] Verbindung zu Loki fehlgeschlagen: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.RETRYABLE;
+            }
+
+            if (attempt < maxRetries) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Outcome.RETRYABLE;
+                }
+                backoff *= 2;
+            }
+        }
+        return Outcome.RETRYABLE;
+    }
+
+    private static long retryAfterMillis(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After")
+                .filter(v -> v.matches("\\d+"))
+                .map(v -> Long.parseLong(v) * 1000)
+                .orElse(0L);
+    }
+
+    private static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("gzip fehlgeschlagen", e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,231 @@
+package com.bqnow.testshop.reporting;
+
+import com.bqnow.testshop.metrics.DurationHistogram;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kodiert Loki-Payloads direkt mit einem streamenden {@link JsonWriter} in
+ * einen wiederverwendeten Puffer.
+ *
+ * Streams werden nur nach (app, environment, browser, kind) gruppiert;
+ * Testname und Status stehen in der Log-Zeile, damit die Label-Kardinalität
+ * auf Loki-Seite klein bleibt. Jede Zeile trägt den echten Zeitstempel des
+ * Tests in Nanosekunden, pro Stream streng monoton steigend.
+ */
+final class LokiPayloadEncoder {
+
+    /**
+     * Schreibt den Inhalt einer Log-Zeile (ein JSON-Objekt).
+     */
+    @FunctionalInterface
+    interface LineWriter {
+        void write(JsonWriter line) throws IOException;
+    }
+
+    private final String app;
+    private final String environment;
+    private final String user;
+
+    // Wiederverwendete Puffer; Zugriff nur innerhalb der synchronisierten Methoden
+    private final ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream(64 * 1024);
+    private final StringWriter lineBuffer = new StringWriter(512);
+
+    // Letzter gesendeter Zeitstempel pro Stream (auch über Batches hinweg)
+    private final Map<String, Long> lastTimestamps = new HashMap<>();
+
+    LokiPayloadEncoder(String app, String environment, String user) {
+        this.app = app;
+        this.environment = environment;
+        this.user = user;
+    }
+
+    /**
+     * Kodiert einen Batch von Testergebnissen, gruppiert nach Browser.
+     */
+    synchronized byte[] encodeResults(List<TestDetail> batch) {
+        Map<String, List<TestDetail>> byBrowser = new LinkedHashMap<>();
+        for (TestDetail detail : batch) {
+            byBrowser.computeIfAbsent(detail.browser, k -> new ArrayList<>()).add(detail);
+        }
+
+        try (JsonWriter writer = beginPayload()) {
+            for (Map.Entry<String, List<TestDetail>> group : byBrowser.entrySet()) {
+                List<TestDetail> details = group.getValue();
+                details.sort(Comparator.comparingLong(d -> d.timestampNanos));
+
+                beginStream(writer, group.getKey(), "test_result");
+                for (TestDetail t : details) {
+                    writeValue(writer, group.getKey(), "test_result", t.timestampNanos, line -> {
+                        line.name("event").value("test_completed");
+                        line.name("test_name").value(t.title);
+                        line.name("browser").value(t.browser);
+                        line.name("status").value(t.status);
+                        line.name("duration_ms").value(t.duration);
+                        line.name("error").value(t.error);
+                        line.name("retries").value(t.retries);
+                        line.name("flaky").value(t.isFlaky());
+                        line.name("user").value(user);
+                    });
+                }
+                endStream(writer);
+            }
+            return endPayload(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Kodiert ein einzelnes Ereignis (z.B. die Zusammenfassung) als eigenen
+     * Stream. {@code browser} darf null sein.
+     */
+    synchronized byte[] encodeEvent(String kind, String browser, long timestampNanos, LineWriter content) {
+        try (JsonWriter writer = beginPayload()) {
+            beginStream(writer, browser, kind);
+            writeValue(writer, browser, kind, timestampNanos, content);
+            endStream(writer);
+            return endPayload(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Kodiert eine Zusammenfassung ({@code test_summary} für die Suite,
+     * {@code context_summary} pro {@code <test>}-Block).
+     */
+    byte[] encodeSummary(String kind, String browser, ResultRecorder.Summary summary, long durationMillis,
+            long timestampNanos) {
+        return encodeEvent(kind, browser, timestampNanos, line -> {
+            line.name("event").value("test_summary".equals(kind) ? "run_completed" : "context_completed");
+            line.name("context").value(summary.name);
+            line.name("total").value(summary.total());
+            line.name("passed").value(summary.passed);
+            line.name("failed").value(summary.failed);
+            line.name("skipped").value(summary.skipped);
+            line.name("flaky").value(summary.flaky);
+            line.name("flaky_rate").value(summary.flakyRate());
+            line.name("duration").value(durationMillis);
+            writeHistograms(line, "browsers", summary.byBrowser);
+            writeHistograms(line, "tests", summary.byTest);
+            writeFlakyTests(line, summary.stability);
+        });
+    }
+
+    /**
+     * Flaky-Rate pro Browser und Test; nur Tests, die in diesem Lauf
+     * mindestens einmal flaky waren.
+     */
+    private static void writeFlakyTests(JsonWriter line, Map<String, Map<String, ResultRecorder.Stability>> stability)
+            throws IOException {
+        line.name("flaky_tests").beginObject();
+        for (Map.Entry<String, Map<String, ResultRecorder.Stability>> browser : stability.entrySet()) {
+            boolean open = false;
+            for (Map.Entry<String, ResultRecorder.Stability> test : browser.getValue().entrySet()) {
+                ResultRecorder.Stability s = test.getValue();
+                if (s.flaky == 0) {
+                    continue;
+                }
+                if (!open) {
+                    line.name(browser.getKey()).beginObject();
+                    open = true;
+                }
+                line.name(test.getKey()).beginObject();
+                line.name("runs").value(s.runs);
+                line.name("flaky").value(s.flaky);
+                line.name("failed").value(s.failed);
+                line.name("flaky_rate").value(s.flakyRate());
+                line.endObject();
+            }
+            if (open) {
+                line.endObject();
+            }
+        }
+        line.endObject();
+    }
+
+    private static void writeHistograms(JsonWriter line, String name, Map<String, DurationHistogram> histograms)
+            throws IOException {
+        line.name(name).beginObject();
+        for (Map.Entry<String, DurationHistogram> entry : histograms.entrySet()) {
+            DurationHistogram h = entry.getValue();
+            line.name(entry.getKey()).beginObject();
+            line.name("count").value(h.count());
+            line.name("p50_ms").value(h.percentile(50));
+            line.name("p90_ms").value(h.percentile(90));
+            line.name("p99_ms").value(h.percentile(99));
+            line.name("max_ms").value(h.max());
+            line.endObject();
+        }
+        line.endObject();
+    }
+
+    private JsonWriter beginPayload() throws IOException {
+        payloadBuffer.reset();
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(payloadBuffer, StandardCharsets.UTF_8));
+        writer.beginObject();
+        writer.name("streams").beginArray();
+        return writer;
+    }
+
+    private byte[] endPayload(JsonWriter writer) throws IOException {
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return payloadBuffer.toByteArray();
+    }
+
+    private void beginStream(JsonWriter writer, String browser, String kind) throws IOException {
+        writer.beginObject();
+        writer.name("stream").beginObject();
+        writer.name("app").value(app);
+        writer.name("environment").value(environment);
+        if (browser != null) {
+            writer.name("browser").value(browser);
+        }
+        writer.name("kind").value(kind);
+        writer.endObject();
+        writer.name("values").beginArray();
+    }
+
+    private static void endStream(JsonWriter writer) throws IOException {
+        writer.endArray();
+        writer.endObject();
+    }
+
+    private void writeValue(JsonWriter writer, String browser, String kind, long timestampNanos, LineWriter content)
+            throws IOException {
+        lineBuffer.getBuffer().setLength(0);
+        JsonWriter line = new JsonWriter(lineBuffer);
+        line.setSerializeNulls(false);
+        line.beginObject();
+        content.write(line);
+        line.endObject();
+        line.flush();
+
+        writer.beginArray();
+        writer.value(Long.toString(nextTimestamp(browser + "|" + kind, timestampNanos)));
+        writer.value(lineBuffer.toString());
+        writer.endArray();
+    }
+
+    private long nextTimestamp(String streamKey, long timestampNanos) {
+        Long last = lastTimestamps.get(streamKey);
+        long ts = last != null && timestampNanos <= last ? last + 1 : timestampNanos;
+        lastTimestamps.put(streamKey, ts);
+        return ts;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bqnow.testshop.reporting;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Stream-Gruppierung und Zeitstempel des Loki-Payloads.
+ */
+public class LokiPayloadEncoderTest {
+
+    private final LokiPayloadEncoder encoder = new LokiPayloadEncoder("app", "ci", "runner");
+
+    @Test
+    public void groupsStreamsByBrowserOnly() {
+        JsonArray streams = streams(encoder.encodeResults(List.of(
+                detail("a", "chromium", "passed", 100),
+                detail("b", "firefox", "failed", 200),
+                detail("c", "chromium", "failed", 300))));
+
+        assertEquals(streams.size(), 2);
+        JsonObject chromium = streams.get(0).getAsJsonObject();
+        JsonObject labels = chromium.getAsJsonObject("stream");
+        assertEquals(labels.get("browser").getAsString(), "chromium");
+        assertEquals(labels.get("kind").getAsString(), "test_result");
+        assertFalse(labels.has("test_name"), "Testname darf kein Label sein");
+        assertFalse(labels.has("status"), "Status darf kein Label sein");
+        assertEquals(chromium.getAsJsonArray("values").size(), 2);
+
+        JsonObject line = JsonParser.parseString(
+                chromium.getAsJsonArray("values").get(1).getAsJsonArray().get(1).getAsString()).getAsJsonObject();
+        assertEquals(line.get("test_name").getAsString(), "c");
+        assertEquals(line.get("status").getAsString(), "failed");
+    }
+
+    @Test
+    public void keepsTimestampsMonotonicPerStream() {
+        streams(encoder.encodeResults(List.of(detail("a", "webkit", "passed", 500))));
+        JsonArray values = streams(encoder.encodeResults(List.of(
+                detail("b", "webkit", "passed", 500),
+                detail("c", "webkit", "passed", 400))))
+                .get(0).getAsJsonObject().getAsJsonArray("values");
+
+        long first = values.get(0).getAsJsonArray().get(0).getAsLong();
+        long second = values.get(1).getAsJsonArray().get(0).getAsLong();
+        assertTrue(first > 500, "Zeitstempel muss über den vorherigen Batch hinaus steigen: " + first);
+        assertTrue(second > first, "Zeitstempel müssen streng monoton steigen");
+    }
+
+    private static JsonArray streams(byte[] payload) {
+        return JsonParser.parseString(new String(payload, StandardCharsets.UTF_8))
+                .getAsJsonObject().getAsJsonArray("streams");
+    }
+
+    private static TestDetail detail(String title, String browser, String status, long timestampNanos) {
+        return new TestDetail(title, browser, status, 1, null, timestampNanos);
+    }
+}
@@ -0,0 +1,210 @@
+package com.bqnow.testshop.reporting;
+
+import com.bqnow.testshop.metrics.DurationHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sammelt Testergebnisse threadsicher, partitioniert nach {@code <test>}-Block
+ * (TestNG-Context).
+ *
+ * Zähler sind gestreifte {@link LongAdder}, Dauern landen pro Browser und pro
+ * Test in {@link DurationHistogram}s. Ein Test, der erst nach Wiederholung
+ * besteht, zählt als passed und zusätzlich als flaky, pro Browser und Test.
+ * Einzelergebnisse werden nur gehalten, wenn sie am Ende gesammelt gesendet
+ * werden müssen (kein Streaming).
+ */
+class ResultRecorder {
+
+    private final boolean retainDetails;
+    private final Map<String, ContextResults> contexts = new ConcurrentHashMap<>();
+
+    ResultRecorder(boolean retainDetails) {
+        this.retainDetails = retainDetails;
+    }
+
+    void record(String contextName, TestDetail detail) {
+        ContextResults results = contexts.computeIfAbsent(contextName, ContextResults::new);
+        results.add(detail);
+        if (retainDetails) {
+            results.details.add(detail);
+        }
+    }
+
+    /**
+     * Ergebnisse eines einzelnen Contexts (leer, falls noch keine vorliegen).
+     */
+    Summary context(String contextName) {
+        ContextResults results = contexts.get(contextName);
+        return results != null ? results.summary() : new ContextResults(contextName).summary();
+    }
+
+    /**
+     * Entnimmt die gehaltenen Einzelergebnisse eines Contexts.
+     */
+    List<TestDetail> drainDetails(String contextName) {
+        List<TestDetail> drained = new ArrayList<>();
+        ContextResults results = contexts.get(contextName);
+        if (results != null) {
+            TestDetail detail;
+            while ((detail = results.details.poll()) != null) {
+                drained.add(detail);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Zusammenfassung über alle Contexts der Suite.
+     */
+    Summary suite() {
+        Summary total = new Summary("suite");
+        for (ContextResults results : contexts.values()) {
+            total.merge(results.summary());
+        }
+        return total;
+    }
+
+    private static final class ContextResults {
+        final String name;
+        final LongAdder passed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder flaky = new LongAdder();
+        final Map<String, DurationHistogram> byBrowser = new ConcurrentHashMap<>();
+        final Map<String, Map<String, Stability>> stability = new ConcurrentHashMap<>();
+        final Map<String, DurationHistogram> byTest = new ConcurrentHashMap<>();
+        final Queue<TestDetail> details = new ConcurrentLinkedQueue<>();
+
+        ContextResults(String name) {
+            this.name = name;
+        }
+
+        void add(TestDetail detail) {
+            switch (detail.status) {
+                case "passed":
+                    passed.increment();
+                    break;
+                case "failed":
+                    failed.increment();
+                    break;
+                default:
+                    skipped.increment();
+            }
+            if (detail.isFlaky()) {
+                flaky.increment();
+            }
+            if (!"skipped".equals(detail.status)) {
+                byBrowser.computeIfAbsent(detail.browser, k -> new DurationHistogram()).record(detail.duration);
+                byTest.computeIfAbsent(detail.title, k -> new DurationHistogram()).record(detail.duration);
+                Stability s = stability.computeIfAbsent(detail.browser, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(detail.title, k -> new Stability());
+                synchronized (s) {
+                    s.record(detail);
+                }
+            }
+        }
+
+        Summary summary() {
+            Summary summary = new Summary(name);
+            summary.passed = passed.sum();
+            summary.failed = failed.sum();
+            summary.skipped = skipped.sum();
+            summary.flaky = flaky.sum();
+            byBrowser.forEach((browser, h) -> summary.histogram(summary.byBrowser, browser).merge(h));
+            stability.forEach((browser, tests) -> tests.forEach((test, s) -> {
+                synchronized (s) {
+                    summary.stability(browser, test).merge(s);
+                }
+            }));
+            byTest.forEach((test, h) -> summary.histogram(summary.byTest, test).merge(h));
+            return summary;
+        }
+    }
+
+    /**
+     * Momentaufnahme der Zähler und Histogramme (sortiert für stabile Ausgabe).
+     */
+    static final class Summary {
+        final String name;
+        long passed;
+        long failed;
+        long skipped;
+        // Teilmenge von passed
+        long flaky;
+        final Map<String, DurationHistogram> byBrowser = new TreeMap<>();
+        final Map<String, DurationHistogram> byTest = new TreeMap<>();
+        // Browser → Test → Stabilität
+        final Map<String, Map<String, Stability>> stability = new TreeMap<>();
+
+        Summary(String name) {
+            this.name = name;
+        }
+
+        long total() {
+            return passed + failed + skipped;
+        }
+
+        /**
+         * Anteil flaky Tests an den ausgeführten (nicht übersprungenen) Tests.
+         */
+        double flakyRate() {
+            long executed = passed + failed;
+            return executed == 0 ? 0 : (double) flaky / executed;
+        }
+
+        private void merge(Summary other) {
+            passed += other.passed;
+            failed += other.failed;
+            skipped += other.skipped;
+            flaky += other.flaky;
+            other.byBrowser.forEach((browser, h) -> histogram(byBrowser, browser).merge(h));
+            other.byTest.forEach((test, h) -> histogram(byTest, test).merge(h));
+            other.stability.forEach((browser, tests) -> tests.forEach((test, s) -> stability(browser, test).merge(s)));
+        }
+
+        private Stability stability(String browser, String test) {
+            return stability.computeIfAbsent(browser, k -> new TreeMap<>()).computeIfAbsent(test, k -> new Stability());
+        }
+
+        private DurationHistogram histogram(Map<String, DurationHistogram> map, String key) {
+            return map.computeIfAbsent(key, k -> new DurationHistogram());
+        }
+    }
+
+    /**
+     * Endergebnisse eines Tests auf einem Browser: Läufe, davon flaky und
+     * endgültig fehlgeschlagen.
+     */
+    static final class Stability {
+        long runs;
+        long flaky;
+        long failed;
+
+        private void record(TestDetail detail) {
+            runs++;
+            if (detail.isFlaky()) {
+                flaky++;
+            } else if ("failed".equals(detail.status)) {
+                failed++;
+            }
+        }
+
+        private void merge(Stability other) {
+            runs += other.runs;
+            flaky += other.flaky;
+            failed += other.failed;
+        }
+
+        double flakyRate() {
+            return runs == 0 ? 0 : (double) flaky / runs;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.bqnow.testshop.reporting;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Framework-Test: Zähler und Histogramme bleiben unter paralleler Aufzeichnung
+ * korrekt und werden pro Context getrennt.
+ */
+public class ResultRecorderTest {
+
+    @Test
+    public void countsCorrectlyUnderConcurrentRecording() throws InterruptedException {
+        ResultRecorder recorder = new ResultRecorder(true);
+        String[] contexts = { "Chromium Tests", "Firefox Tests", "WebKit Tests" };
+        int threadsPerContext = 4;
+        int perThread = 500;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (String context : contexts) {
+            for (int t = 0; t < threadsPerContext; t++) {
+                Thread thread = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < perThread; i++) {
+                        String status = i % 10 == 0 ? "failed" : i % 25 == 1 ? "skipped" : "passed";
+                        recorder.record(context, new TestDetail("T" + (i % 5), context, status, i, null, i));
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int perContext = threadsPerContext * perThread;
+        ResultRecorder.Summary chromium = recorder.context("Chromium Tests");
+        assertEquals(chromium.total(), perContext);
+        assertEquals(chromium.failed, threadsPerContext * 50);
+        assertEquals(chromium.skipped, threadsPerContext * 20);
+        assertEquals(chromium.byBrowser.keySet().size(), 1);
+        assertEquals(chromium.byTest.keySet().size(), 5);
+        assertEquals(recorder.drainDetails("Chromium Tests").size(), perContext);
+        assertEquals(recorder.drainDetails("Chromium Tests").size(), 0);
+
+        ResultRecorder.Summary suite = recorder.suite();
+        assertEquals(suite.total(), contexts.length * perContext);
+        assertEquals(suite.byBrowser.size(), contexts.length);
+        assertEquals(suite.byTest.get("T0").count(), (long) contexts.length * threadsPerContext * (perThread / 5));
+    }
+
+    @Test
+    public void classifiesPassAfterRetryAsFlakyPerBrowserAndTest() {
+        ResultRecorder recorder = new ResultRecorder(false);
+        recorder.record("Chromium Tests", retried("Login", "chromium", "passed", 1));
+        recorder.record("Chromium Tests", retried("Login", "chromium", "passed", 0));
+        recorder.record("Chromium Tests", retried("Cart", "chromium", "failed", 1));
+        recorder.record("Firefox Tests", retried("Login", "firefox", "passed", 0));
+
+        ResultRecorder.Summary suite = recorder.suite();
+        assertEquals(suite.passed, 3);
+        assertEquals(suite.failed, 1);
+        assertEquals(suite.flaky, 1);
+        assertEquals(suite.flakyRate(), 0.25);
+
+        ResultRecorder.Stability login = suite.stability.get("chromium").get("Login");
+        assertEquals(login.runs, 2);
+        assertEquals(login.flaky, 1);
+        assertEquals(login.flakyRate(), 0.5);
+        ResultRecorder.Stability cart = suite.stability.get("chromium").get("Cart");
+        assertEquals(cart.flaky, 0, "Endgültig fehlgeschlagen ist nicht flaky");
+        assertEquals(cart.failed, 1);
+        assertEquals(suite.stability.get("firefox").get("Login").flaky, 0);
+    }
+
+    private static TestDetail retried(String title, String browser, String status, int retries) {
+        TestDetail detail = new TestDetail(title, browser, status, 10, null, 1L);
+        detail.retries = retries;
+        return detail;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
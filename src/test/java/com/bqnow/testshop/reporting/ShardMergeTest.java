@@ -0,0 +1,49 @@
+package com.bqnow.testshop.reporting;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import io.qameta.allure.*;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Merge-Schritt nach einem Shard-Lauf (mvn test -Pmerge).
+ *
+ * Liest die Shards aus {@code SHARD_MERGE_INPUT} (Default
+ * {@code target/shards}), schreibt die zusammengeführten Allure-Ergebnisse
+ * nach {@code SHARD_MERGE_OUTPUT} (Default {@code target/allure-results})
+ * und sendet genau eine {@code test_summary} an Grafana. Schlägt fehl, wenn
+ * ein Shard fehlt oder in einem Shard Tests fehlgeschlagen sind.
+ */
+@Epic("TestShop Reporting")
+@Feature("Shard-Lauf")
+public class ShardMergeTest {
+
+    @Test
+    @Story("Shards zusammenführen")
+    @Description("Führt Allure-Ergebnisse und Grafana-Zusammenfassung aller Shards zusammen")
+    public void mergeShards() throws IOException {
+        ConfigLoader config = ConfigLoader.getInstance();
+        Path input = Paths.get(config.getEnvOrDefault("SHARD_MERGE_INPUT", "target/shards"));
+        Path output = Paths.get(config.getEnvOrDefault("SHARD_MERGE_OUTPUT", "target/allure-results"));
+
+        ShardMerger.Report report = new ShardMerger(input, output).merge();
+        System.out.println("[Merge] " + report);
+        report.problems.forEach(problem -> System.err.println("[Merge] ⚠️ " + problem));
+        assertTrue(report.isComplete(), "Shard-Lauf unvollständig, keine Zusammenfassung gesendet: " + report.problems);
+
+        LokiClient client = GrafanaReporter.createClient();
+        if (client == null) {
+            System.out.println("⚠️ Grafana Env-Variablen fehlen. Upload übersprungen.");
+        } else {
+            ShardMerger.sendSummaries(report, client, GrafanaReporter.createEncoder());
+        }
+
+        assertEquals(report.suite().failed, 0, "Fehlgeschlagene Tests in den Shards");
+    }
+}
@@ -0,0 +1,297 @@
+package com.bqnow.testshop.reporting;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Führt die Ergebnisse paralleler Shard-Läufe zusammen.
+ *
+ * Erwartet pro Shard ein Verzeichnis unter {@code shardsDir} mit
+ * {@code allure-results/} und {@value #RESULTS_FILE} ({@link ShardResults}).
+ * Allure-Ergebnisse werden in ein gemeinsames Verzeichnis kopiert; inhaltlich
+ * identische Anhänge (SHA-256) werden nur einmal übernommen und die
+ * Verweise in den Result-Dateien umgeschrieben. Aus den Shard-Ergebnissen
+ * entsteht genau eine Gesamt-Zusammenfassung für Grafana.
+ */
+final class ShardMerger {
+
+    static final String RESULTS_FILE = "grafana-shard.json";
+    static final String ALLURE_DIR = "allure-results";
+
+    private static final Gson GSON = new Gson();
+
+    private final Path shardsDir;
+    private final Path outputDir;
+
+    ShardMerger(Path shardsDir, Path outputDir) {
+        this.shardsDir = shardsDir;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Kopiert die Allure-Ergebnisse aller Shards nach {@code outputDir}
+     * (vorhandene Dateien dort werden ersetzt) und liest die
+     * Shard-Ergebnisse ein.
+     */
+    Report merge() throws IOException {
+        List<Path> shards = listShards();
+        if (shards.isEmpty()) {
+            throw new IOException("Keine Shard-Verzeichnisse unter " + shardsDir);
+        }
+        prepareOutput();
+
+        Report report = new Report();
+        Map<String, String> attachmentsByHash = new HashMap<>();
+        Set<String> written = new HashSet<>();
+        for (Path shard : shards) {
+            Path allure = shard.resolve(ALLURE_DIR);
+            if (Files.isDirectory(allure)) {
+                mergeAllure(shard.getFileName().toString(), allure, report, attachmentsByHash, written);
+            }
+            Path results = shard.resolve(RESULTS_FILE);
+            if (Files.exists(results)) {
+                report.add(ShardResults.read(results));
+            } else {
+                report.problems.add("Keine Ergebnisse in " + shard.getFileName() + " (" + RESULTS_FILE + " fehlt)");
+            }
+        }
+        report.checkCompleteness();
+        return report;
+    }
+
+    /**
+     * Sendet die Zusammenfassungen pro {@code <test>}-Block und genau eine
+     * {@code test_summary} für den gesamten Lauf.
+     */
+    static void sendSummaries(Report report, LokiClient client, LokiPayloadEncoder encoder) {
+        long duration = report.durationMillis();
+        for (Map.Entry<String, String> context : report.contextBrowsers.entrySet()) {
+            byte[] payload = encoder.encodeSummary("context_summary", context.getValue(),
+                    report.recorder.context(context.getKey()), duration, GrafanaReporter.nowNanos());
+            push(client, payload, "Zusammenfassung " + context.getKey());
+        }
+        push(client, encoder.encodeSummary("test_summary", null, report.suite(), duration, GrafanaReporter.nowNanos()),
+                "Gesamt-Zusammenfassung (" + report.shards.size() + " Shards)");
+    }
+
+    private static void push(LokiClient client, byte[] payload, String description) {
+        System.out.println("📡 Sende " + description + " an Grafana Loki...");
+        if (client.push(payload) == LokiClient.Outcome.SENT) {
+            System.out.println("✅ Metriken erfolgreich an Grafana gesendet!");
+        }
+    }
+
+    private List<Path> listShards() throws IOException {
+        if (!Files.isDirectory(shardsDir)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.list(shardsDir)) {
+            return entries.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private void prepareOutput() throws IOException {
+        Files.createDirectories(outputDir);
+        try (Stream<Path> entries = Files.list(outputDir)) {
+            for (Path file : entries.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void mergeAllure(String shardName, Path allure, Report report, Map<String, String> attachmentsByHash,
+            Set<String> written) throws IOException {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(allure)) {
+            files = entries.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        // Anhänge zuerst, damit die Umbenennungen beim Kopieren der Results feststehen
+        Map<String, String> renamed = new HashMap<>();
+        List<Path> descriptors = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith("-result.json") || name.endsWith("-container.json")) {
+                descriptors.add(file);
+            } else if (name.contains("-attachment")) {
+                String hash = sha256(file);
+                String kept = attachmentsByHash.get(hash);
+                if (kept != null) {
+                    renamed.put(name, kept);
+                    report.duplicateAttachments++;
+                    continue;
+                }
+                String target = written.contains(name) ? shardName + "-" + name : name;
+                Files.copy(file, outputDir.resolve(target));
+                attachmentsByHash.put(hash, target);
+                written.add(target);
+                if (!target.equals(name)) {
+                    renamed.put(name, target);
+                }
+                report.attachments++;
+            } else if (written.add(name)) {
+                // environment.properties, executor.json, categories.json: erster Shard gewinnt
+                Files.copy(file, outputDir.resolve(name));
+            }
+        }
+
+        for (Path file : descriptors) {
+            String name = file.getFileName().toString();
+            if (renamed.isEmpty()) {
+                Files.copy(file, outputDir.resolve(name));
+            } else {
+                JsonElement json;
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    json = JsonParser.parseReader(reader);
+                }
+                rewriteSources(json, renamed);
+                try (Writer writer = Files.newBufferedWriter(outputDir.resolve(name), StandardCharsets.UTF_8)) {
+                    GSON.toJson(json, writer);
+                }
+            }
+            if (name.endsWith("-result.json")) {
+                report.results++;
+            }
+        }
+    }
+
+    /**
+     * Ersetzt {@code source}-Verweise auf Anhänge, auch in verschachtelten Steps.
+     */
+    private static void rewriteSources(JsonElement element, Map<String, String> renamed) {
+        if (element.isJsonArray()) {
+            element.getAsJsonArray().forEach(child -> rewriteSources(child, renamed));
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            JsonElement source = object.get("source");
+            if (source != null && source.isJsonPrimitive() && renamed.containsKey(source.getAsString())) {
+                object.addProperty("source", renamed.get(source.getAsString()));
+            }
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                rewriteSources(entry.getValue(), renamed);
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ergebnis des Zusammenführens.
+     */
+    static final class Report {
+        final List<String> shards = new ArrayList<>();
+        final List<String> problems = new ArrayList<>();
+        final ResultRecorder recorder = new ResultRecorder(false);
+        // Context → Browser-Parameter (für den Stream der context_summary)
+        final Map<String, String> contextBrowsers = new TreeMap<>();
+        int results;
+        int attachments;
+        int duplicateAttachments;
+        private long startMillis = Long.MAX_VALUE;
+        private long endMillis;
+
+        private void add(ShardResults shard) {
+            shards.add(shard.shard == null ? "" : shard.shard);
+            startMillis = Math.min(startMillis, shard.startMillis);
+            endMillis = Math.max(endMillis, shard.endMillis);
+            shard.contexts.forEach((context, details) -> {
+                for (TestDetail detail : details) {
+                    recorder.record(context, detail);
+                    contextBrowsers.putIfAbsent(context, detail.browser);
+                }
+            });
+        }
+
+        /**
+         * Prüft, dass jeder Shard 1..N genau einmal vorliegt.
+         */
+        private void checkCompleteness() {
+            Set<Integer> counts = new TreeSet<>();
+            Map<Integer, Integer> seen = new TreeMap<>();
+            for (String id : shards) {
+                String[] parts = id.split("/");
+                if (parts.length != 2) {
+                    problems.add("Shard ohne Kennung i/N: '" + id + "'");
+                    continue;
+                }
+                try {
+                    counts.add(Integer.parseInt(parts[1].trim()));
+                    seen.merge(Integer.parseInt(parts[0].trim()), 1, Integer::sum);
+                } catch (NumberFormatException e) {
+                    problems.add("Ungültige Shard-Kennung '" + id + "'");
+                }
+            }
+            if (counts.size() > 1) {
+                problems.add("Shards mit unterschiedlicher Anzahl N: " + counts);
+            } else if (counts.size() == 1) {
+                int count = counts.iterator().next();
+                for (int index = 1; index <= count; index++) {
+                    Integer times = seen.get(index);
+                    if (times == null) {
+                        problems.add("Shard " + index + "/" + count + " fehlt");
+                    } else if (times > 1) {
+                        problems.add("Shard " + index + "/" + count + " liegt " + times + "-mal vor");
+                    }
+                }
+            }
+        }
+
+        boolean isComplete() {
+            return problems.isEmpty();
+        }
+
+        ResultRecorder.Summary suite() {
+            return recorder.suite();
+        }
+
+        /**
+         * Wanduhrzeit des Laufs: erster Shard-Start bis letztes Shard-Ende.
+         */
+        long durationMillis() {
+            return endMillis > startMillis ? endMillis - startMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            ResultRecorder.Summary summary = suite();
+            return shards.size() + " Shards " + shards + ": " + summary.total() + " Tests (" + summary.passed
+                    + " ✅, " + summary.failed + " ❌, " + summary.skipped + " ⏭️), " + results + " Allure-Results, "
+                    + attachments + " Anhänge, " + duplicateAttachments + " Duplikate entfernt";
+        }
+    }
+}
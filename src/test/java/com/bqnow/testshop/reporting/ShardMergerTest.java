@@ -0,0 +1,155 @@
+package com.bqnow.testshop.reporting;
+
+import com.bqnow.testshop.framework.StubHttpServer;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Zusammenführen von Shard-Ergebnissen und genau eine
+ * Gesamt-Zusammenfassung an einen lokalen Loki-Stub.
+ */
+public class ShardMergerTest {
+
+    private static final String SHARED_SCREENSHOT = "gleicher Screenshot";
+
+    private StubHttpServer loki;
+    private Path shards;
+    private Path output;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        loki = StubHttpServer.start();
+        shards = Files.createTempDirectory("shards");
+        output = Files.createTempDirectory("allure-merged");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        loki.close();
+    }
+
+    @Test
+    public void mergesAllureResultsAndDeduplicatesAttachments() throws IOException {
+        writeShard("1", "1/2", "a", SHARED_SCREENSHOT, detail("SmokeTest › a", "passed", 100));
+        writeShard("2", "2/2", "b", SHARED_SCREENSHOT, detail("SmokeTest › b", "failed", 300));
+        Files.writeString(output.resolve("stale-result.json"), "{}");
+
+        ShardMerger.Report report = new ShardMerger(shards, output).merge();
+
+        assertTrue(report.isComplete(), "Unerwartete Probleme: " + report.problems);
+        assertEquals(report.results, 2);
+        assertEquals(report.attachments, 1);
+        assertEquals(report.duplicateAttachments, 1);
+        List<String> files = files(output);
+        assertEquals(files, List.of("a-attachment.png", "a-result.json", "b-result.json", "environment.properties"));
+
+        JsonObject second = JsonParser.parseString(Files.readString(output.resolve("b-result.json")))
+                .getAsJsonObject();
+        String source = second.getAsJsonArray("steps").get(0).getAsJsonObject()
+                .getAsJsonArray("attachments").get(0).getAsJsonObject().get("source").getAsString();
+        assertEquals(source, "a-attachment.png", "Verweis muss auf den behaltenen Anhang zeigen");
+    }
+
+    @Test
+    public void sendsExactlyOneSummaryForAllShards() throws IOException {
+        writeShard("1", "1/2", "a", "eins", detail("SmokeTest › a", "passed", 100));
+        writeShard("2", "2/2", "b", "zwei", detail("SmokeTest › b", "failed", 300),
+                detail("SmokeTest › c", "skipped", 0));
+
+        ShardMerger.Report report = new ShardMerger(shards, output).merge();
+        ShardMerger.sendSummaries(report, new LokiClient(loki.url("/loki/api/v1/push"), "u", "k", 0, 1),
+                new LokiPayloadEncoder("app", "ci", "runner"));
+
+        List<JsonObject> summaries = lines("test_summary");
+        assertEquals(summaries.size(), 1);
+        JsonObject summary = summaries.get(0);
+        assertEquals(summary.get("total").getAsInt(), 3);
+        assertEquals(summary.get("passed").getAsInt(), 1);
+        assertEquals(summary.get("failed").getAsInt(), 1);
+        assertEquals(summary.get("skipped").getAsInt(), 1);
+        assertEquals(summary.getAsJsonObject("browsers").getAsJsonObject("chromium").get("count").getAsInt(), 2);
+        assertEquals(lines("context_summary").size(), 1, "Ein Context über beide Shards");
+    }
+
+    @Test
+    public void carriesFlakyTestsAcrossShards() throws IOException {
+        TestDetail flaky = detail("SmokeTest › a", "passed", 100);
+        flaky.retries = 1;
+        writeShard("1", "1/2", "a", "eins", flaky);
+        writeShard("2", "2/2", "b", "zwei", detail("SmokeTest › a", "passed", 100));
+
+        ShardMerger.Report report = new ShardMerger(shards, output).merge();
+        ShardMerger.sendSummaries(report, new LokiClient(loki.url("/loki/api/v1/push"), "u", "k", 0, 1),
+                new LokiPayloadEncoder("app", "ci", "runner"));
+
+        JsonObject summary = lines("test_summary").get(0);
+        assertEquals(summary.get("flaky").getAsInt(), 1);
+        assertEquals(summary.get("flaky_rate").getAsDouble(), 0.5);
+        JsonObject test = summary.getAsJsonObject("flaky_tests").getAsJsonObject("chromium")
+                .getAsJsonObject("SmokeTest › a");
+        assertEquals(test.get("runs").getAsInt(), 2);
+        assertEquals(test.get("flaky_rate").getAsDouble(), 0.5);
+    }
+
+    @Test
+    public void reportsMissingShard() throws IOException {
+        writeShard("1", "1/3", "a", "eins", detail("SmokeTest › a", "passed", 100));
+        writeShard("3", "3/3", "c", "drei", detail("SmokeTest › c", "passed", 100));
+
+        ShardMerger.Report report = new ShardMerger(shards, output).merge();
+
+        assertFalse(report.isComplete());
+        assertEquals(report.problems, List.of("Shard 2/3 fehlt"));
+    }
+
+    private void writeShard(String dir, String shard, String uuid, String screenshot, TestDetail... details)
+            throws IOException {
+        Path allure = Files.createDirectories(shards.resolve(dir).resolve(ShardMerger.ALLURE_DIR));
+        Files.writeString(allure.resolve(uuid + "-attachment.png"), screenshot);
+        Files.writeString(allure.resolve(uuid + "-result.json"), "{\"uuid\":\"" + uuid + "\",\"steps\":[{"
+                + "\"attachments\":[{\"name\":\"Screenshot\",\"source\":\"" + uuid + "-attachment.png\"}]}]}");
+        Files.writeString(allure.resolve("environment.properties"), "Browser=chromium");
+
+        ShardResults results = new ShardResults(shard, 1_000);
+        for (TestDetail detail : details) {
+            results.add("Chromium Tests", detail);
+        }
+        results.write(shards.resolve(dir).resolve(ShardMerger.RESULTS_FILE), 5_000);
+    }
+
+    private List<JsonObject> lines(String kind) {
+        return loki.requests().stream()
+                .flatMap(r -> JsonParser.parseString(r.body).getAsJsonObject().getAsJsonArray("streams").asList()
+                        .stream())
+                .map(stream -> stream.getAsJsonObject())
+                .filter(stream -> kind.equals(stream.getAsJsonObject("stream").get("kind").getAsString()))
+                .flatMap(stream -> stream.getAsJsonArray("values").asList().stream())
+                .map(value -> JsonParser.parseString(value.getAsJsonArray().get(1).getAsString()).getAsJsonObject())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> files(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static TestDetail detail(String title, String status, long duration) {
+        return new TestDetail(title, "chromium", status, duration, null, 1L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bqnow.testshop.reporting;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Testergebnisse eines Shards für die spätere Gesamt-Zusammenfassung.
+ *
+ * Im Shard-Modus ({@code GRAFANA_SHARD_RESULTS}) sendet der
+ * {@link GrafanaReporter} weder {@code context_summary} noch
+ * {@code test_summary}, sondern schreibt alle Ergebnisse pro
+ * {@code <test>}-Block in diese Datei. Der {@link ShardMerger} fasst die
+ * Dateien aller Shards zu genau einer Zusammenfassung zusammen.
+ */
+final class ShardResults {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Shard-Kennung i/N aus SHARD, leer bei ungeteiltem Lauf
+    String shard;
+    long startMillis;
+    long endMillis;
+    Map<String, List<TestDetail>> contexts = new TreeMap<>();
+
+    ShardResults(String shard, long startMillis) {
+        this.shard = shard;
+        this.startMillis = startMillis;
+    }
+
+    synchronized void add(String contextName, TestDetail detail) {
+        contexts.computeIfAbsent(contextName, k -> new ArrayList<>()).add(detail);
+    }
+
+    synchronized void write(Path file, long endMillis) throws IOException {
+        this.endMillis = endMillis;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    static ShardResults read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ShardResults results = GSON.fromJson(reader, ShardResults.class);
+            if (results == null || results.contexts == null) {
+                throw new IOException("Leere Shard-Ergebnisse: " + file);
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.bqnow.testshop.reporting;
+
+/**
+ * Ergebnis eines einzelnen Testfalls für den Grafana-Export.
+ */
+class TestDetail {
+    String title, browser, status, error;
+    long duration, timestampNanos;
+    // Fehlgeschlagene Versuche vor diesem Ergebnis; passed mit retries > 0 = flaky
+    int retries;
+
+    TestDetail(String t, String b, String s, long d, String e, long tsNanos) {
+        this.title = t;
+        this.browser = b;
+        this.status = s;
+        this.duration = d;
+        this.error = e;
+        this.timestampNanos = tsNanos;
+    }
+
+    boolean isFlaky() {
+        return retries > 0 && "passed".equals(status);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bqnow.testshop.retry;
+
+import com.bqnow.testshop.artifacts.ArtifactPolicy;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Wiederholt fehlgeschlagene Tests bis zu {@code RETRIES} Mal.
+ *
+ * Der fehlgeschlagene Versuch wird sofort bei der {@link ArtifactPolicy}
+ * vermerkt, damit die Wiederholung als Retry erkannt wird und in einem
+ * frischen Context mit Trace, Video und HAR läuft.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+
+    @Override
+    public boolean retry(ITestResult result) {
+        ArtifactPolicy.getInstance().recordOutcome(result);
+        boolean retry = RetryTracker.getInstance().recordFailure(result);
+        if (retry) {
+            System.out.println("[Retry] " + result.getTestClass().getRealClass().getSimpleName() + "."
+                    + result.getMethod().getMethodName() + " (" + result.getTestContext().getName()
+                    + ") fehlgeschlagen, wiederhole mit vollständigen Artefakten");
+        }
+        return retry;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bqnow.testshop.retry;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Hängt den {@link RetryAnalyzer} an alle Testmethoden, die keinen eigenen
+ * haben. Bei {@code RETRIES=0} bleibt alles unverändert.
+ */
+public class RetryListener implements IAnnotationTransformer {
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (RetryTracker.getInstance().maxRetries() == 0) {
+            return;
+        }
+        Class<?> current = annotation.getRetryAnalyzerClass();
+        if (current == null || current == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+}
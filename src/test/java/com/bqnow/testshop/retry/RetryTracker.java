@@ -0,0 +1,86 @@
+package com.bqnow.testshop.retry;
+
+import com.bqnow.testshop.artifacts.ArtifactPolicy;
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zählt fehlgeschlagene Versuche pro Testaufruf (Context, Methode,
+ * Parameter) und entscheidet über Wiederholungen.
+ *
+ * Anzahl über {@code RETRIES} (Default 1 in CI, sonst 0). Ein Test, der
+ * erst in einer Wiederholung besteht, gilt als flaky.
+ */
+public final class RetryTracker {
+
+    private static final RetryTracker INSTANCE = new RetryTracker(
+            ConfigLoader.getInstance().get(ConfigKey.integer("RETRIES", ConfigLoader.getInstance().isCI() ? 1 : 0)));
+
+    private final int maxRetries;
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+    RetryTracker(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    public static RetryTracker getInstance() {
+        return INSTANCE;
+    }
+
+    public int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Verbucht einen fehlgeschlagenen Versuch; true, solange noch
+     * Wiederholungen übrig sind.
+     */
+    boolean recordFailure(ITestResult result) {
+        Throwable throwable = result.getThrowable();
+        String error = throwable != null ? throwable.getMessage() : "Unknown error";
+        Attempts entry = attempts.computeIfAbsent(ArtifactPolicy.attemptKey(result), k -> new Attempts());
+        synchronized (entry) {
+            entry.failures++;
+            if (entry.firstError == null) {
+                entry.firstError = error;
+            }
+            return entry.failures <= maxRetries;
+        }
+    }
+
+    /**
+     * Fehlgeschlagene Versuche vor diesem Ergebnis. Bei einem endgültig
+     * fehlgeschlagenen Test zählt der letzte Versuch nicht mit.
+     */
+    public int retriesBefore(ITestResult result) {
+        Attempts entry = attempts.get(ArtifactPolicy.attemptKey(result));
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            return result.getStatus() == ITestResult.FAILURE ? Math.max(0, entry.failures - 1) : entry.failures;
+        }
+    }
+
+    /**
+     * Fehlermeldung des ersten fehlgeschlagenen Versuchs, null ohne Fehlschlag.
+     */
+    public String firstError(ITestResult result) {
+        Attempts entry = attempts.get(ArtifactPolicy.attemptKey(result));
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.firstError;
+        }
+    }
+
+    private static final class Attempts {
+        int failures;
+        String firstError;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bqnow.testshop.scheduling;
+
+import com.bqnow.testshop.base.BrowserPool;
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ordnet die Testmethoden jeder Engine nach vorhergesagter Laufzeit
+ * (längste zuerst), damit lange Tests wie {@code HappyPathTest} nicht als
+ * Nachzügler am Ende eines Workers hängen. Mit {@code SHARD=i/N}
+ * (Umgebungsvariable oder {@code -DSHARD=i/N}) läuft nur der i-te von N
+ * laufzeit-balancierten Teilen der Suite ({@link ShardPlanner}).
+ *
+ * Die Historie liefert {@link TestDurations}. Abschaltbar über
+ * {@code SCHEDULE_LONGEST_FIRST=false}; Sharding bleibt davon unberührt.
+ */
+public class ScheduleInterceptor implements IMethodInterceptor {
+
+    private final TestDurations durations = TestDurations.getInstance();
+    private final ShardPlanner.Shard shard = ShardPlanner.Shard.parse(
+            ConfigLoader.getInstance().getEnvOrDefault("SHARD", ""));
+    private final boolean longestFirst = ConfigLoader.getInstance().get(
+            ConfigKey.flag("SCHEDULE_LONGEST_FIRST", true));
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String engine = BrowserPool.normalize(context.getCurrentXmlTest().getParameter("browser"));
+        ShardPlanner<IMethodInstance> planner = new ShardPlanner<>(
+                instance -> TestDurations.testKey(instance.getMethod()),
+                instance -> durations.predicted(TestDurations.testKey(instance.getMethod()), engine));
+
+        List<IMethodInstance> scheduled = methods;
+        if (shard.isSharded()) {
+            List<List<IMethodInstance>> shards = planner.split(methods, shard.count);
+            scheduled = shards.get(shard.index - 1);
+            StringBuilder loads = new StringBuilder();
+            for (List<IMethodInstance> part : shards) {
+                loads.append(loads.length() == 0 ? "" : " / ")
+                        .append(String.format(Locale.ROOT, "%.1f s", planner.predictedMillis(part) / 1000.0));
+            }
+            System.out.println("[Schedule] " + context.getName() + ": Shard " + shard + " mit " + scheduled.size()
+                    + " von " + methods.size() + " Tests, vorhergesagt " + loads);
+        }
+        if (longestFirst) {
+            scheduled = planner.longestFirst(scheduled);
+        }
+        return scheduled;
+    }
+}
@@ -0,0 +1,138 @@
+package com.bqnow.testshop.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reihenfolge und Shard-Aufteilung anhand vorhergesagter Laufzeiten.
+ *
+ * Bekannte Tests werden nach absteigender Laufzeit jeweils dem Shard mit der
+ * geringsten bisherigen Summe zugeteilt (LPT-Verfahren); Tests ohne Historie
+ * werden danach reihum verteilt, sodass jeder Shard gleich viele davon
+ * erhält. Das Ergebnis hängt nur von den Testnamen und der Historie ab und
+ * ist damit in allen Shards eines Laufs identisch.
+ *
+ * @param <T> Testeinheit, z.B. eine TestNG-Methode
+ */
+final class ShardPlanner<T> {
+
+    private final Function<T, String> name;
+    private final Function<T, Long> predicted;
+
+    ShardPlanner(Function<T, String> name, Function<T, Long> predicted) {
+        this.name = name;
+        this.predicted = predicted;
+    }
+
+    /**
+     * Längste zuerst; unbekannte Tests mit dem Mittel der bekannten, damit
+     * sie weder ganz vorne noch ganz hinten landen.
+     */
+    List<T> longestFirst(List<T> tests) {
+        long estimate = meanKnown(tests);
+        List<T> ordered = new ArrayList<>(tests);
+        ordered.sort(Comparator.comparingLong((T test) -> {
+            Long millis = predicted.apply(test);
+            return millis != null ? millis : estimate;
+        }).reversed().thenComparing(name));
+        return ordered;
+    }
+
+    /**
+     * Teilt die Tests auf {@code count} Shards auf.
+     */
+    List<List<T>> split(List<T> tests, int count) {
+        List<List<T>> shards = new ArrayList<>(count);
+        long[] load = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        List<T> known = new ArrayList<>();
+        List<T> unknown = new ArrayList<>();
+        for (T test : tests) {
+            (predicted.apply(test) != null ? known : unknown).add(test);
+        }
+        known.sort(Comparator.comparingLong((T test) -> predicted.apply(test)).reversed().thenComparing(name));
+        for (T test : known) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(test);
+            load[lightest] += predicted.apply(test);
+        }
+        unknown.sort(Comparator.comparing(name));
+        for (int i = 0; i < unknown.size(); i++) {
+            shards.get(i % count).add(unknown.get(i));
+        }
+        return shards;
+    }
+
+    /**
+     * Summe der vorhergesagten Laufzeiten (unbekannte Tests zählen 0).
+     */
+    long predictedMillis(List<T> tests) {
+        long sum = 0;
+        for (T test : tests) {
+            Long millis = predicted.apply(test);
+            sum += millis != null ? millis : 0;
+        }
+        return sum;
+    }
+
+    private long meanKnown(List<T> tests) {
+        long sum = 0;
+        int known = 0;
+        for (T test : tests) {
+            Long millis = predicted.apply(test);
+            if (millis != null) {
+                sum += millis;
+                known++;
+            }
+        }
+        return known == 0 ? 0 : sum / known;
+    }
+
+    /**
+     * Shard {@code index} von {@code count} (1-basiert), z.B. aus
+     * {@code SHARD=2/4}.
+     */
+    static final class Shard {
+        final int index;
+        final int count;
+
+        private Shard(int index, int count) {
+            this.index = index;
+            this.count = count;
+        }
+
+        static Shard parse(String value) {
+            if (value == null || value.isBlank()) {
+                return new Shard(1, 1);
+            }
+            String[] parts = value.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("SHARD erwartet i/N, z.B. 2/4: '" + value + "'");
+            }
+            int index = Integer.parseInt(parts[0].trim());
+            int count = Integer.parseInt(parts[1].trim());
+            if (count < 1 || index < 1 || index > count) {
+                throw new IllegalArgumentException("Ungültiger Shard " + value + " (1 ≤ i ≤ N)");
+            }
+            return new Shard(index, count);
+        }
+
+        boolean isSharded() {
+            return count > 1;
+        }
+
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+}
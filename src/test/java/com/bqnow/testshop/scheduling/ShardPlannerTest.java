@@ -0,0 +1,102 @@
+package com.bqnow.testshop.scheduling;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Longest-first-Reihenfolge, Shard-Aufteilung und
+ * Laufzeit-Historie.
+ */
+public class ShardPlannerTest {
+
+    private static final Map<String, Long> HISTORY = Map.of(
+            "HappyPathTest.completePurchase", 30_000L,
+            "EdgeCaseTest.buggyProduct", 18_000L,
+            "CheckoutValidationTest.browserBlocksInvalidFormData", 12_000L,
+            "ApiOptimizationTest.blocksImages", 9_000L,
+            "SmokeTest.login", 3_000L,
+            "SmokeTest.homePage", 2_000L);
+
+    private final ShardPlanner<String> planner = new ShardPlanner<>(test -> test, HISTORY::get);
+
+    @Test
+    public void ordersLongestFirstWithUnknownTestsInTheMiddle() {
+        List<String> ordered = planner.longestFirst(List.of("SmokeTest.login", "NewTest.unknown",
+                "HappyPathTest.completePurchase", "EdgeCaseTest.buggyProduct"));
+
+        assertEquals(ordered, List.of("HappyPathTest.completePurchase", "EdgeCaseTest.buggyProduct",
+                "NewTest.unknown", "SmokeTest.login"));
+    }
+
+    @Test
+    public void balancesPredictedRuntimeAcrossShards() {
+        List<String> tests = new ArrayList<>(HISTORY.keySet());
+        List<List<String>> shards = planner.split(tests, 2);
+
+        long first = planner.predictedMillis(shards.get(0));
+        long second = planner.predictedMillis(shards.get(1));
+        assertEquals(first + second, 74_000);
+        // Bestmögliche Aufteilung: 30+3+2 gegen 18+12+9
+        assertEquals(Math.max(first, second), 39_000);
+        // Jeder Shard derselben Historie kommt zum selben Ergebnis
+        assertEquals(planner.split(new ArrayList<>(HISTORY.keySet()), 2), shards);
+    }
+
+    @Test
+    public void splitsUnknownTestsByCount() {
+        List<String> tests = List.of("HappyPathTest.completePurchase", "A.one", "B.two", "C.three", "D.four");
+        List<List<String>> shards = planner.split(tests, 2);
+
+        assertEquals(shards.get(0), List.of("HappyPathTest.completePurchase", "A.one", "C.three"));
+        assertEquals(shards.get(1), List.of("B.two", "D.four"));
+    }
+
+    @Test
+    public void parsesShardOption() {
+        ShardPlanner.Shard shard = ShardPlanner.Shard.parse("2/4");
+        assertEquals(shard.index, 2);
+        assertEquals(shard.count, 4);
+        assertTrue(shard.isSharded());
+        assertEquals(ShardPlanner.Shard.parse("").count, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsShardOutOfRange() {
+        ShardPlanner.Shard.parse("5/4");
+    }
+
+    @Test
+    public void smoothsRecordedDurationsIntoHistory() throws IOException {
+        Path file = Files.createTempFile("durations", ".json");
+        Files.delete(file);
+        try {
+            TestDurations first = new TestDurations(file);
+            first.record("HappyPathTest.completePurchase", "chromium", 10_000);
+            first.record("CheckoutValidationTest.browserBlocksInvalidFormData", "chromium", 4_000);
+            first.record("CheckoutValidationTest.browserBlocksInvalidFormData", "chromium", 5_000);
+            first.save();
+
+            TestDurations second = new TestDurations(file);
+            assertEquals(second.predicted("CheckoutValidationTest.browserBlocksInvalidFormData", "chromium"),
+                    Long.valueOf(9_000));
+            assertNull(second.predicted("HappyPathTest.completePurchase", "firefox"));
+            second.record("HappyPathTest.completePurchase", "chromium", 20_000);
+            second.save();
+
+            assertEquals(new TestDurations(file).predicted("HappyPathTest.completePurchase", "chromium"),
+                    Long.valueOf(15_000));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bqnow.testshop.scheduling;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.testng.ITestNGMethod;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeit-Historie pro Test ({@code Klasse.methode}) und Engine, gespeist
+ * aus den Ergebnissen des {@code GrafanaReporter}.
+ *
+ * Eine Testmethode zählt mit allen Aufrufen (Datenzeilen) als eine
+ * Einheit. Nach jedem Lauf wird der gleitende Mittelwert
+ * ({@code neu = (alt + aktuell) / 2}) nach {@code TEST_DURATIONS}
+ * (Default {@code .test-history/durations.json}) geschrieben; Grundlage für
+ * Longest-first-Reihenfolge und Sharding ({@link ScheduleInterceptor}).
+ */
+public final class TestDurations {
+
+    private static final TestDurations INSTANCE = new TestDurations(Paths.get(
+            ConfigLoader.getInstance().getEnvOrDefault("TEST_DURATIONS", ".test-history/durations.json")));
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path file;
+    // Engine → Test → Laufzeit in ms aus früheren Läufen
+    private final Map<String, Map<String, Long>> history;
+    private final Map<String, LongAdder> current = new ConcurrentHashMap<>();
+
+    TestDurations(Path file) {
+        this.file = file;
+        this.history = load(file);
+    }
+
+    public static TestDurations getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schlüssel einer Testmethode in Historie und Coverage-Map.
+     */
+    public static String testKey(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName();
+    }
+
+    /**
+     * Addiert die Dauer eines Aufrufs zur Laufzeit des Tests in diesem Lauf.
+     */
+    public void record(String test, String engine, long millis) {
+        current.computeIfAbsent(engine + '|' + test, k -> new LongAdder()).add(millis);
+    }
+
+    /**
+     * Vorhergesagte Laufzeit in ms, null wenn der Test auf der Engine noch
+     * nie gelaufen ist.
+     */
+    public Long predicted(String test, String engine) {
+        Map<String, Long> tests = history.get(engine);
+        return tests != null ? tests.get(test) : null;
+    }
+
+    /**
+     * Schreibt die Laufzeiten dieses Laufs in die Historie.
+     */
+    public synchronized void save() {
+        if (current.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Long>> updated = new TreeMap<>();
+        history.forEach((engine, tests) -> updated.put(engine, new TreeMap<>(tests)));
+        current.forEach((key, millis) -> {
+            int separator = key.indexOf('|');
+            updated.computeIfAbsent(key.substring(0, separator), k -> new TreeMap<>())
+                    .merge(key.substring(separator + 1), millis.sum(), (old, now) -> (old + now) / 2);
+        });
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(updated, writer);
+            }
+        } catch (IOException e) {
+            System.err.println("[Schedule] Laufzeit-Historie nicht gespeichert: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Map<String, Long>> load(Path file) {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, Long>> loaded = GSON.fromJson(reader,
+                    new TypeToken<Map<String, Map<String, Long>>>() {
+                    }.getType());
+            return loaded != null ? loaded : new TreeMap<>();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[Schedule] Laufzeit-Historie nicht lesbar: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bqnow.testshop.selection;
+
+import com.bqnow.testshop.base.BrowserPool;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.List;
+
+/**
+ * TestNG-Interceptor für die änderungsbasierte Auswahl
+ * ({@link TestSelection}); ohne {@code SELECT_CHANGED} läuft die volle Suite.
+ */
+public class ChangeSelector implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String engine = BrowserPool.normalize(context.getCurrentXmlTest().getParameter("browser"));
+        return TestSelection.getInstance().select(methods, engine);
+    }
+}
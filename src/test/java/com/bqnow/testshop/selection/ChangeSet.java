@@ -0,0 +1,109 @@
+package com.bqnow.testshop.selection;
+
+import com.bqnow.testshop.coverage.PageCoverage;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Geänderte Page Objects, Page-Object-Methoden, Routen und Testklassen,
+ * gelesen aus einer komma- oder zeilengetrennten Liste
+ * ({@code SELECT_CHANGED}).
+ *
+ * Erlaubte Einträge: {@code CartPage}, {@code CartPage.increaseQuantity},
+ * {@code /products/[id]} (bzw. {@code /products/1}), {@code SmokeTest} sowie
+ * Dateipfade wie aus {@code git diff --name-only}. Änderungen an
+ * {@code BasePage}, {@code PageSync} oder an anderen Java-Klassen außerhalb
+ * der Page Objects und Tests lassen sich nicht eingrenzen und erzwingen die
+ * volle Suite; andere Dateien (z.B. README) werden ignoriert.
+ */
+final class ChangeSet {
+
+    private static final Set<String> SHARED_PAGE_CLASSES = Set.of("BasePage", "PageSync");
+
+    final Set<String> pageObjects = new TreeSet<>();
+    final Set<String> pageMethods = new TreeSet<>();
+    final Set<String> routes = new TreeSet<>();
+    final Set<String> testClasses = new TreeSet<>();
+    private final Set<String> unscoped = new TreeSet<>();
+
+    static ChangeSet parse(String value) {
+        ChangeSet changes = new ChangeSet();
+        for (String token : value.split("[,;\\s]+")) {
+            if (!token.isBlank()) {
+                changes.add(token.trim());
+            }
+        }
+        return changes;
+    }
+
+    private void add(String token) {
+        if (token.startsWith("/")) {
+            routes.add(PageCoverage.normalizeRoute(token));
+            return;
+        }
+        if (token.contains("/") || token.contains("\\")) {
+            addFile(token.replace('\\', '/'));
+            return;
+        }
+        int dot = token.indexOf('.');
+        String className = dot < 0 ? token : token.substring(0, dot);
+        if (token.endsWith(".java") || !(className.endsWith("Page") || className.endsWith("Test")
+                || SHARED_PAGE_CLASSES.contains(className))) {
+            // Dateiname ohne Pfad, z.B. README.md oder CartPage.java
+            addFile(token);
+        } else if (className.endsWith("Test")) {
+            testClasses.add(className);
+        } else if (SHARED_PAGE_CLASSES.contains(className)) {
+            unscoped.add(token);
+        } else if (dot < 0) {
+            pageObjects.add(className);
+        } else {
+            pageMethods.add(token);
+        }
+    }
+
+    private void addFile(String path) {
+        if (!path.endsWith(".java")) {
+            return;
+        }
+        String className = path.substring(path.lastIndexOf('/') + 1, path.length() - ".java".length());
+        boolean bareName = !path.contains("/");
+        if ((bareName || path.contains("/tests/")) && className.endsWith("Test")) {
+            testClasses.add(className);
+        } else if ((bareName ? className.endsWith("Page") : path.contains("/pages/"))
+                && !SHARED_PAGE_CLASSES.contains(className)) {
+            pageObjects.add(className);
+        } else {
+            unscoped.add(path);
+        }
+    }
+
+    /**
+     * Mindestens eine Änderung betrifft potenziell alle Tests.
+     */
+    boolean requiresFullRun() {
+        return !unscoped.isEmpty();
+    }
+
+    Set<String> unscoped() {
+        return Collections.unmodifiableSet(unscoped);
+    }
+
+    boolean isEmpty() {
+        return pageObjects.isEmpty() && pageMethods.isEmpty() && routes.isEmpty() && testClasses.isEmpty()
+                && unscoped.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        Set<String> all = new TreeSet<>();
+        all.addAll(pageObjects);
+        all.addAll(pageMethods);
+        all.addAll(routes);
+        all.addAll(testClasses);
+        all.addAll(unscoped);
+        return String.join(", ", all);
+    }
+}
@@ -0,0 +1,140 @@
+package com.bqnow.testshop.selection;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Zuordnung Test → berührte Page-Object-Methoden und Routen, fortgeschrieben
+ * in {@code .test-history/coverage.json}.
+ *
+ * Tests werden als {@code Klasse.methode} geführt. Ein in diesem Lauf
+ * bestandener Test ersetzt beim ersten Aufzeichnen seinen alten Eintrag;
+ * weitere Aufrufe (Engines, Datenzeilen) werden hinzugefügt. Die Coverage
+ * fehlgeschlagener Versuche endet beim Fehler und wird deshalb nur
+ * hinzugefügt, damit ein Eintrag nie durch einen abgebrochenen Lauf
+ * schrumpft. Nicht ausgeführte Tests behalten ihren Eintrag.
+ */
+final class CoverageMap {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Map<String, Entry> tests;
+    private final Set<String> recordedThisRun = new HashSet<>();
+    private final Set<String> replacedThisRun = new HashSet<>();
+
+    private CoverageMap(Map<String, Entry> tests) {
+        this.tests = new TreeMap<>(tests);
+    }
+
+    static CoverageMap empty() {
+        return new CoverageMap(Map.of());
+    }
+
+    static CoverageMap load(Path file) {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Entry> loaded = GSON.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+            }.getType());
+            return loaded != null ? new CoverageMap(loaded) : empty();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[Selection] Coverage-Map nicht lesbar: " + e.getMessage());
+            return empty();
+        }
+    }
+
+    synchronized void save(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(tests, writer);
+            }
+        } catch (IOException e) {
+            System.err.println("[Selection] Coverage-Map nicht gespeichert: " + e.getMessage());
+        }
+    }
+
+    synchronized void record(String test, Set<String> pageMethods, Set<String> routes, boolean passed) {
+        recordedThisRun.add(test);
+        if (passed && replacedThisRun.add(test)) {
+            tests.put(test, new Entry());
+        }
+        Entry entry = tests.computeIfAbsent(test, t -> new Entry());
+        entry.pageMethods.addAll(pageMethods);
+        entry.routes.addAll(routes);
+    }
+
+    synchronized boolean isEmpty() {
+        return tests.isEmpty();
+    }
+
+    synchronized boolean recordedAnything() {
+        return !recordedThisRun.isEmpty();
+    }
+
+    synchronized boolean contains(String test) {
+        return tests.containsKey(test);
+    }
+
+    /**
+     * Ob der (bekannte) Test von den Änderungen betroffen ist. Geänderte
+     * Methoden, die kein Test je berührt hat, werden wie eine Änderung der
+     * ganzen Klasse behandelt, da nicht jede Methode über die
+     * {@code BasePage}-Hilfsmethoden interagiert.
+     */
+    synchronized boolean isAffected(String test, ChangeSet changes) {
+        Entry entry = tests.get(test);
+        if (entry == null || changes.requiresFullRun()) {
+            return true;
+        }
+        if (changes.testClasses.contains(test.substring(0, test.indexOf('.')))) {
+            return true;
+        }
+        for (String route : entry.routes) {
+            if (changes.routes.contains(route)) {
+                return true;
+            }
+        }
+        for (String method : entry.pageMethods) {
+            String pageObject = method.substring(0, method.indexOf('.'));
+            if (changes.pageObjects.contains(pageObject) || changes.pageMethods.contains(method)) {
+                return true;
+            }
+        }
+        for (String method : changes.pageMethods) {
+            String pageObject = method.substring(0, method.indexOf('.'));
+            if (!isObserved(method) && entry.pageMethods.stream().anyMatch(m -> m.startsWith(pageObject + "."))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isObserved(String method) {
+        return tests.values().stream().anyMatch(entry -> entry.pageMethods.contains(method));
+    }
+
+    /**
+     * Berührte Methoden und Routen eines Tests.
+     */
+    static final class Entry {
+        Set<String> pageMethods = new TreeSet<>();
+        Set<String> routes = new TreeSet<>();
+    }
+}
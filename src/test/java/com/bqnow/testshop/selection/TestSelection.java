@@ -0,0 +1,123 @@
+package com.bqnow.testshop.selection;
+
+import com.bqnow.testshop.config.ConfigLoader;
+import com.bqnow.testshop.coverage.PageCoverage;
+import com.bqnow.testshop.scheduling.TestDurations;
+import org.testng.IMethodInstance;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Änderungsbasierte Testauswahl.
+ *
+ * Jeder E2E-Test schreibt die berührten Page-Object-Methoden und Routen
+ * ({@link PageCoverage}) in die Coverage-Map
+ * ({@code COVERAGE_MAP}, Default {@code .test-history/coverage.json}).
+ * Ist {@code SELECT_CHANGED} gesetzt, laufen nur die davon betroffenen Tests,
+ * Tests ohne Eintrag in der Map sowie das Sicherheitsnetz
+ * {@code SELECT_SAFETY} (Default {@code SmokeTest}). Am Ende wird anhand der
+ * Laufzeit-Historie ({@link TestDurations}) berichtet, wie viel Laufzeit
+ * gegenüber der vollen Suite übersprungen wurde.
+ */
+public final class TestSelection {
+
+    private static final TestSelection INSTANCE = new TestSelection();
+
+    private final Path file;
+    private final CoverageMap coverage;
+    private final TestDurations durations = TestDurations.getInstance();
+    private final ChangeSet changes;
+    private final Set<String> safetySet = new TreeSet<>();
+    private final LongAdder selectedTests = new LongAdder();
+    private final LongAdder skippedTests = new LongAdder();
+    private final LongAdder selectedMillis = new LongAdder();
+    private final LongAdder skippedMillis = new LongAdder();
+
+    private TestSelection() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.file = Paths.get(config.getEnvOrDefault("COVERAGE_MAP", ".test-history/coverage.json"));
+        this.coverage = CoverageMap.load(file);
+        this.changes = ChangeSet.parse(config.getEnvOrDefault("SELECT_CHANGED", ""));
+        for (String entry : config.getEnvOrDefault("SELECT_SAFETY", "SmokeTest").split("[,;\\s]+")) {
+            if (!entry.isBlank()) {
+                safetySet.add(entry.trim());
+            }
+        }
+    }
+
+    public static TestSelection getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isActive() {
+        return !changes.isEmpty();
+    }
+
+    /**
+     * Filtert die Testmethoden einer Engine auf die betroffenen Tests.
+     */
+    List<IMethodInstance> select(List<IMethodInstance> methods, String engine) {
+        if (!isActive() || changes.requiresFullRun()) {
+            return methods;
+        }
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            String test = TestDurations.testKey(instance.getMethod());
+            Long predicted = durations.predicted(test, engine);
+            long millis = predicted != null ? predicted : 0;
+            if (isSafety(test) || coverage.isAffected(test, changes)) {
+                selected.add(instance);
+                selectedTests.increment();
+                selectedMillis.add(millis);
+            } else {
+                skippedTests.increment();
+                skippedMillis.add(millis);
+            }
+        }
+        return selected;
+    }
+
+    private boolean isSafety(String test) {
+        return safetySet.contains(test) || safetySet.contains(test.substring(0, test.indexOf('.')));
+    }
+
+    /**
+     * Zeichnet die Coverage eines abgeschlossenen Tests auf.
+     */
+    public void record(ITestResult result, PageCoverage.Recording recording) {
+        if (!PageCoverage.isEnabled() || result.getStatus() == ITestResult.SKIP) {
+            return;
+        }
+        coverage.record(TestDurations.testKey(result.getMethod()), recording.pageMethods(), recording.routes(),
+                result.isSuccess());
+    }
+
+    /**
+     * Schreibt die Coverage-Map fort und gibt die übersprungene Laufzeit aus.
+     */
+    public void finish() {
+        if (coverage.recordedAnything()) {
+            coverage.save(file);
+        }
+        if (!isActive()) {
+            return;
+        }
+        if (changes.requiresFullRun()) {
+            System.out.println("[Selection] Volle Suite: nicht eingrenzbare Änderungen " + changes.unscoped());
+            return;
+        }
+        long total = selectedMillis.sum() + skippedMillis.sum();
+        System.out.println(String.format(Locale.ROOT,
+                "[Selection] Geändert: %s → %d von %d Tests ausgeführt, ~%.1f s von %.1f s übersprungen (%.0f%%)",
+                changes, selectedTests.sum(), selectedTests.sum() + skippedTests.sum(), skippedMillis.sum() / 1000.0,
+                total / 1000.0, total == 0 ? 0.0 : 100.0 * skippedMillis.sum() / total));
+    }
+}
@@ -0,0 +1,132 @@
+package com.bqnow.testshop.selection;
+
+import com.bqnow.testshop.coverage.PageCoverage;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Coverage-Aufzeichnung und Auswahl betroffener Tests.
+ */
+public class TestSelectionTest {
+
+    @Test
+    public void recordsCallingPageObjectMethodAndNormalizedRoutes() {
+        PageCoverage coverage = PageCoverage.getInstance();
+        PageCoverage.Recording recording = coverage.startTest();
+        new FakeCartPage().increaseQuantity();
+        recording.route("http://localhost:3000/products/42?ref=home");
+        recording.route("about:blank");
+        coverage.finishTest();
+
+        assertEquals(recording.pageMethods(), Set.of("FakeCartPage.increaseQuantity"));
+        assertEquals(recording.routes(), Set.of("/products/[id]"));
+    }
+
+    @Test
+    public void selectsTestsTouchingChangedPageObjectsOrRoutes() {
+        CoverageMap map = sampleMap();
+
+        ChangeSet cart = ChangeSet.parse("src/main/java/com/bqnow/testshop/pages/CartPage.java");
+        assertTrue(map.isAffected("HappyPathTest.completePurchase", cart));
+        assertFalse(map.isAffected("SmokeTest.login", cart));
+
+        ChangeSet route = ChangeSet.parse("/products/7");
+        assertTrue(map.isAffected("HappyPathTest.completePurchase", route));
+        assertFalse(map.isAffected("EdgeCaseTest.buggyProduct", route));
+
+        // Unbekannte Tests laufen immer
+        assertTrue(map.isAffected("NewTest.something", cart));
+    }
+
+    @Test
+    public void methodLevelChangesFallBackToClassWhenNeverObserved() {
+        CoverageMap map = sampleMap();
+
+        assertFalse(map.isAffected("EdgeCaseTest.buggyProduct", ChangeSet.parse("CartPage.increaseQuantity")));
+        // verifyOrderSuccess interagiert nicht über BasePage und taucht nie auf
+        assertTrue(map.isAffected("EdgeCaseTest.buggyProduct", ChangeSet.parse("CartPage.verifyOrderSuccess")));
+    }
+
+    @Test
+    public void sharedFrameworkChangesRequireFullRun() {
+        assertTrue(ChangeSet.parse("BasePage").requiresFullRun());
+        assertTrue(ChangeSet.parse("src/main/java/com/bqnow/testshop/config/ConfigLoader.java").requiresFullRun());
+        assertFalse(ChangeSet.parse("README.md, CartPage").requiresFullRun());
+        assertTrue(ChangeSet.parse("README.md").isEmpty());
+        assertEquals(ChangeSet.parse("CartPage.java").pageObjects, Set.of("CartPage"));
+    }
+
+    @Test
+    public void persistsAndReplacesEntriesPerRun() throws IOException {
+        Path file = Files.createTempFile("coverage", ".json");
+        try {
+            sampleMap().save(file);
+            CoverageMap loaded = CoverageMap.load(file);
+            assertTrue(loaded.isAffected("HappyPathTest.completePurchase", ChangeSet.parse("CartPage")));
+
+            loaded.record("HappyPathTest.completePurchase", Set.of("ShopPage.navigateTo"), Set.of("/"), true);
+            assertFalse(loaded.isAffected("HappyPathTest.completePurchase", ChangeSet.parse("CartPage")));
+            assertTrue(loaded.isAffected("SmokeTest.login", ChangeSet.parse("/login")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void failedRunOnlyAddsCoverage() throws IOException {
+        Path file = Files.createTempFile("coverage", ".json");
+        try {
+            sampleMap().save(file);
+            CoverageMap loaded = CoverageMap.load(file);
+
+            // Abbruch nach dem ersten Schritt: der alte Eintrag bleibt vollständig
+            loaded.record("HappyPathTest.completePurchase", Set.of("ShopPage.navigateTo"), Set.of("/"), false);
+            assertTrue(loaded.isAffected("HappyPathTest.completePurchase", ChangeSet.parse("CartPage")));
+            assertTrue(loaded.isAffected("HappyPathTest.completePurchase", ChangeSet.parse("ShopPage.navigateTo")));
+
+            // Erst ein bestandener Versuch darf den Eintrag verkleinern
+            loaded.record("HappyPathTest.completePurchase", Set.of("ShopPage.navigateTo"), Set.of("/"), true);
+            assertFalse(loaded.isAffected("HappyPathTest.completePurchase", ChangeSet.parse("CartPage")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Ohne alten Eintrag zählt auch die Coverage eines fehlgeschlagenen Versuchs
+        CoverageMap fresh = CoverageMap.empty();
+        fresh.record("SmokeTest.login", Set.of("LoginPage.login"), Set.of("/login"), false);
+        assertTrue(fresh.contains("SmokeTest.login"));
+        assertTrue(fresh.recordedAnything());
+    }
+
+    private static CoverageMap sampleMap() {
+        CoverageMap map = CoverageMap.empty();
+        map.record("HappyPathTest.completePurchase",
+                Set.of("CartPage.increaseQuantity", "CartPage.navigateTo", "ShopPage.openProductDetails"),
+                Set.of("/", "/cart", "/products/[id]"), true);
+        map.record("EdgeCaseTest.buggyProduct",
+                Set.of("CartPage.proceedToCheckout", "ShopPage.searchProduct"), Set.of("/", "/cart"), true);
+        map.record("SmokeTest.login", Set.of("LoginPage.login"), Set.of("/login", "/"), true);
+        return map;
+    }
+
+    // Nachbildung von BasePage.timed: die Interaktion liegt in der Basisklasse
+    private static class FakeBasePage {
+        void click() {
+            PageCoverage.getInstance().recordInteraction(getClass());
+        }
+    }
+
+    private static final class FakeCartPage extends FakeBasePage {
+        void increaseQuantity() {
+            click();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bqnow.testshop.state;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Misst die Setup-Zeit pro Test, getrennt nach State-Injection und UI-Setup.
+ *
+ * Die Mediane werden in {@code .test-history/setup-times.json} fortgeschrieben;
+ * ein Lauf mit {@code STATE_INJECTION=false} liefert so die UI-Referenz, gegen
+ * die spätere Läufe die gesparte Zeit berichten.
+ */
+public final class SetupTimings {
+
+    private static final SetupTimings INSTANCE = new SetupTimings();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String INJECTED = "injected";
+    private static final String UI = "ui";
+
+    private final Path file = Paths.get(".test-history/setup-times.json");
+    // Modus → Test → Median in ms aus früheren Läufen
+    private final Map<String, Map<String, Long>> history;
+    private final Map<String, List<Long>> current = new ConcurrentHashMap<>();
+
+    private SetupTimings() {
+        this.history = load();
+    }
+
+    public static SetupTimings getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Zeichnet die Setup-Zeit eines Tests auf.
+     *
+     * @return Beschreibung für den Test-Report
+     */
+    public String record(String test, boolean injected, long millis) {
+        String mode = injected ? INJECTED : UI;
+        current.computeIfAbsent(mode + '|' + test, k -> Collections.synchronizedList(new ArrayList<>())).add(millis);
+
+        Long reference = history.getOrDefault(UI, Map.of()).get(test);
+        if (!injected || reference == null) {
+            return "Setup (" + mode + "): " + millis + " ms";
+        }
+        return "Setup (State-Injection): " + millis + " ms, UI-Referenz: " + reference + " ms, gespart: "
+                + (reference - millis) + " ms";
+    }
+
+    /**
+     * Gibt die gesparte Zeit pro Test aus und schreibt die Mediane fort.
+     */
+    public synchronized void report() {
+        if (current.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Long>> updated = new TreeMap<>();
+        history.forEach((mode, tests) -> updated.put(mode, new TreeMap<>(tests)));
+        current.forEach((key, values) -> {
+            int separator = key.indexOf('|');
+            updated.computeIfAbsent(key.substring(0, separator), k -> new TreeMap<>())
+                    .put(key.substring(separator + 1), median(values));
+        });
+
+        long totalSaved = 0;
+        Map<String, Long> injected = updated.getOrDefault(INJECTED, Map.of());
+        Map<String, Long> ui = updated.getOrDefault(UI, Map.of());
+        for (Map.Entry<String, Long> entry : injected.entrySet()) {
+            Long reference = ui.get(entry.getKey());
+            if (reference != null && current.containsKey(INJECTED + '|' + entry.getKey())) {
+                long saved = reference - entry.getValue();
+                long runs = current.get(INJECTED + '|' + entry.getKey()).size();
+                totalSaved += saved * runs;
+                System.out.println("[StateInjector] " + entry.getKey() + ": Setup " + entry.getValue() + " ms statt "
+                        + reference + " ms (UI), " + saved + " ms gespart");
+            }
+        }
+        if (totalSaved != 0) {
+            System.out.println("[StateInjector] Gesamt gespart: " + totalSaved + " ms");
+        }
+        save(updated);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private Map<String, Map<String, Long>> load() {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, Long>> loaded = GSON.fromJson(reader,
+                    new TypeToken<Map<String, Map<String, Long>>>() {
+                    }.getType());
+            return loaded != null ? loaded : new TreeMap<>();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[StateInjector] Setup-Historie nicht lesbar: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private void save(Map<String, Map<String, Long>> data) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(data, writer);
+            }
+        } catch (IOException e) {
+            System.err.println("[StateInjector] Setup-Historie nicht gespeichert: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bqnow.testshop.state;
+
+import com.bqnow.testshop.config.ConfigKey;
+import com.bqnow.testshop.config.ConfigLoader;
+import com.google.gson.Gson;
+import com.microsoft.playwright.BrowserContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baut Anwendungs-State (Token, Warenkorb) auf und installiert ihn per
+ * {@link BrowserContext#addInitScript(String)} vor der ersten Navigation.
+ *
+ * Das Skript schreibt den State nur beim ersten Dokument der App-Origin pro
+ * Tab in den LocalStorage, damit spätere Änderungen der App (z.B. geänderte
+ * Mengen) bei weiteren Navigationen erhalten bleiben.
+ *
+ * Abschaltbar über {@code STATE_INJECTION=false}; Tests nutzen dann ihren
+ * UI-Setup-Pfad (Referenz für die gesparte Setup-Zeit).
+ */
+public final class StateInjector {
+
+    private static final boolean ENABLED = ConfigLoader.getInstance().get(ConfigKey.flag("STATE_INJECTION", true));
+    private static final Gson GSON = new Gson();
+
+    private String token;
+    private final List<CartItem> cart = new ArrayList<>();
+
+    private StateInjector() {
+    }
+
+    public static StateInjector create() {
+        return new StateInjector();
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Setzt den Session-Token (LocalStorage {@code token}).
+     */
+    public StateInjector token(String token) {
+        this.token = token;
+        return this;
+    }
+
+    /**
+     * Fügt einen Artikel hinzu; gleiche IDs werden zusammengefasst.
+     */
+    public StateInjector cartItem(String id, String name, double price, int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Menge muss mindestens 1 sein: " + quantity);
+        }
+        for (CartItem item : cart) {
+            if (item.id.equals(id)) {
+                item.quantity += quantity;
+                return this;
+            }
+        }
+        cart.add(new CartItem(id, name, price, quantity));
+        return this;
+    }
+
+    /**
+     * Installiert den State im Context; wirkt ab der nächsten Navigation.
+     */
+    public void install(BrowserContext context) {
+        context.addInitScript(script(ConfigLoader.getInstance().getBaseURL()));
+    }
+
+    String script(String baseURL) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (token != null) {
+            entries.put("token", token);
+        }
+        if (!cart.isEmpty()) {
+            entries.put("cart", GSON.toJson(cart));
+        }
+        return "(() => {"
+                + "  if (location.origin !== new URL(" + GSON.toJson(baseURL) + ").origin) return;"
+                + "  if (sessionStorage.getItem('__stateInjected')) return;"
+                + "  const entries = " + GSON.toJson(entries) + ";"
+                + "  for (const [key, value] of Object.entries(entries)) localStorage.setItem(key, value);"
+                + "  sessionStorage.setItem('__stateInjected', '1');"
+                + "})();";
+    }
+
+    /**
+     * Warenkorb-Eintrag im Format der App ({@code localStorage.cart}).
+     */
+    static final class CartItem {
+        final String id;
+        final String name;
+        final double price;
+        int quantity;
+
+        CartItem(String id, String name, double price, int quantity) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.quantity = quantity;
+        }
+    }
+}
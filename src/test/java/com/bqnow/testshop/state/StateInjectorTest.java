@@ -0,0 +1,51 @@
+package com.bqnow.testshop.state;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Aufbau des Init-Scripts für die State-Injection.
+ */
+public class StateInjectorTest {
+
+    @Test
+    public void composesTokenAndMergedCartItems() {
+        String script = StateInjector.create()
+                .token("abc")
+                .cartItem("1", "Headphones", 299.99, 1)
+                .cartItem("2", "Cable \"USB-C\"", 9.5, 2)
+                .cartItem("1", "Headphones", 299.99, 2)
+                .script("http://localhost:3000");
+
+        JsonObject entries = JsonParser.parseString(extractEntries(script)).getAsJsonObject();
+        assertEquals(entries.get("token").getAsString(), "abc");
+
+        JsonArray cart = JsonParser.parseString(entries.get("cart").getAsString()).getAsJsonArray();
+        assertEquals(cart.size(), 2);
+        assertEquals(cart.get(0).getAsJsonObject().get("quantity").getAsInt(), 3);
+        assertEquals(cart.get(1).getAsJsonObject().get("name").getAsString(), "Cable \"USB-C\"");
+        assertTrue(script.contains("new URL(\"http://localhost:3000\").origin"));
+    }
+
+    @Test
+    public void omitsUnsetEntries() {
+        String script = StateInjector.create().cartItem("1", "Headphones", 299.99, 1).script("http://app:3000");
+        assertFalse(JsonParser.parseString(extractEntries(script)).getAsJsonObject().has("token"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsEmptyQuantities() {
+        StateInjector.create().cartItem("1", "Headphones", 299.99, 0);
+    }
+
+    private static String extractEntries(String script) {
+        int start = script.indexOf("const entries = ") + "const entries = ".length();
+        return script.substring(start, script.indexOf(";  for", start));
+    }
+}
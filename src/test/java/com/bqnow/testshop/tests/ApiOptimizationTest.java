@@ -1,11 +1,13 @@
 package com.bqnow.testshop.tests;
 
 import com.bqnow.testshop.base.BaseTest;
+import com.bqnow.testshop.base.EnforcePerformanceBudgets;
+import com.bqnow.testshop.network.NetworkProfile;
+import com.bqnow.testshop.network.UseNetworkProfile;
+import com.bqnow.testshop.state.StateInjector;
 import io.qameta.allure.*;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
-import java.util.HashMap;
-import java.util.Map;
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
 
 /**
@@ -14,6 +16,8 @@ import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertTha
  */
 @Epic("TestShop E2E")
 @Feature("Performance Optimierung")
+@UseNetworkProfile(NetworkProfile.FULL)
+@EnforcePerformanceBudgets
 public class ApiOptimizationTest extends BaseTest {
 
     private static final String PRODUCT_ID = "1";
@@ -30,43 +34,22 @@ public class ApiOptimizationTest extends BaseTest {
     @Description("Checkout-Setup via Zustandsinjektion (Umgehung der UI, ~60% schneller)")
     @Severity(SeverityLevel.NORMAL)
     public void checkoutSetupViaStateInjection() {
-        // Schritt 1: Warenkorb-Zustand direkt injizieren (Umgehung der UI)
-        Allure.step("Setup: Warenkorb via Zustand injizieren (Keine UI-Interaktion)", () -> {
-            Map<String, Object> productData = new HashMap<>();
-            productData.put("id", PRODUCT_ID);
-            productData.put("name", PRODUCT_NAME);
-            productData.put("price", PRODUCT_PRICE);
-
-            page.evaluate("(productData) => {" +
-                    "const cartState = [{" +
-                    "  id: productData.id," +
-                    "  name: productData.name," +
-                    "  price: productData.price," +
-                    "  quantity: 1" +
-                    "}];" +
-                    "localStorage.setItem('cart', JSON.stringify(cartState));" +
-                    "}", productData);
-        });
-
-        // Schritt 2: Navigiere direkt zum Warenkorb und messe Performance
-        Allure.step("Aktion: Navigiere & messe Performance", () -> {
-            long startTime = System.currentTimeMillis();
-
-            page.navigate("/cart");
-            assertThat(page.getByTestId("cart-total")).isVisible();
-
-            long duration = System.currentTimeMillis() - startTime;
-            Allure.addAttachment("Warenkorb Renderzeit", "text/plain", duration + "ms");
-
-            // Performance Assertion: sollte sehr schnell sein (< 1000ms inklusive
-            // Netzwerk-Overhead)
-            assert duration < 1000 : "Warenkorb Renderzeit sollte unter 1000ms sein, war aber: " + duration + "ms";
+        // Schritt 1+2: Warenkorb-Zustand per Init-Script injizieren (Umgehung der UI,
+        // keine zusätzliche Navigation) und direkt zum Warenkorb navigieren. Die
+        // Renderzeit wird im Browser gemessen (Web Vitals) und automatisch gegen das
+        // Budget für /cart geprüft (config/performance-budgets.properties)
+        Allure.step("Setup: Warenkorb via Zustand injizieren & zum Warenkorb (Performance-Budget /cart)", () -> {
+            startAtCart(StateInjector.create().cartItem(PRODUCT_ID, PRODUCT_NAME, PRODUCT_PRICE, 1), () -> {
+                shopPage().navigateTo();
+                shopPage().addProductDirectlyToCart(PRODUCT_ID);
+            });
+            assertThat(page().getByTestId("cart-total")).isVisible();
         });
 
         // Schritt 3: Verifiziere, dass das injizierte Produkt im Warenkorb ist
         Allure.step("Verifizierung: Produkt ist im Warenkorb", () -> {
-            assertThat(page.getByTestId("quantity-" + PRODUCT_ID)).isVisible();
-            assertThat(page.getByTestId("cart-total")).containsText(String.valueOf(PRODUCT_PRICE));
+            assertThat(page().getByTestId("quantity-" + PRODUCT_ID)).isVisible();
+            assertThat(page().getByTestId("cart-total")).containsText(String.valueOf(PRODUCT_PRICE));
         });
     }
 }
@@ -1,6 +1,7 @@
 package com.bqnow.testshop.tests;
 
 import com.bqnow.testshop.base.BaseTest;
+import com.bqnow.testshop.state.StateInjector;
 import com.bqnow.testshop.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import org.testng.annotations.BeforeMethod;
@@ -16,6 +17,8 @@ import org.testng.annotations.Test;
 public class CheckoutValidationTest extends BaseTest {
 
     private static final String PRODUCT_ID = "1";
+    private static final String PRODUCT_NAME = "Premium Wireless Headphones";
+    private static final double PRODUCT_PRICE = 299.99;
     private static final String PRODUCT_CATEGORY = "Electronics";
 
     @BeforeMethod
@@ -26,29 +29,19 @@ public class CheckoutValidationTest extends BaseTest {
     @DataProvider(name = "validationScenarios")
     public Object[][] validationScenarios() {
         return new Object[][] {
-                {
-                        "Ungültige PLZ (Muster)",
-                        TestDataGenerator.generateCustomer().firstName + " "
-                                + TestDataGenerator.generateCustomer().lastName,
-                        TestDataGenerator.generateCustomer().address,
-                        TestDataGenerator.generateCustomer().city,
-                        "123", // Zu kurz
-                        TestDataGenerator.generateCustomer().email,
-                        "checkout-zip"
-                },
-                {
-                        "Ungültiges E-Mail Format",
-                        TestDataGenerator.generateCustomer().firstName + " "
-                                + TestDataGenerator.generateCustomer().lastName,
-                        TestDataGenerator.generateCustomer().address,
-                        TestDataGenerator.generateCustomer().city,
-                        "12345",
-                        "keine-email", // Fehlendes @
-                        "checkout-email"
-                }
+                scenario("Ungültige PLZ (Muster)", TestDataGenerator.Invalid.SHORT_ZIP, "checkout-zip"),
+                scenario("Ungültiges E-Mail Format", TestDataGenerator.Invalid.MALFORMED_EMAIL, "checkout-email")
         };
     }
 
+    // Ein Kunde pro Szenario aus dem Datenbestand, genau ein Feld ungültig
+    private static Object[] scenario(String testName, TestDataGenerator.Invalid variant, String fieldToValidate) {
+        TestDataGenerator.CustomerData customer = TestDataGenerator
+                .customerFor("CheckoutValidationTest." + variant).invalid(variant);
+        return new Object[] { testName, customer.fullName(), customer.address, customer.city, customer.zipCode,
+                customer.email, fieldToValidate };
+    }
+
     @Test(dataProvider = "validationScenarios")
     @Story("REQ-003: Formular Validierung")
     @Description("Browser blockiert Absenden: {0}")
@@ -57,22 +50,23 @@ public class CheckoutValidationTest extends BaseTest {
             String city, String zip, String email, String fieldToValidate) {
         Allure.parameter("Test Szenario", testName);
 
-        // Schritt 1: Warenkorb vorbereiten
-        shopPage.filterByCategory(PRODUCT_CATEGORY);
-        shopPage.addProductDirectlyToCart(PRODUCT_ID);
+        // Schritt 1: Warenkorb per State-Injection vorbereiten und direkt im Warenkorb starten
+        startAtCart(StateInjector.create().cartItem(PRODUCT_ID, PRODUCT_NAME, PRODUCT_PRICE, 1), () -> {
+            shopPage().filterByCategory(PRODUCT_CATEGORY);
+            shopPage().addProductDirectlyToCart(PRODUCT_ID);
+        });
 
         // Schritt 2: Zum Checkout navigieren
-        cartPage.navigateTo();
-        cartPage.proceedToCheckout();
+        cartPage().proceedToCheckout();
 
         // Schritt 3: Formular mit ungültigen Daten füllen
-        cartPage.fillShippingDetails(fullName, address, city, zip, email);
+        cartPage().fillShippingDetails(fullName, address, city, zip, email);
 
         // Schritt 4: Absenden versuchen
-        cartPage.submitOrder();
+        cartPage().submitOrder();
 
         // Schritt 5: Validieren, dass spezifisches Feld ungültig ist (HTML5
         // Validierung)
-        cartPage.expectFieldToBeInvalid(fieldToValidate);
+        cartPage().expectFieldToBeInvalid(fieldToValidate);
     }
 }
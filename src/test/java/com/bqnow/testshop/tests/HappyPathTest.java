@@ -1,6 +1,8 @@
 package com.bqnow.testshop.tests;
 
 import com.bqnow.testshop.base.BaseTest;
+import com.bqnow.testshop.network.NetworkProfile;
+import com.bqnow.testshop.network.UseNetworkProfile;
 import com.bqnow.testshop.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import org.testng.annotations.BeforeMethod;
@@ -12,6 +14,7 @@ import org.testng.annotations.Test;
  */
 @Epic("TestShop E2E")
 @Feature("Checkout Prozess")
+@UseNetworkProfile(NetworkProfile.FULL)
 public class HappyPathTest extends BaseTest {
 
     // Testdaten
@@ -31,37 +34,37 @@ public class HappyPathTest extends BaseTest {
     public void standardCustomerJourney() {
         // Schritt 1: Suchen und Auswählen eines Produkts
         Allure.step("Produkt suchen und auswählen", () -> {
-            shopPage.filterByCategory(PRODUCT_CATEGORY);
-            shopPage.openProductDetails(PRODUCT_ID);
+            shopPage().filterByCategory(PRODUCT_CATEGORY);
+            shopPage().openProductDetails(PRODUCT_ID);
         });
 
         // Schritt 2: Zum Warenkorb hinzufügen
         Allure.step("Produkt in den Warenkorb legen", () -> {
-            productDetailPage.addToCart(PRODUCT_ID);
+            productDetailPage().addToCart(PRODUCT_ID);
         });
 
         // Schritt 3: Checkout mit dynamischen Daten
         Allure.step("Checkout mit dynamischen Benutzerdaten", () -> {
-            cartPage.navigateTo();
-            cartPage.increaseQuantity(PRODUCT_ID);
-            cartPage.checkTotal(PRODUCT_ID, PRODUCT_PRICE);
+            cartPage().navigateTo();
+            cartPage().increaseQuantity(PRODUCT_ID);
+            cartPage().checkTotal(PRODUCT_ID, PRODUCT_PRICE);
 
-            cartPage.proceedToCheckout();
+            cartPage().proceedToCheckout();
 
-            // Generiere realistische Fake-Daten für jeden Testlauf
-            TestDataGenerator.CustomerData customer = TestDataGenerator.generateCustomer();
+            // Realistische Fake-Daten, reproduzierbar über TEST_DATA_SEED
+            TestDataGenerator.CustomerData customer = TestDataGenerator.customerFor("HappyPathTest");
 
             Allure.addAttachment("Benutzerdaten", "text/plain", customer.toString());
 
-            cartPage.fillShippingDetails(
+            cartPage().fillShippingDetails(
                     customer.firstName + " " + customer.lastName,
                     customer.address,
                     customer.city,
                     customer.zipCode,
                     customer.email);
 
-            cartPage.submitOrder();
-            cartPage.verifyOrderSuccess();
+            cartPage().submitOrder();
+            cartPage().verifyOrderSuccess();
         });
     }
 }
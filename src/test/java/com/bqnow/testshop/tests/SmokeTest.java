@@ -1,6 +1,7 @@
 package com.bqnow.testshop.tests;
 
 import com.bqnow.testshop.base.BaseTest;
+import com.bqnow.testshop.base.FreshLogin;
 import com.microsoft.playwright.Page;
 import io.qameta.allure.*;
 import org.testng.annotations.BeforeMethod;
@@ -13,6 +14,7 @@ import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertTha
  */
 @Epic("TestShop E2E")
 @Feature("Authentifizierung")
+@FreshLogin
 public class SmokeTest extends BaseTest {
 
     @BeforeMethod
@@ -26,28 +28,28 @@ public class SmokeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void userCanLoginAndLogout() {
         // VALIDIERUNG: Nach Login sollte man auf der Startseite sein
-        assertThat(page).hasURL(java.util.regex.Pattern.compile(".*/"));
+        assertThat(page()).hasURL(java.util.regex.Pattern.compile(".*/"));
 
         // VALIDIERUNG: Logout-Button ist sichtbar
-        var logoutBtn = page.getByTestId("nav-logout");
+        var logoutBtn = page().getByTestId("nav-logout");
         assertThat(logoutBtn).isVisible();
 
         // VALIDIERUNG: Session-Token existiert im LocalStorage
-        String token = (String) page.evaluate("() => localStorage.getItem('token')");
+        String token = (String) page().evaluate("() => localStorage.getItem('token')");
         assert token != null && !token.isEmpty() : "Token sollte existieren";
         assert token.contains("mock-jwt-token") : "Token sollte 'mock-jwt-token' enthalten";
 
         // VALIDIERUNG: Benutzername wird angezeigt
-        assertThat(page.getByTestId("nav-user-menu")).containsText("consultant");
+        assertThat(page().getByTestId("nav-user-menu")).containsText("consultant");
 
         // LOGOUT DURCHFÜHREN
         logoutBtn.click();
 
         // VALIDIERUNG: Weiterleitung zur Startseite (nicht /login)
-        assertThat(page).hasURL(java.util.regex.Pattern.compile(".*/"));
+        assertThat(page()).hasURL(java.util.regex.Pattern.compile(".*/"));
 
         // VALIDIERUNG: Login-Link ist wieder sichtbar (statt Logout)
-        assertThat(page.getByRole(com.microsoft.playwright.options.AriaRole.LINK,
+        assertThat(page().getByRole(com.microsoft.playwright.options.AriaRole.LINK,
                 new Page.GetByRoleOptions().setName(java.util.regex.Pattern.compile("login",
                         java.util.regex.Pattern.CASE_INSENSITIVE))))
                 .isVisible();
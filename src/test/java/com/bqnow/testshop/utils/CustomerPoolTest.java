@@ -0,0 +1,88 @@
+package com.bqnow.testshop.utils;
+
+import com.bqnow.testshop.utils.TestDataGenerator.CustomerData;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Framework-Test: Reproduzierbarkeit und Persistenz des Kundenbestands.
+ */
+public class CustomerPoolTest {
+
+    @Test
+    public void sameSeedProducesSameCustomers() {
+        CustomerPool first = CustomerPool.generate(42, 50);
+        CustomerPool second = CustomerPool.generate(42, 50);
+
+        for (int i = 0; i < 50; i++) {
+            assertSameCustomer(second.next(), first.next());
+        }
+        assertNotEquals(CustomerPool.generate(43, 1).next().email, CustomerPool.generate(42, 1).next().email);
+        assertSameCustomer(second.forKey("HappyPathTest"), first.forKey("HappyPathTest"));
+    }
+
+    @Test
+    public void savedCorpusLoadsIdentically() throws IOException {
+        CustomerPool pool = CustomerPool.generate(7, 20);
+        Path file = Files.createTempFile("customers", ".tsv");
+        try {
+            pool.save(file);
+            CustomerPool loaded = CustomerPool.load(file);
+
+            assertEquals(loaded.seed(), 7);
+            assertEquals(loaded.size(), 20);
+            for (int i = 0; i < 20; i++) {
+                assertSameCustomer(loaded.next(), pool.next());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void invalidVariantsChangeExactlyOneField() {
+        CustomerData customer = CustomerPool.generate(1, 1).next();
+
+        CustomerData shortZip = customer.invalid(TestDataGenerator.Invalid.SHORT_ZIP);
+        assertEquals(shortZip.zipCode.length(), 3);
+        assertEquals(shortZip.email, customer.email);
+
+        CustomerData malformedEmail = customer.invalid(TestDataGenerator.Invalid.MALFORMED_EMAIL);
+        assertFalse(malformedEmail.email.contains("@"));
+        assertEquals(malformedEmail.zipCode, customer.zipCode);
+    }
+
+    @Test
+    public void handsOutEveryCustomerOnceAcrossWorkers() throws InterruptedException {
+        CustomerPool pool = CustomerPool.generate(3, 400);
+        Set<CustomerData> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            workers.execute(() -> seen.add(pool.next()));
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(seen.size(), 400);
+    }
+
+    private static void assertSameCustomer(CustomerData actual, CustomerData expected) {
+        assertEquals(actual.fullName(), expected.fullName());
+        assertEquals(actual.email, expected.email);
+        assertEquals(actual.address, expected.address);
+        assertEquals(actual.city, expected.city);
+        assertEquals(actual.zipCode, expected.zipCode);
+    }
+}